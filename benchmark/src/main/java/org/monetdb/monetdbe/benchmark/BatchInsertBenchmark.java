@@ -0,0 +1,79 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.monetdb.monetdbe.MonetConnection;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert throughput of the batch paths: prepared statement batches (monetdbe_execute_batch) and
+ * column appends (monetdbe_append). Each invocation inserts batchSize rows into an empty table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+    @Param({"1000", "100000"})
+    public int batchSize;
+
+    private Connection conn;
+    private PreparedStatement insert;
+    private int[] ints;
+    private double[] doubles;
+    private String[] strings;
+
+    @Setup
+    public void setup() throws SQLException {
+        conn = BenchmarkDatabase.open();
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE bench_batch (i INTEGER, d DOUBLE, v STRING);");
+        }
+        insert = conn.prepareStatement("INSERT INTO bench_batch VALUES (?, ?, ?);");
+        ints = new int[batchSize];
+        doubles = new double[batchSize];
+        strings = new String[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            ints[i] = i;
+            doubles[i] = i / 3.0;
+            strings[i] = "value " + i;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM bench_batch;");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        insert.close();
+        conn.close();
+    }
+
+    /** Rows added one by one with addBatch(), executed as a single column batch */
+    @Benchmark
+    public int[] preparedBatch() throws SQLException {
+        for (int i = 0; i < batchSize; i++) {
+            insert.setInt(1, ints[i]);
+            insert.setDouble(2, doubles[i]);
+            insert.setString(3, strings[i]);
+            insert.addBatch();
+        }
+        return insert.executeBatch();
+    }
+
+    /** The same rows appended as Java arrays in a single native call */
+    @Benchmark
+    public void appendColumns() throws SQLException {
+        conn.unwrap(MonetConnection.class).appendColumns(null, "bench_batch", ints, doubles, strings);
+    }
+}
@@ -0,0 +1,60 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Opens the in-memory databases used by the benchmarks and fills them with test data.
+ */
+final class BenchmarkDatabase {
+    /** In-memory database, so that the benchmarks measure the driver instead of disk access */
+    static final String URL = "jdbc:monetdb:memory:";
+
+    /** Columns of the bench_types table, one per result column type converted by the driver */
+    static final String[] TYPE_COLUMNS = {"b", "t", "s", "i", "l", "r", "d", "v", "dt", "tm", "ts"};
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Connects to a new in-memory database.
+     *
+     * @return The connection
+     * @throws SQLException if the database could not be opened
+     */
+    static Connection open() throws SQLException {
+        return DriverManager.getConnection(URL, new Properties());
+    }
+
+    /**
+     * Creates the bench_types table, with a column of each type and NULL values at every tenth row.
+     *
+     * @param conn Connection to the database
+     * @param rows Number of rows
+     * @throws SQLException if the table could not be created
+     */
+    static void createTypesTable(Connection conn, int rows) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE bench_types AS SELECT "
+                    + nullable("value % 2 = 0") + " AS b, "
+                    + nullable("CAST(value % 100 AS TINYINT)") + " AS t, "
+                    + nullable("CAST(value % 10000 AS SMALLINT)") + " AS s, "
+                    + nullable("CAST(value AS INTEGER)") + " AS i, "
+                    + nullable("CAST(value AS BIGINT) * 1000") + " AS l, "
+                    + nullable("CAST(value AS REAL) / 3") + " AS r, "
+                    + nullable("CAST(value AS DOUBLE) / 7") + " AS d, "
+                    + nullable("'value ' || value") + " AS v, "
+                    + nullable("CAST('2020-01-01' AS DATE) + value % 1000 * INTERVAL '1' DAY") + " AS dt, "
+                    + nullable("CAST('10:00:00' AS TIME) + value % 3600 * INTERVAL '1' SECOND") + " AS tm, "
+                    + nullable("CAST('2020-01-01 10:00:00' AS TIMESTAMP) + value * INTERVAL '1' SECOND") + " AS ts "
+                    + "FROM sys.generate_series(0, " + rows + ") WITH DATA;");
+        }
+    }
+
+    private static String nullable(String value) {
+        return "CASE WHEN value % 10 = 9 THEN NULL ELSE " + value + " END";
+    }
+}
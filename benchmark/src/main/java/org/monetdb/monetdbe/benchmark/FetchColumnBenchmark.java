@@ -0,0 +1,90 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.monetdb.monetdbe.MonetResultSet;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Conversion of whole result columns from the native result (monetdbe_result_fetch_column), for each column type.
+ * The query runs before each invocation, so that only the conversion of the column is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchColumnBenchmark {
+    /** Column of the bench_types table, see BenchmarkDatabase.TYPE_COLUMNS */
+    @Param({"b", "t", "s", "i", "l", "r", "d", "v", "dt", "tm", "ts"})
+    public String column;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Connection conn;
+    private Statement statement;
+    private MonetResultSet rs;
+
+    @Setup
+    public void setup() throws SQLException {
+        conn = BenchmarkDatabase.open();
+        BenchmarkDatabase.createTypesTable(conn, rows);
+        statement = conn.createStatement();
+    }
+
+    @Setup(Level.Invocation)
+    public void query() throws SQLException {
+        rs = statement.executeQuery("SELECT " + column + " FROM bench_types;").unwrap(MonetResultSet.class);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeResult() throws SQLException {
+        rs.close();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        statement.close();
+        conn.close();
+    }
+
+    @Benchmark
+    public Object fetchColumn() throws SQLException {
+        switch (column) {
+            case "b":
+            case "t":
+                return rs.getByteColumn(1);
+            case "s":
+                return rs.getShortColumn(1);
+            case "i":
+                return rs.getIntColumn(1);
+            case "l":
+                return rs.getLongColumn(1);
+            case "r":
+                return rs.getFloatColumn(1);
+            case "d":
+                return rs.getDoubleColumn(1);
+            case "v":
+                return rs.getStringColumn(1);
+            case "dt":
+                return rs.getDateColumn(1);
+            case "tm":
+                return rs.getTimeColumn(1);
+            case "ts":
+                return rs.getTimestampColumn(1);
+            default:
+                throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    /** Conversion of the column together with its null bitmap, which is computed on the Java side for numeric columns */
+    @Benchmark
+    public Object fetchNulls() throws SQLException {
+        return rs.getNulls(1);
+    }
+}
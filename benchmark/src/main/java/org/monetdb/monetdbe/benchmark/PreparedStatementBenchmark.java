@@ -0,0 +1,78 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Binding parameters and executing MonetPreparedStatements (monetdbe_bind_* and monetdbe_execute).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreparedStatementBenchmark {
+    private Connection conn;
+    private PreparedStatement select;
+    private PreparedStatement insert;
+    private int next;
+
+    @Setup
+    public void setup() throws SQLException {
+        conn = BenchmarkDatabase.open();
+        BenchmarkDatabase.createTypesTable(conn, 100000);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE bench_insert (i INTEGER, d DOUBLE, v STRING);");
+        }
+        select = conn.prepareStatement("SELECT l, v FROM bench_types WHERE i = ?;");
+        insert = conn.prepareStatement("INSERT INTO bench_insert VALUES (?, ?, ?);");
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM bench_insert;");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        select.close();
+        insert.close();
+        conn.close();
+    }
+
+    /** Binds one parameter and reads the single row result */
+    @Benchmark
+    public long bindAndSelect() throws SQLException {
+        select.setInt(1, next++ % 100000);
+        try (ResultSet rs = select.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /** Binds three parameters of different types and inserts a row */
+    @Benchmark
+    public int bindAndInsert() throws SQLException {
+        int i = next++;
+        insert.setInt(1, i);
+        insert.setDouble(2, i / 3.0);
+        insert.setString(3, "value " + i);
+        return insert.executeUpdate();
+    }
+
+    /** Prepares a statement, which is taken from the connection's statement cache after the first call */
+    @Benchmark
+    public int prepareAndClose() throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT l, v FROM bench_types WHERE i = ?;")) {
+            return ps.getParameterMetaData().getParameterCount();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Round trips through monetdbe_query: statements whose execution and result handling are cheap, so that the
+ * time is spent in the driver and its JNI calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+    private Connection conn;
+    private Statement statement;
+
+    @Setup
+    public void setup() throws SQLException {
+        conn = BenchmarkDatabase.open();
+        BenchmarkDatabase.createTypesTable(conn, 1000);
+        statement = conn.createStatement();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        statement.close();
+        conn.close();
+    }
+
+    /** Query with a single value result */
+    @Benchmark
+    public int selectConstant() throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT 1;")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /** Query with an aggregate over a table */
+    @Benchmark
+    public long countRows() throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM bench_types;")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Update without a result set, which returns an update count */
+    @Benchmark
+    public int updateNoRows() throws SQLException {
+        return statement.executeUpdate("UPDATE bench_types SET i = i WHERE i < 0;");
+    }
+}
@@ -0,0 +1,103 @@
+package org.monetdb.monetdbe.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Row by row reads through the MonetResultSet getters, including the conversion of the column from the native result.
+ * With a fetch size, the result is converted in windows of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowLoopBenchmark {
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"0", "8192"})
+    public int fetchSize;
+
+    private Connection conn;
+    private Statement statement;
+    private ResultSet rs;
+
+    @Setup
+    public void setup() throws SQLException {
+        conn = BenchmarkDatabase.open();
+        BenchmarkDatabase.createTypesTable(conn, rows);
+        statement = conn.createStatement();
+        statement.setFetchSize(fetchSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void query() throws SQLException {
+        rs = statement.executeQuery("SELECT i, l, d, v, ts FROM bench_types;");
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeResult() throws SQLException {
+        rs.close();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        statement.close();
+        conn.close();
+    }
+
+    @Benchmark
+    public long getInt() throws SQLException {
+        long sum = 0;
+        while (rs.next())
+            sum += rs.getInt(1);
+        return sum;
+    }
+
+    @Benchmark
+    public long getLong() throws SQLException {
+        long sum = 0;
+        while (rs.next())
+            sum += rs.getLong(2);
+        return sum;
+    }
+
+    @Benchmark
+    public double getDouble() throws SQLException {
+        double sum = 0;
+        while (rs.next())
+            sum += rs.getDouble(3);
+        return sum;
+    }
+
+    @Benchmark
+    public void getString(Blackhole bh) throws SQLException {
+        while (rs.next())
+            bh.consume(rs.getString(4));
+    }
+
+    @Benchmark
+    public void getTimestamp(Blackhole bh) throws SQLException {
+        while (rs.next()) {
+            Timestamp ts = rs.getTimestamp(5);
+            bh.consume(ts);
+        }
+    }
+
+    @Benchmark
+    public void getObject(Blackhole bh) throws SQLException {
+        while (rs.next()) {
+            bh.consume(rs.getObject(1));
+            bh.consume(rs.getObject(4));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.monetdb.monetdbe;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the rows of a query result as fixed-size {@link MonetColumnBatch}es, with backpressure.
+ * Retrieved through {@link MonetResultSet#publishBatches(int)}.
+ *
+ * Batches are only converted from the native result when the subscriber requests them, so the result is never
+ * converted as a whole. The protocol follows java.util.concurrent.Flow (and Reactive Streams): {@link Subscriber}
+ * and {@link Subscription} have the same methods as Flow.Subscriber and Flow.Subscription, so that they can be
+ * adapted to Flow on Java 9 and later while this driver keeps supporting Java 8.
+ *
+ * Batches are emitted on the thread calling {@link Subscription#request(long)}. A result can only be subscribed to once,
+ * and the result set must stay open while it is being published.
+ */
+public class MonetBatchPublisher {
+    /**
+     * Receives the batches of a result, see java.util.concurrent.Flow.Subscriber.
+     */
+    public interface Subscriber {
+        /**
+         * Called before any other method, with the subscription through which batches are requested.
+         *
+         * @param subscription The subscription of this subscriber
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called for each requested batch, in the order of the result.
+         *
+         * @param batch The next batch of rows
+         */
+        void onNext(MonetColumnBatch batch);
+
+        /**
+         * Called when the result could not be published. No other method is called afterwards.
+         *
+         * @param throwable The error
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called after the last batch of the result. No other method is called afterwards.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Links a subscriber to the published result, see java.util.concurrent.Flow.Subscription.
+     */
+    public interface Subscription {
+        /**
+         * Requests more batches. Batches are delivered until the requested number was emitted or the result ends.
+         *
+         * @param n Number of batches to add to the demand, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops the emission of batches. Batches which are already being delivered may still arrive.
+         */
+        void cancel();
+    }
+
+    /** The result set being published */
+    private final MonetResultSet resultSet;
+    /** Maximum number of rows per batch */
+    private final int batchSize;
+    /** Whether the result was already subscribed to */
+    private final AtomicBoolean subscribed;
+
+    /**
+     * Constructor for batch publishers (called from MonetResultSet)
+     *
+     * @param resultSet The result set to publish
+     * @param batchSize Maximum number of rows per batch
+     */
+    MonetBatchPublisher(MonetResultSet resultSet, int batchSize) {
+        this.resultSet = resultSet;
+        this.batchSize = batchSize;
+        this.subscribed = new AtomicBoolean();
+    }
+
+    /**
+     * Subscribes to the batches of the result. Empty results complete without any request.
+     * A second subscriber receives an IllegalStateException through onError().
+     *
+     * @param subscriber The subscriber
+     */
+    public void subscribe(Subscriber subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException("subscriber is null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A result can only be subscribed to once"));
+            return;
+        }
+        BatchSubscription subscription = new BatchSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Subscription which emits batches while there is demand.
+     */
+    private final class BatchSubscription implements Subscription {
+        /** The subscriber */
+        private final Subscriber subscriber;
+        /** Requested batches which were not emitted yet, Long.MAX_VALUE for unbounded demand */
+        private final AtomicLong demand;
+        /** Number of pending drain() calls, only the first one emits batches */
+        private final AtomicInteger pending;
+        /** Whether the subscription was cancelled or terminated */
+        private volatile boolean done;
+        /** Error to signal from the draining thread, set by an invalid request */
+        private volatile Throwable error;
+        /** Next row of the result to emit, only used by the draining thread */
+        private int nextRow;
+
+        BatchSubscription(Subscriber subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.pending = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested number of batches must be positive, got " + n);
+            } else {
+                long current, next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        /**
+         * Emits batches while there is demand. Calls from onNext() (or from other threads while batches
+         * are emitted) only record that the demand changed, so batches are never emitted concurrently.
+         */
+        void drain() {
+            if (pending.getAndIncrement() != 0)
+                return;
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (error != null) {
+                        done = true;
+                        subscriber.onError(error);
+                        break;
+                    }
+                    if (nextRow >= resultSet.getRowCount()) {
+                        done = true;
+                        subscriber.onComplete();
+                        break;
+                    }
+                    long requested = demand.get();
+                    if (requested == 0)
+                        break;
+                    MonetColumnBatch batch;
+                    try {
+                        batch = resultSet.fetchBatch(nextRow, batchSize);
+                    } catch (SQLException e) {
+                        done = true;
+                        subscriber.onError(e);
+                        break;
+                    }
+                    nextRow += batch.getRowCount();
+                    if (requested != Long.MAX_VALUE)
+                        demand.decrementAndGet();
+                    subscriber.onNext(batch);
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -19,7 +19,8 @@ import java.util.BitSet;
  * (follows table B6 of the JDBC 4.3 specification).
  */
 public class MonetColumn {
-    /** Stores constant length types */
+    /** Stores constant length types. Dates are stored as days since the epoch (int), times as nanoseconds of the day (long)
+     * and timestamps as microseconds since the epoch (long), java.time objects are only created when a row is read */
     private ByteBuffer constData;
     /** Stores variable length types */
     private Object[] varData;
@@ -33,29 +34,64 @@ public class MonetColumn {
     private int monetdbeType;
     /** MonetDBe type name (String), used for ResultSetMetaData */
     private String typeName;
-    /** Array with indexes of null values for decimal/numerical values (null if it's not a decimal) */
-    private boolean[] decimalNulls;
+    /** Null bitmap for constant length types: bit (row % 64) of word (row / 64) is set at the rows which are null.
+     * Numeric columns keep MonetDB's NULL values in the native result, and their bitmap is only computed on the first null check
+     * (null until then). Temporal columns get their bitmap from the native conversion. Empty if the column has no null values */
+    private volatile long[] nullBits;
+    /** Typed views over constData, created once for the column's type so that reads don't allocate */
+    private ShortBuffer shortData;
+    private IntBuffer intData;
+    private LongBuffer longData;
+    private FloatBuffer floatData;
+    private DoubleBuffer doubleData;
 
-    /** Constructor for constant length data types (called from monetdbe_result_fetch_all)
+    /** Empty null bitmap, for columns without null values */
+    private static final long[] NO_NULLS = new long[0];
+
+    /** Constructor for constant length data types (called from monetdbe_result_fetch_rows and monetdbe_result_fetch_column)
      *
      * @param name Column name
      * @param monetdbeType MonetDBe type (int)
      * @param constData Column data
      * @param scale Scale for decimal values
-     * @param decimalNulls Array containing the indexes of nulls for decimal values (null if it's not a decimal)
+     * @param nullBits Null bitmap of temporal columns (null if the column has no null values), null for numeric columns
      *
      */
-    public MonetColumn(String name, int monetdbeType, ByteBuffer constData, int precision, int scale, boolean[] decimalNulls) {
+    public MonetColumn(String name, int monetdbeType, ByteBuffer constData, int precision, int scale, long[] nullBits) {
         this.name = name;
         this.monetdbeType = monetdbeType;
         this.typeName = MonetTypes.getMonetTypeString(monetdbeType);
         this.constData = constData.order(ByteOrder.LITTLE_ENDIAN);
         this.precision = precision;
         this.scale = scale;
-        this.decimalNulls = decimalNulls;
+        if (monetdbeType >= 11 && monetdbeType <= 13)
+            this.nullBits = nullBits != null ? nullBits : NO_NULLS;
+
+        switch (monetdbeType) {
+            case 2:
+                this.shortData = this.constData.asShortBuffer();
+                break;
+            case 3:
+            case 11:
+                this.intData = this.constData.asIntBuffer();
+                break;
+            case 4:
+            case 12:
+            case 13:
+                this.longData = this.constData.asLongBuffer();
+                break;
+            case 7:
+                this.floatData = this.constData.asFloatBuffer();
+                break;
+            case 8:
+                this.doubleData = this.constData.asDoubleBuffer();
+                break;
+            default:
+                break;
+        }
     }
 
-    /** Constructor for variable length data types (called from monetdbe_result_fetch_all)
+    /** Constructor for variable length data types (called from monetdbe_result_fetch_rows and monetdbe_result_fetch_column)
      *
      * @param name Column name
      * @param monetdbeType MonetDBe type (int)
@@ -90,6 +126,370 @@ public class MonetColumn {
         return scale;
     }
 
+    /**
+     * Returns the data of a Boolean or Byte column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    ByteBuffer getByteBuffer() {
+        return constData.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the data of a Short column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    ShortBuffer getShortBuffer() {
+        return shortData.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the data of an Integer column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    IntBuffer getIntBuffer() {
+        return intData.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the data of a Long column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    LongBuffer getLongBuffer() {
+        return longData.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the data of a Float column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    FloatBuffer getFloatBuffer() {
+        return floatData.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the data of a Double column, as a read-only buffer over the native result.
+     *
+     * @return Read-only buffer with one value per row
+     */
+    DoubleBuffer getDoubleBuffer() {
+        return doubleData.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the rows which are null in this column.
+     *
+     * @param rows Number of rows in the column
+     * @return Set bits at the rows which are null
+     */
+    BitSet getNulls(int rows) {
+        if (constData != null) {
+            return BitSet.valueOf(getNullBits());
+        }
+        BitSet result = new BitSet(rows);
+        for (int row = 0; row < rows; row++) {
+            if (isNull(row)) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the value at a specified row is null.
+     *
+     * @param row Row number to check
+     * @return true if the value at the specified row is null
+     */
+    boolean isNull(int row) {
+        if (constData != null) {
+            long[] bits = getNullBits();
+            return bits.length != 0 && (bits[row >>> 6] & (1L << row)) != 0;
+        }
+        return varData[row] == null;
+    }
+
+    /**
+     * Returns the null bitmap of a constant length column, computing it on the first call for numeric columns.
+     *
+     * @return Null bitmap, empty if the column has no null values
+     */
+    private long[] getNullBits() {
+        long[] bits = nullBits;
+        if (bits == null) {
+            bits = scanNulls();
+            nullBits = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * Builds the null bitmap of a numeric column, by comparing its values with MonetDB's NULL value for the type:
+     * the minimum value for booleans and integer types, NaN for floating point types.
+     *
+     * @return Null bitmap, empty if the column has no null values
+     */
+    private long[] scanNulls() {
+        int rows = constData.capacity() / MonetTypes.getMonetSize(monetdbeType);
+        long[] bits = null;
+        switch (monetdbeType) {
+            case 0:
+            case 1:
+                for (int row = 0; row < rows; row++) {
+                    if (constData.get(row) == Byte.MIN_VALUE)
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 2:
+                for (int row = 0; row < rows; row++) {
+                    if (shortData.get(row) == Short.MIN_VALUE)
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 3:
+                for (int row = 0; row < rows; row++) {
+                    if (intData.get(row) == Integer.MIN_VALUE)
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 4:
+                for (int row = 0; row < rows; row++) {
+                    if (longData.get(row) == Long.MIN_VALUE)
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 5:
+                //Little-endian 128-bit values, NULL has only the sign bit set
+                for (int row = 0; row < rows; row++) {
+                    if (constData.getLong(row * 16) == 0 && constData.getLong(row * 16 + 8) == Long.MIN_VALUE)
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 7:
+                for (int row = 0; row < rows; row++) {
+                    if (Float.isNaN(floatData.get(row)))
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            case 8:
+                for (int row = 0; row < rows; row++) {
+                    if (Double.isNaN(doubleData.get(row)))
+                        bits = setNullBit(bits, rows, row);
+                }
+                break;
+            default:
+                break;
+        }
+        return bits != null ? bits : NO_NULLS;
+    }
+
+    private static long[] setNullBit(long[] bits, int rows, int row) {
+        if (bits == null)
+            bits = new long[(rows + 63) >>> 6];
+        bits[row >>> 6] |= 1L << row;
+        return bits;
+    }
+
+    /**
+     * Returns the size of a value of a constant length column in constData.
+     *
+     * @return Size in bytes
+     */
+    private int valueSize() {
+        if (monetdbeType == 11)
+            return 4;
+        else if (monetdbeType == 12 || monetdbeType == 13)
+            return 8;
+        return MonetTypes.getMonetSize(monetdbeType);
+    }
+
+    /**
+     * Copies a range of rows of this column into Java memory, so that the copy does not depend on the native result
+     * (used by the {@link MonetResultCache}).
+     *
+     * @param offset First row to copy (starts at 0)
+     * @param rows Number of rows to copy
+     * @return Column holding the copied rows
+     */
+    MonetColumn copyRows(int offset, int rows) {
+        if (constData == null)
+            return new MonetColumn(name, monetdbeType, Arrays.copyOfRange(varData, offset, offset + rows));
+        int size = valueSize();
+        ByteBuffer source = constData.duplicate();
+        source.limit((offset + rows) * size).position(offset * size);
+        ByteBuffer data = ByteBuffer.allocateDirect(rows * size);
+        data.put(source);
+        data.clear();
+        //Numeric columns keep their NULL values, temporal columns need their bitmap
+        long[] bits = null;
+        if (monetdbeType >= 11 && monetdbeType <= 13) {
+            for (int row = 0; row < rows; row++) {
+                if (isNull(offset + row))
+                    bits = setNullBit(bits, rows, row);
+            }
+        }
+        return new MonetColumn(name, monetdbeType, data, precision, scale, bits);
+    }
+
+    /**
+     * Estimates the memory used by this column.
+     *
+     * @param rows Number of rows in the column
+     * @return Estimated size in bytes
+     */
+    long estimateSize(int rows) {
+        if (constData != null)
+            return (long) rows * valueSize() + (rows >>> 3);
+        long size = (long) rows * 8;
+        for (int row = 0; row < rows; row++) {
+            Object value = varData[row];
+            if (value instanceof String)
+                size += 40 + 2L * ((String) value).length();
+            else if (value instanceof byte[])
+                size += 16 + ((byte[]) value).length;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive boolean, without boxing for Boolean columns.
+     * For other types, follows the conversions of {@link #getBoolean(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or false if the column type is not supported
+     */
+    boolean getBooleanValue(int row) {
+        if (monetdbeType == 0) {
+            return constData.get(row) != 0;
+        }
+        Boolean val = getBoolean(row);
+        return val != null && val;
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive byte, without boxing for Byte columns.
+     * For other types, follows the conversions of {@link #getByte(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    byte getByteValue(int row) {
+        if (monetdbeType == 1) {
+            return constData.get(row);
+        }
+        Byte val = getByte(row);
+        return val != null ? val : 0;
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive short, without boxing for Short and Byte columns.
+     * For other types, follows the conversions of {@link #getShort(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    short getShortValue(int row) {
+        switch (monetdbeType) {
+            case 1:
+                return constData.get(row);
+            case 2:
+                return shortData.get(row);
+            default:
+                Short val = getShort(row);
+                return val != null ? val : 0;
+        }
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive int, without boxing for Integer, Short and Byte columns.
+     * For other types, follows the conversions of {@link #getInt(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    int getIntValue(int row) {
+        switch (monetdbeType) {
+            case 1:
+                return constData.get(row);
+            case 2:
+                return shortData.get(row);
+            case 3:
+                return intData.get(row);
+            default:
+                Integer val = getInt(row);
+                return val != null ? val : 0;
+        }
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive long, without boxing for Long, Integer, Short and Byte columns.
+     * For other types, follows the conversions of {@link #getLong(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    long getLongValue(int row) {
+        switch (monetdbeType) {
+            case 1:
+                return constData.get(row);
+            case 2:
+                return shortData.get(row);
+            case 3:
+                return intData.get(row);
+            case 4:
+                return longData.get(row);
+            default:
+                Long val = getLong(row);
+                return val != null ? val : 0;
+        }
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive float, without boxing for Float columns.
+     * For other types, follows the conversions of {@link #getFloat(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    float getFloatValue(int row) {
+        if (monetdbeType == 7) {
+            return floatData.get(row);
+        }
+        Float val = getFloat(row);
+        return val != null ? val : 0;
+    }
+
+    /**
+     * Gets the value at a specified row as a primitive double, without boxing for Double, Float and integer columns.
+     * For other types, follows the conversions of {@link #getDouble(int)}.
+     *
+     * @param row Row number to get value from
+     * @return Value at specified row, or 0 if the column type is not supported
+     */
+    double getDoubleValue(int row) {
+        switch (monetdbeType) {
+            case 1:
+                return constData.get(row);
+            case 2:
+                return shortData.get(row);
+            case 3:
+                return intData.get(row);
+            case 4:
+                return longData.get(row);
+            case 7:
+                return floatData.get(row);
+            case 8:
+                return doubleData.get(row);
+            default:
+                Double val = getDouble(row);
+                return val != null ? val : 0;
+        }
+    }
+
     /**
      * Gets the value at a specified row, as the default Java object class for the column's MonetDBe type.
      *
@@ -97,23 +497,25 @@ public class MonetColumn {
      * @return Value at specified row, as the default Java object class for this column's type
      */
     Object getObject (int row) {
+        if (isNull(row))
+            return null;
         switch (monetdbeType) {
             case 0:
                 return constData.get(row)!=0;
             case 1:
                 return constData.get(row);
             case 2:
-                return constData.asShortBuffer().get(row);
+                return shortData.get(row);
             case 3:
-                return constData.asIntBuffer().get(row);
+                return intData.get(row);
             case 4:
-                return constData.asLongBuffer().get(row);
+                return longData.get(row);
             case 5:
                 return getBigInteger(row);
             case 7:
-                return constData.asFloatBuffer().get(row);
+                return floatData.get(row);
             case 8:
-                return constData.asDoubleBuffer().get(row);
+                return doubleData.get(row);
             case 9:
                 return getString(row);
             case 10:
@@ -184,7 +586,7 @@ public class MonetColumn {
      */
     Short getShort(int row) {
         if (monetdbeType == 2) {
-            return constData.asShortBuffer().get(row);
+            return shortData.get(row);
         }
         else if (monetdbeType == 1) {
             return (short) constData.get(row);
@@ -211,7 +613,7 @@ public class MonetColumn {
      */
     Integer getInt(int row) {
         if (monetdbeType == 3) {
-            return constData.asIntBuffer().get(row);
+            return intData.get(row);
         }
         else if (monetdbeType == 0) {
             return getBoolean(row) ? 1 : 0;
@@ -235,7 +637,7 @@ public class MonetColumn {
      */
     Long getLong(int row) {
         if (monetdbeType == 4) {
-            return constData.asLongBuffer().get(row);
+            return longData.get(row);
         }
         else if (monetdbeType == 0) {
             return getBoolean(row) ? (long) 1 : 0;
@@ -259,7 +661,7 @@ public class MonetColumn {
      */
     Float getFloat(int row) {
         if (monetdbeType == 7) {
-            return constData.asFloatBuffer().get(row);
+            return floatData.get(row);
         }
         else if (monetdbeType == 0) {
             return getBoolean(row) ? (float) 1 : 0;
@@ -283,7 +685,7 @@ public class MonetColumn {
      */
     Double getDouble(int row) {
         if (monetdbeType == 8) {
-            return constData.asDoubleBuffer().get(row);
+            return doubleData.get(row);
         }
         else if (monetdbeType == 0) {
             return getBoolean(row) ? (double) 1 : 0;
@@ -306,7 +708,7 @@ public class MonetColumn {
      * @return If the column type is supported, value at specified row as a BigInteger object. Otherwise, returns NULL
      */
     BigInteger getBigInteger(int row) {
-        if (monetdbeType != 5)
+        if (monetdbeType != 5 || isNull(row))
             return null;
         int size = MonetTypes.getMonetSize(monetdbeType);
         byte[] byteData = new byte[size];
@@ -329,7 +731,7 @@ public class MonetColumn {
      */
     BigDecimal getBigDecimal(int row) {
         //If the request row was marked as a NULL, return NULL
-        if (decimalNulls != null && decimalNulls[row]) {
+        if (isNull(row)) {
             return null;
         }
         int scale = getScale();
@@ -365,6 +767,9 @@ public class MonetColumn {
         if (monetdbeType == 9) {
             return (String) varData[row];
         }
+        else if (isNull(row)) {
+            return null;
+        }
         else {
             return String.valueOf(getObject(row));
         }
@@ -413,16 +818,16 @@ public class MonetColumn {
      * @return If the column type is supported, value at specified row as a LocalDate object. Otherwise, returns NULL
      */
     LocalDate getLocalDate(int row) throws DateTimeParseException {
-        if (varData[row] == null)
+        if (isNull(row))
             return null;
         switch (monetdbeType) {
             case 9:
                 DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd");
                 return  LocalDate.parse((String) varData[row],dtf);
             case 11:
-                return (LocalDate) varData[row];
+                return LocalDate.ofEpochDay(intData.get(row));
             case 13:
-                return ((LocalDateTime) varData[row]).toLocalDate();
+                return getLocalDateTime(row).toLocalDate();
             default:
                 return LocalDate.ofEpochDay(0);
         }
@@ -437,16 +842,16 @@ public class MonetColumn {
      * @return If the column type is supported, value at specified row as a LocalTime object. Otherwise, returns NULL
      */
     LocalTime getLocalTime(int row) throws DateTimeParseException {
-        if (varData[row] == null)
+        if (isNull(row))
             return null;
         switch (monetdbeType) {
             case 9:
                 DateTimeFormatter dtf = DateTimeFormatter.ofPattern("HH:mm:ss[.SSSSSS][.SSSS][.SS]");
                 return  LocalTime.parse((String) varData[row],dtf);
             case 12:
-                return (LocalTime) varData[row];
+                return LocalTime.ofNanoOfDay(longData.get(row));
             case 13:
-                return ((LocalDateTime) varData[row]).toLocalTime();
+                return getLocalDateTime(row).toLocalTime();
             default:
                 return LocalTime.ofSecondOfDay(0);
         }
@@ -461,18 +866,19 @@ public class MonetColumn {
      * @return If the column type is supported, value at specified row as a LocalDateTime object. Otherwise, returns NULL
      */
     LocalDateTime getLocalDateTime(int row) throws DateTimeParseException {
-        if (varData[row] == null)
+        if (isNull(row))
             return null;
         switch (monetdbeType) {
             case 9:
                 DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS][.SSSS][.SS]");
                 return  LocalDateTime.parse((String) varData[row],dtf);
             case 11:
-                return LocalDateTime.ofEpochSecond(0,0,ZoneOffset.UTC).with((LocalDate) varData[row]);
+                return LocalDateTime.ofEpochSecond(0,0,ZoneOffset.UTC).with(getLocalDate(row));
             case 12:
-                return LocalDateTime.ofEpochSecond(0,0,ZoneOffset.UTC).with((LocalTime) varData[row]);
+                return LocalDateTime.ofEpochSecond(0,0,ZoneOffset.UTC).with(getLocalTime(row));
             case 13:
-                return (LocalDateTime) varData[row];
+                long micros = longData.get(row);
+                return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1000000L), (int) Math.floorMod(micros, 1000000L) * 1000, ZoneOffset.UTC);
             default:
                 return LocalDateTime.ofEpochSecond(0,0,ZoneOffset.UTC);
         }
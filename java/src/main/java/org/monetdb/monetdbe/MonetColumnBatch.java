@@ -0,0 +1,126 @@
+package org.monetdb.monetdbe;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * A batch of consecutive rows of a query result, with the rows of each column converted together.
+ * Batches are emitted by a {@link MonetBatchPublisher}, retrieved through {@link MonetResultSet#publishBatches(int)}.
+ *
+ * Constant length columns may point to the native result memory, so a batch is only valid until its result set is closed.
+ */
+public class MonetColumnBatch {
+    /** Columns of the batch, holding only the rows of the batch */
+    private final MonetColumn[] columns;
+    /** Row of the result (starting at 0) at which this batch starts */
+    private final int offset;
+    /** Number of rows in the batch */
+    private final int rows;
+
+    /**
+     * Constructor for column batches (called from MonetResultSet)
+     *
+     * @param columns Columns of the batch
+     * @param offset Row of the result (starting at 0) at which the batch starts
+     * @param rows Number of rows in the batch
+     */
+    MonetColumnBatch(MonetColumn[] columns, int offset, int rows) {
+        this.columns = columns;
+        this.offset = offset;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the row of the result (starting at 0) at which this batch starts.
+     *
+     * @return Offset of the batch in the result
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of rows in this batch.
+     *
+     * @return Number of rows
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns in this batch.
+     *
+     * @return Number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the name of a column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Column name
+     * @throws SQLException if the columnIndex is not valid
+     */
+    public String getColumnName(int columnIndex) throws SQLException {
+        return column(columnIndex).getName();
+    }
+
+    /**
+     * Checks whether the value at a row of the batch is NULL.
+     *
+     * @param row Row in the batch (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return true if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid
+     */
+    public boolean isNull(int row, int columnIndex) throws SQLException {
+        MonetColumn column = column(columnIndex);
+        checkRow(row);
+        return column.isNull(row);
+    }
+
+    /**
+     * Returns the value at a row of the batch, as the default Java object class for the column's type
+     * (the same class as {@link MonetResultSet#getObject(int)} returns, except for temporal columns,
+     * which are returned as java.time objects).
+     *
+     * @param row Row in the batch (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or null if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid
+     */
+    public Object getObject(int row, int columnIndex) throws SQLException {
+        MonetColumn column = column(columnIndex);
+        checkRow(row);
+        if (column.isNull(row))
+            return null;
+        if (column.getScale() > 0)
+            return column.getBigDecimal(row);
+        return column.getObject(row);
+    }
+
+    /**
+     * Returns the rows of the batch which are NULL in a column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Set bits at the (0-based) rows of the batch which are NULL
+     * @throws SQLException if the columnIndex is not valid
+     */
+    public BitSet getNulls(int columnIndex) throws SQLException {
+        return column(columnIndex).getNulls(rows);
+    }
+
+    private MonetColumn column(int columnIndex) throws SQLException {
+        if (columnIndex < 1 || columnIndex > columns.length)
+            throw new SQLException("columnIndex out of bounds", "M1M05");
+        return columns[columnIndex - 1];
+    }
+
+    private void checkRow(int row) throws SQLException {
+        if (row < 0 || row >= rows)
+            throw new SQLException("row out of bounds", "M1M05");
+    }
+}
@@ -0,0 +1,194 @@
+package org.monetdb.monetdbe;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * Columnar access to the result of a query, bypassing the row-at-a-time JDBC cursor.
+ * Retrieved from a {@link MonetResultSet} through {@code resultSet.unwrap(MonetColumnarResult.class)}.
+ *
+ * Constant length columns are returned as read-only buffers over the native result memory,
+ * with one value per row and no copying. Temporal columns are returned as buffers of packed primitive values.
+ * NULL values keep MonetDB's representation in numeric buffers (the minimum value of integer and boolean types,
+ * NaN for floating point types) and are stored as 0 in temporal buffers. They are reported by {@link #getNulls(int)}.
+ * The buffers are only valid until the result set is closed.
+ *
+ * Single values can be read by row index through the indexed accessors, such as {@link #getObject(int, int)}, which
+ * skip the cursor's state checks and leave the cursor where it is. When the statement has a fetch size, only the
+ * window of rows around the requested row is converted.
+ */
+public interface MonetColumnarResult {
+    /**
+     * Returns the number of rows in each of the result columns.
+     *
+     * @return Number of rows
+     */
+    int getRowCount();
+
+    /**
+     * Returns the rows of a BOOLEAN or TINYINT column, one byte per row.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    ByteBuffer getByteColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a SMALLINT column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    ShortBuffer getShortColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of an INTEGER column (or the unscaled values of a DECIMAL column stored as an INTEGER).
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    IntBuffer getIntColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a BIGINT column (or the unscaled values of a DECIMAL column stored as a BIGINT).
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    LongBuffer getLongColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a REAL column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    FloatBuffer getFloatColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a DOUBLE column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    DoubleBuffer getDoubleColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a DATE column, as the number of days since 1970-01-01.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    IntBuffer getDateColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a TIME column, as the number of nanoseconds since midnight.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    LongBuffer getTimeColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a TIMESTAMP column, as the number of microseconds since 1970-01-01 00:00:00 (without time zone).
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Read-only buffer with the column values
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    LongBuffer getTimestampColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows of a string column as UTF-8 bytes in a single buffer, without creating a String per row.
+     * Values are only decoded when requested from the returned column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Raw string column
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    MonetStringColumn getStringColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Returns the rows which are NULL in a column.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return Set bits at the (0-based) rows which are NULL; empty if the column has no NULL values
+     * @throws SQLException if the columnIndex is not valid or the result set is closed
+     */
+    BitSet getNulls(int columnIndex) throws SQLException;
+
+    /**
+     * Checks whether the value at a row of the result is NULL, without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return true if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    boolean isNull(int row, int columnIndex) throws SQLException;
+
+    /**
+     * Returns the value at a row of the result, as the default Java object class for the column's type
+     * (as {@link MonetColumnBatch#getObject(int, int)}), without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or null if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    Object getObject(int row, int columnIndex) throws SQLException;
+
+    /**
+     * Returns the value at a row of the result as an int, without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or 0 if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    int getInt(int row, int columnIndex) throws SQLException;
+
+    /**
+     * Returns the value at a row of the result as a long, without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or 0 if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    long getLong(int row, int columnIndex) throws SQLException;
+
+    /**
+     * Returns the value at a row of the result as a double, without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or 0 if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    double getDouble(int row, int columnIndex) throws SQLException;
+
+    /**
+     * Returns the value at a row of the result as a String, without moving the cursor.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return Value at the row, or null if the value is NULL
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    String getString(int row, int columnIndex) throws SQLException;
+}
@@ -3,7 +3,15 @@ package org.monetdb.monetdbe;
 import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 /**
  * A {@link Connection} suitable for the MonetDB database.
  *
@@ -26,8 +34,8 @@ import java.util.concurrent.Executor;
 public class MonetConnection extends MonetWrapper implements Connection {
     /** The property options for this Connection object */
     private Properties properties;
-    /** The statements created with this Connection object */
-    private Map<Long,MonetStatement> statements;
+    /** The open statements created with this Connection object */
+    private Set<MonetStatement> statements;
     /** The stack of warnings for this Connection object */
     private SQLWarning warnings;
     /** The timeout to gracefully terminate the session */
@@ -39,7 +47,9 @@ public class MonetConnection extends MonetWrapper implements Connection {
     /** Maximum number of worker treads, limits level of parallelism */
     private int nrThreads;
     /** Whether this Connection is in autocommit mode */
-    private boolean autoCommit;
+    private volatile boolean autoCommit;
+    /** Schema set through setSchema(), applied to the native sessions when they are borrowed */
+    private volatile String schema;
     /** The full MonetDB JDBC Connection URL used for this Connection */
     private String jdbcURL;
     /** File to log to */
@@ -47,12 +57,46 @@ public class MonetConnection extends MonetWrapper implements Connection {
     /** Type of connection (memory, file or remote) */
     private String connectionType;
 
-    /** The pointer to the C database object */
+    /** The pointer to the C database object of the most recently opened native session */
     protected ByteBuffer dbNative;
-    /** Connection pool, has one low-level connection for each thread */
-    private Map<Long,ByteBuffer> connectionPool;
+    /** Pool of native sessions, borrowed by the statements of this Connection */
+    private MonetSessionPool sessionPool;
+    /** Native prepared statements kept after their PreparedStatement was closed, for each session */
+    private MonetStatementCache statementCache;
+    /** Results of repeated queries, null unless enabled through the result_cache_limit property */
+    private MonetResultCache resultCache;
+    /** Cache of DatabaseMetaData catalog query results, null if it is disabled */
+    private MonetResultCache metaDataCache;
+    /** Generation counter of the database's data, incremented by writes also when the result cache is disabled */
+    private AtomicLong resultGeneration;
+    /** Generation counter of the database's catalog, incremented by schema changes also when the catalog cache is disabled */
+    private AtomicLong metaDataGeneration;
     /** If the connection is closed */
-    private boolean isClosed;
+    private volatile boolean isClosed;
+    /** Maximum number of native sessions, also the number of threads of the default asynchronous executor */
+    private int poolSize;
+    /** Seconds to wait for a native session or the transaction session when they are in use, 0 to wait without limit */
+    private int poolWaitTimeout;
+    /** Executor running the asynchronous queries of this Connection's statements, null until first used */
+    private volatile Executor asyncExecutor;
+    /** The default asynchronous executor, if it was created by this Connection (shut down when it is closed) */
+    private ExecutorService defaultAsyncExecutor;
+    /** Guards opening native sessions and closing this Connection (a lock instead of synchronized, to not pin virtual threads) */
+    private final ReentrantLock nativeLock = new ReentrantLock();
+    /** Native session outside of the pool, used to stop the queries running in the other sessions. Null until first used */
+    private MonetSessionPool.Session controlSession;
+    /** Guards the control session */
+    private final ReentrantLock controlLock = new ReentrantLock();
+    /** Session borrowed for the transaction while auto-commit is disabled, null in auto-commit mode */
+    private volatile MonetSessionPool.Session transactionSession;
+    /** Guards changes of the auto-commit mode and the leases */
+    private final ReentrantLock transactionLock = new ReentrantLock();
+    /** Signalled when the lease of the transaction session is closed */
+    private final Condition transactionReleased = transactionLock.newCondition();
+    /** Number of open session leases, which prevent changes of the auto-commit mode */
+    private int openLeases;
+    /** If a session lease owns the transaction session */
+    private boolean transactionLeased;
 
     /**
      * Constructor of a Connection for MonetDB.
@@ -68,18 +112,29 @@ public class MonetConnection extends MonetWrapper implements Connection {
         this.memoryLimit = parseOptionInt(properties,"memory_limit", 0);
         this.nrThreads = parseOptionInt(properties,"nr_threads", 0);
         this.logFile = properties.getProperty("log_file",null);
-        this.connectionPool = new HashMap<>();
-        this.statements = new HashMap<>();
+        this.statements = Collections.newSetFromMap(new ConcurrentHashMap<>());
         this.isClosed = false;
         //Necessary for DatabaseMetadata method
         this.jdbcURL = properties.getProperty("jdbc_url");
         this.connectionType = properties.getProperty("connection_type");
 
-        //Connect to native C database -> dbNative variable is set within this method
-        connectNative(properties);
-
         //Store current properties
         this.properties = properties;
+
+        //Connect to native C database -> the pool opens its primary session
+        this.poolSize = parseOptionInt(properties, "pool_size", 8);
+        this.poolWaitTimeout = parseOptionInt(properties, "pool_wait_timeout", 30);
+        this.resultGeneration = MonetResultCache.generation(properties, "result");
+        this.resultCache = MonetResultCache.create(resultGeneration, parseOptionInt(properties, "result_cache_limit", 0));
+        //Opt-in, as catalog changes made outside of this driver (such as by other clients of a remote database) don't invalidate it
+        this.metaDataGeneration = MonetResultCache.generation(properties, "metadata");
+        this.metaDataCache = MonetResultCache.create(metaDataGeneration, parseOptionInt(properties, "metadata_cache_limit", 0));
+        this.statementCache = new MonetStatementCache(parseOptionInt(properties, "statement_cache_size", 32), metaDataGeneration);
+        this.sessionPool = new MonetSessionPool(this::openSession, statementCache::removeSession,
+                poolSize,
+                parseOptionInt(properties, "pool_idle_timeout", 60),
+                poolWaitTimeout);
+
         //Auto-commit defaults to true. If the passed property is different, change it
         this.autoCommit = true;
         if (properties.containsKey("autocommit") && properties.getProperty("autocommit").equals("false"))
@@ -106,14 +161,109 @@ public class MonetConnection extends MonetWrapper implements Connection {
     }
 
     /**
-     * Creates a new physical connection to the database (thread-specific) with the Properties passed as argument.
-     * Is used both when starting a new connection and when a new thread uses this Connection object (each thread
-     * needs their own physical connection to the DB).
+     * Creates a new physical connection (native session) to the database with the Properties passed as argument.
+     * Is used by the session pool, both for the primary session opened with this Connection object and for the
+     * sessions opened when several statements run at the same time.
+     * Runs under nativeLock because the pointer is returned through the dbNative variable.
      *
      * @param props Properties to use when creating the physical connection
+     * @return The pointer to the C database object of the new session
      * @throws SQLException if a database connection error occurs
      */
-    private void connectNative (Properties props) throws SQLException {
+    private ByteBuffer connectNative (Properties props) throws SQLException {
+        nativeLock.lock();
+        try {
+            this.dbNative = null;
+            return openNative(props);
+        } finally {
+            nativeLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a native session for the session pool, and looks up MonetDB's id of the session so that its queries
+     * can be stopped (see {@link #cancelQuery(MonetSessionPool.Session, java.util.function.BooleanSupplier)}).
+     *
+     * @return The new session
+     * @throws SQLException if a database connection error occurs
+     */
+    private MonetSessionPool.Session openSession() throws SQLException {
+        MonetSessionPool.Session session = new MonetSessionPool.Session(connectNative(this.properties));
+        try {
+            long[] id = queryLongs(session, "SELECT sys.current_sessionid();");
+            if (id.length == 1)
+                session.sessionId = (int) id[0];
+        } catch (SQLException e) {
+            //Queries in this session can't be cancelled
+        }
+        return session;
+    }
+
+    /**
+     * Runs a query with a single integer column in a native session, outside of the statements of this Connection.
+     *
+     * @param session Native session to run the query in
+     * @param sql Query
+     * @return The values of the column, empty if the statement did not return a result set
+     * @throws SQLException if a database access error occurs
+     */
+    private long[] queryLongs(MonetSessionPool.Session session, String sql) throws SQLException {
+        MonetStatement st = new MonetStatement(this);
+        st.session = session;
+        String error_msg = MonetNative.monetdbe_query(session.db, sql, st, false, 0);
+        if (error_msg != null)
+            throw new SQLException(error_msg);
+        MonetResultSet rs = st.resultSet;
+        if (rs == null)
+            return new long[0];
+        try {
+            long[] values = new long[rs.getRowCount()];
+            for (int i = 0; rs.next(); i++)
+                values[i] = rs.getLong(1);
+            return values;
+        } finally {
+            rs.close();
+        }
+    }
+
+    /**
+     * Stops the query running in a native session, through MonetDB's query monitor: the query is looked up in
+     * sys.queue() and stopped with sys.stop(), after which its native call returns an error. As the session of the
+     * query is busy, this runs in a separate control session, which is opened on first use and does not count
+     * towards the pool_size.
+     *
+     * @param session Session running the query
+     * @param stillRunning Checked before the query is stopped, false if the query returned in the meantime
+     *                     (so that the next query of the session is not stopped instead)
+     * @throws SQLException if the session's id is not known or stopping the query failed
+     */
+    void cancelQuery(MonetSessionPool.Session session, java.util.function.BooleanSupplier stillRunning) throws SQLException {
+        if (session.sessionId < 0)
+            throw new SQLFeatureNotSupportedException("cancel(): the id of the native session is not known");
+        controlLock.lock();
+        try {
+            checkNotClosed();
+            if (controlSession == null)
+                controlSession = new MonetSessionPool.Session(connectNative(this.properties));
+            long[] tags = queryLongs(controlSession, "SELECT tag FROM sys.queue() WHERE sessionid = " + session.sessionId + " AND status = 'running';");
+            for (long tag : tags) {
+                if (!stillRunning.getAsBoolean())
+                    return;
+                queryLongs(controlSession, "CALL sys.stop(" + tag + ");");
+            }
+        } finally {
+            controlLock.unlock();
+        }
+    }
+
+    /**
+     * Calls monetdbe_open() with the Properties passed as argument. Must be called while holding nativeLock.
+     *
+     * @param props Properties to use when creating the physical connection
+     * @return The pointer to the C database object of the new session
+     * @throws SQLException if a database connection error occurs
+     */
+    private ByteBuffer openNative (Properties props) throws SQLException {
         String error_msg;
         //Remote proxy databases
         if (props.getProperty("connection_type").equals("remote")) {
@@ -134,8 +284,390 @@ public class MonetConnection extends MonetWrapper implements Connection {
         }
         if (dbNative == null || error_msg != null)
             throw new SQLException(error_msg);
+        return dbNative;
+    }
+
+    /**
+     * Borrows a native session from the pool for a statement, independently of the calling thread.
+     * The session is switched to the schema set through setSchema() if needed.
+     *
+     * @return A session, which must be returned through releaseSession()
+     * @throws SQLException if the Connection is closed or no session is available
+     */
+    MonetSessionPool.Session borrowSession() throws SQLException {
+        checkNotClosed();
+        MonetSessionPool.Session session = sessionPool.borrow();
+        try {
+            syncSchema(session);
+        } catch (SQLException e) {
+            sessionPool.release(session);
+            throw e;
+        }
+        return session;
+    }
+
+    /**
+     * Called by a statement when it is closed, so that it is not closed again with this Connection.
+     *
+     * @param statement Closed statement
+     */
+    void removeStatement(MonetStatement statement) {
+        statements.remove(statement);
+    }
+
+    /**
+     * Returns a session borrowed through borrowSession() to the pool.
+     *
+     * @param session Borrowed session
+     */
+    void releaseSession(MonetSessionPool.Session session) {
+        sessionPool.release(session);
+    }
+
+    /**
+     * While auto-commit is disabled, statements share the session borrowed for the transaction by setAutoCommit(false)
+     * instead of borrowing one, so that commit() and rollback() apply to all of their work. The transaction session
+     * is returned to the pool when auto-commit is enabled again, native calls in it hold its lock.
+     *
+     * @return The transaction session if auto-commit is disabled, null otherwise
+     * @throws SQLException if the Connection is closed or switching the session's schema failed
+     */
+    MonetSessionPool.Session getTransactionSession() throws SQLException {
+        checkNotClosed();
+        MonetSessionPool.Session session = transactionSession;
+        if (session != null)
+            syncSchema(session);
+        return session;
+    }
+
+    /**
+     * Sets the schema set through setSchema() in a session, if the session is using another one.
+     *
+     * @param session Native session
+     * @throws SQLException if a database access error occurs
+     */
+    private void syncSchema(MonetSessionPool.Session session) throws SQLException {
+        String schema = this.schema;
+        if (schema != null && !schema.equals(session.schema)) {
+            session.lock.lock();
+            try {
+                if (schema.equals(session.schema))
+                    return;
+                String error_msg = MonetNative.monetdbe_query(session.db, "SET SCHEMA \"" + schema + "\";", new MonetStatement(this), false, 0);
+                if (error_msg != null)
+                    throw new SQLException(error_msg);
+                session.schema = schema;
+            } finally {
+                session.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Leases a native session of this Connection for a logical unit of work. Statements created through the
+     * lease all run in its session until the lease is closed, whichever threads execute them. This keeps
+     * session state such as temporary tables available across statements, and lets many (virtual) threads
+     * share the bounded pool of sessions instead of each using their own. See {@link MonetSessionLease}.
+     *
+     * While auto-commit is disabled, the lease uses the session in which the Connection's transaction runs.
+     * Only one lease at a time owns the transaction session, the calling thread waits for the lease holding it
+     * to be closed (at most pool_wait_timeout seconds). The auto-commit mode cannot be changed while a lease is open.
+     *
+     * @return A session lease, which must be closed to return the session to the pool
+     * @throws SQLException if the Connection is closed or no session is available
+     */
+    public MonetSessionLease lease() throws SQLException {
+        boolean transaction;
+        transactionLock.lock();
+        try {
+            long remaining = TimeUnit.SECONDS.toNanos(Math.max(poolWaitTimeout, 0));
+            while (true) {
+                checkNotClosed();
+                transaction = transactionSession != null;
+                if (!transaction || !transactionLeased)
+                    break;
+                try {
+                    if (poolWaitTimeout <= 0) {
+                        transactionReleased.await();
+                    } else {
+                        if (remaining <= 0)
+                            throw new SQLException("Timeout waiting for the transaction session, it is leased by another thread", "HYT00");
+                        remaining = transactionReleased.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for the transaction session", "HY008", e);
+                }
+            }
+            transactionLeased = transaction;
+            openLeases++;
+        } finally {
+            transactionLock.unlock();
+        }
+        try {
+            return new MonetSessionLease(this);
+        } catch (SQLException e) {
+            leaseClosed(transaction);
+            throw e;
+        }
+    }
+
+    /**
+     * Called by a session lease when it is closed, after it returned its session.
+     *
+     * @param transaction If the lease owned the transaction session
+     */
+    void leaseClosed(boolean transaction) {
+        transactionLock.lock();
+        try {
+            openLeases--;
+            if (transaction) {
+                transactionLeased = false;
+                transactionReleased.signal();
+            }
+        } finally {
+            transactionLock.unlock();
+        }
+    }
+
+    /**
+     * Creates a Statement running in a leased session.
+     *
+     * @param lease Session lease the statement runs in
+     * @return A new statement
+     * @throws SQLException if the Connection is closed
+     */
+    MonetStatement createStatement(MonetSessionLease lease) throws SQLException {
+        checkNotClosed();
+        MonetStatement s = new MonetStatement(this);
+        s.lease = lease;
+        statements.add(s);
+        return s;
+    }
+
+    /**
+     * Creates a PreparedStatement, prepared in a leased session.
+     *
+     * @param sql Query to prepare
+     * @param lease Session lease the statement runs in
+     * @return A new prepared statement
+     * @throws SQLException if the Connection is closed
+     */
+    MonetPreparedStatement prepareStatement(String sql, MonetSessionLease lease) throws SQLException {
+        checkNotClosed();
+        MonetPreparedStatement s = new MonetPreparedStatement(this, sql, lease);
+        statements.add(s);
+        return s;
+    }
+
+    /**
+     * Sets the executor on which the statements of this Connection run their asynchronous queries,
+     * see {@link MonetStatement#executeAsync(String)}. The queries borrow native sessions from the
+     * Connection's pool, so at most pool_size of them run at the same time whatever the executor. While auto-commit
+     * is disabled they all run in the transaction session, one after the other.
+     *
+     * @param executor The executor for asynchronous queries, or null to use the default executor
+     * @throws SQLException if the Connection is closed
+     */
+    public void setAsyncExecutor(Executor executor) throws SQLException {
+        checkNotClosed();
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Returns the executor on which the statements of this Connection run their asynchronous queries.
+     * Unless another one was set, this is a pool of pool_size daemon threads, created when first used
+     * and shut down when the Connection is closed.
+     *
+     * @return The executor for asynchronous queries
+     * @throws SQLException if the Connection is closed
+     */
+    public Executor getAsyncExecutor() throws SQLException {
+        checkNotClosed();
+        Executor executor = this.asyncExecutor;
+        if (executor != null)
+            return executor;
+        nativeLock.lock();
+        try {
+            if (defaultAsyncExecutor == null) {
+                AtomicInteger threadNumber = new AtomicInteger();
+                defaultAsyncExecutor = Executors.newFixedThreadPool(Math.max(poolSize, 1), r -> {
+                    Thread t = new Thread(r, "monetdbe-async-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            if (this.asyncExecutor == null)
+                this.asyncExecutor = defaultAsyncExecutor;
+            return this.asyncExecutor;
+        } finally {
+            nativeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statement cache of this Connection, used by its prepared statements.
+     *
+     * @return The prepared statement cache
+     */
+    MonetStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Returns how many prepared statements were taken from the statement cache instead of being prepared.
+     * The cache keeps up to statement_cache_size closed prepared statements per native session.
+     *
+     * @return Number of statement cache hits
+     */
+    public long getStatementCacheHits() {
+        return statementCache.getHits();
+    }
+
+    /**
+     * Returns how many prepared statements were not found in the statement cache and had to be prepared.
+     *
+     * @return Number of statement cache misses
+     */
+    public long getStatementCacheMisses() {
+        return statementCache.getMisses();
+    }
+
+    /**
+     * Returns how many cached prepared statements were freed to make room for more recently used ones.
+     *
+     * @return Number of statement cache evictions
+     */
+    public long getStatementCacheEvictions() {
+        return statementCache.getEvictions();
+    }
+
+    /**
+     * Returns the result cache of this Connection, used by its statements.
+     *
+     * @return The result cache, or null if it is not enabled
+     */
+    MonetResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Invalidates the cached results of all connections to the database, after a statement of this Connection may have
+     * written to it. The generation is incremented also when this Connection does not cache results.
+     */
+    void invalidateResultCache() {
+        if (resultCache != null)
+            resultCache.invalidate();
         else
-            this.connectionPool.put(Thread.currentThread().getId(),dbNative);
+            resultGeneration.incrementAndGet();
+    }
+
+    /**
+     * Invalidates the cached catalog results and prepared statements of all connections to the database, after a
+     * statement of this Connection may have changed the catalog. The generation is incremented also when this
+     * Connection does not cache catalog results.
+     */
+    void invalidateMetaDataCache() {
+        if (metaDataCache != null)
+            metaDataCache.invalidate();
+        else
+            metaDataGeneration.incrementAndGet();
+        statementCache.invalidate();
+    }
+
+    /**
+     * Creates the result cache key of a query executed by a statement of this Connection.
+     * Results are only cached in auto-commit mode, as queries in a transaction may see its uncommitted changes.
+     *
+     * @param sql SQL text of the query
+     * @param maxRows Maximum number of rows of the result, 0 if unlimited
+     * @param parameters Bound parameters, or null if the query has none
+     * @return The key, or null if the result cache is not enabled or the query's result is not cached
+     */
+    MonetResultCache.Key resultCacheKey(String sql, int maxRows, Object[] parameters) {
+        if (resultCache == null || !autoCommit)
+            return null;
+        return MonetResultCache.key(sql, schema, maxRows, parameters);
+    }
+
+    /**
+     * Returns how many queries were answered from the result cache, without calling the database.
+     * The cache keeps up to result_cache_limit MB of query results.
+     *
+     * @return Number of result cache hits, 0 if the result cache is not enabled
+     */
+    public long getResultCacheHits() {
+        return resultCache != null ? resultCache.getHits() : 0;
+    }
+
+    /**
+     * Returns how many cacheable queries were not found in the result cache and were executed.
+     *
+     * @return Number of result cache misses, 0 if the result cache is not enabled
+     */
+    public long getResultCacheMisses() {
+        return resultCache != null ? resultCache.getMisses() : 0;
+    }
+
+    /**
+     * Returns how many cached results were removed, to make room for more recently used ones or because the
+     * database was written to.
+     *
+     * @return Number of result cache evictions, 0 if the result cache is not enabled
+     */
+    public long getResultCacheEvictions() {
+        return resultCache != null ? resultCache.getEvictions() : 0;
+    }
+
+    /**
+     * Returns the catalog cache of this Connection, used by its {@link MonetDatabaseMetaData}.
+     *
+     * @return The catalog cache, or null if it is not enabled
+     */
+    MonetResultCache getMetaDataCache() {
+        return metaDataCache;
+    }
+
+    /**
+     * Creates the catalog cache key of a DatabaseMetaData query. Unlike query results, catalog results are also cached
+     * in a transaction, as its rollback invalidates them.
+     *
+     * @param sql SQL text of the catalog query
+     * @return The key, or null if the catalog cache is not enabled
+     */
+    MonetResultCache.Key metaDataCacheKey(String sql) {
+        if (metaDataCache == null)
+            return null;
+        return MonetResultCache.key(sql, schema, 0, null);
+    }
+
+    /**
+     * Returns how many DatabaseMetaData calls were answered from the catalog cache, without calling the database.
+     * The cache keeps up to metadata_cache_limit MB of catalog query results.
+     *
+     * @return Number of catalog cache hits, 0 if the catalog cache is not enabled
+     */
+    public long getMetaDataCacheHits() {
+        return metaDataCache != null ? metaDataCache.getHits() : 0;
+    }
+
+    /**
+     * Returns how many DatabaseMetaData calls were not found in the catalog cache and queried the database.
+     *
+     * @return Number of catalog cache misses, 0 if the catalog cache is not enabled
+     */
+    public long getMetaDataCacheMisses() {
+        return metaDataCache != null ? metaDataCache.getMisses() : 0;
+    }
+
+    /**
+     * Returns the number of native sessions this Connection has open, both idle and in use by statements.
+     * The number is limited by the pool_size property.
+     *
+     * @return Number of open native sessions
+     */
+    public int getOpenSessions() {
+        return sessionPool.getOpenSessions();
     }
 
     /**
@@ -146,7 +678,6 @@ public class MonetConnection extends MonetWrapper implements Connection {
      */
     private void executeCommand(String sql) throws SQLException {
         checkNotClosed();
-        checkThreadConnection();
         MonetStatement st = null;
         try {
             st = (MonetStatement) createStatement();
@@ -154,8 +685,8 @@ public class MonetConnection extends MonetWrapper implements Connection {
                 st.execute(sql);
             }
         } finally {
-            st.close();
-            statements.remove(st);
+            if (st != null)
+                st.close();
         }
     }
 
@@ -193,20 +724,6 @@ public class MonetConnection extends MonetWrapper implements Connection {
         executeCommand("ROLLBACK;");
     }
 
-    /**
-     * Checks if the thread using this Connection object has a physical connection to the database.
-     * If it does, this is a no-op. If it doesn't have a thread-specific connection, one is created
-     * and stored in the connection pool.
-     *
-     * @throws SQLException if a database connection error occurs
-     */
-    private void checkThreadConnection() throws SQLException{
-        if (!connectionPool.containsKey(Thread.currentThread().getId())) {
-            //Creates a new low-level connection and stores it
-            connectNative(this.properties);
-        }
-    }
-
     /**
      * Helper method to test whether the Connection object is closed
      * When closed, it throws an SQLException
@@ -225,33 +742,53 @@ public class MonetConnection extends MonetWrapper implements Connection {
      * Calling the method close on a Connection object that is already
      * closed is a no-op.
      *
+     * The Connection is closed for all threads using it, together with all of its native sessions.
+     * Sessions still in use by a statement running on another thread are closed when that statement returns them.
+     *
      * @throws SQLException if a database access error occurs
      */
-    //TODO This method now only closes the connection object if all threads call close()
-    //TODO Should we close all threads with one close() call? How do we close the thread-specific objects?
     @Override
     public void close() throws SQLException {
-        if (isClosed()) {
-            return;
+        nativeLock.lock();
+        try {
+            if (isClosed()) {
+                return;
+            }
+            this.isClosed = true;
+        } finally {
+            nativeLock.unlock();
         }
-        //Close this threads' statements
-        for (Map.Entry<Long,MonetStatement> s : this.statements.entrySet()) {
-            if (s.getKey() == Thread.currentThread().getId())
-                s.getValue().close();
+        //Wake up the threads waiting for the transaction session
+        transactionLock.lock();
+        try {
+            transactionReleased.signalAll();
+        } finally {
+            transactionLock.unlock();
         }
-
-        //Close this threads' connection
-        String error_msg = MonetNative.monetdbe_close(connectionPool.get(Thread.currentThread().getId()));
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
+        //Close all statements, which returns their sessions to the pool
+        for (MonetStatement s : this.statements) {
+            s.close();
         }
-        connectionPool.remove(Thread.currentThread().getId());
-        //If all threads closed, mark the connection as closed
-        if (connectionPool.isEmpty()) {
-            this.statements = null;
-            this.connectionPool = null;
-            this.dbNative = null;
-            this.isClosed = true;
+        this.statements.clear();
+        this.dbNative = null;
+        //Closing the transaction session rolls back the transaction
+        MonetSessionPool.Session session = transactionSession;
+        transactionSession = null;
+        if (session != null)
+            sessionPool.release(session);
+        if (defaultAsyncExecutor != null)
+            defaultAsyncExecutor.shutdown();
+
+        //Close the native sessions
+        sessionPool.close();
+        controlLock.lock();
+        try {
+            if (controlSession != null) {
+                MonetNative.monetdbe_close(controlSession.db);
+                controlSession = null;
+            }
+        } finally {
+            controlLock.unlock();
         }
     }
 
@@ -354,6 +891,27 @@ public class MonetConnection extends MonetWrapper implements Connection {
         }
     }
 
+    /**
+     * Returns the result set type to use for the requested one. Results are fully materialized when the query is
+     * executed, so TYPE_SCROLL_SENSITIVE is replaced by TYPE_SCROLL_INSENSITIVE, with a warning.
+     *
+     * @param resultSetType Requested result set type
+     * @return ResultSet.TYPE_FORWARD_ONLY or ResultSet.TYPE_SCROLL_INSENSITIVE
+     * @throws SQLException if the requested type is not a result set type
+     */
+    private int supportedResultSetType(int resultSetType) throws SQLException {
+        switch (resultSetType) {
+            case ResultSet.TYPE_FORWARD_ONLY:
+            case ResultSet.TYPE_SCROLL_INSENSITIVE:
+                return resultSetType;
+            case ResultSet.TYPE_SCROLL_SENSITIVE:
+                addWarning("TYPE_SCROLL_SENSITIVE result sets are not supported, using TYPE_SCROLL_INSENSITIVE", "01M24");
+                return ResultSet.TYPE_SCROLL_INSENSITIVE;
+            default:
+                throw new SQLException("Invalid result set type: " + resultSetType, "M1M05");
+        }
+    }
+
     /**
      * Clears all warnings reported for this Connection object. After a
      * call to this method, the method getWarnings returns null until a
@@ -367,18 +925,106 @@ public class MonetConnection extends MonetWrapper implements Connection {
         warnings = null;
     }
 
-    //Sets and gets
     /**
-     * Retrieve the C pointer to the database.
-     * Used in ResultSet, Statement and PreparedStatement
-     * Returns the current thread's pointer.
+     * Appends columns of data to an existing table in a single native call, through monetdbe_append.
+     * This is much faster than inserting the rows through a batch of prepared statement executions.
+     *
+     * Each column is given as a Java array or a direct buffer (in native byte order), in the order of the table's columns.
+     * Supported columns are boolean[], byte[], short[], int[], long[], float[], double[] and String[], and direct
+     * ShortBuffer, IntBuffer, LongBuffer, FloatBuffer and DoubleBuffer in native byte order. Null values can only be appended to String[]
+     * columns, where a null element is appended as SQL NULL. Direct buffers are appended from their position
+     * without being copied, arrays are copied once to native memory.
+     *
+     * @param schema Schema of the table, or null for the current schema
+     * @param table Table to append to
+     * @param columns Column data, all with the same number of rows
+     * @throws SQLException if the columns are not supported or have different lengths, or a database access error occurs
+     */
+    public void appendColumns(String schema, String table, Object... columns) throws SQLException {
+        checkNotClosed();
+        if (table == null || table.isEmpty())
+            throw new SQLException("Missing table name", "M1M05");
+        if (columns == null || columns.length == 0)
+            throw new SQLException("No columns to append", "M1M05");
+        if (schema == null)
+            schema = getSchema();
+
+        //Buffers are replaced by slices, which must not leak into the caller's array
+        Object[] data = columns.clone();
+        int[] types = new int[data.length];
+        int nrows = -1;
+        for (int i = 0; i < data.length; i++) {
+            Object column = data[i];
+            int rows;
+            if (column instanceof java.nio.Buffer) {
+                if (!((java.nio.Buffer) column).isDirect())
+                    throw new SQLException("Column " + (i + 1) + " is not a direct buffer", "M1M05");
+                if (MonetTypes.getMonetTypeFromAppendColumn(column) < 0)
+                    throw new SQLException("Column " + (i + 1) + " has an unsupported type: " + column.getClass().getSimpleName(), "M1M05");
+                rows = ((java.nio.Buffer) column).remaining();
+                //The native side reads from the start of the buffer's memory, so append from a slice at its position
+                data[i] = column = sliceAppendBuffer(column);
+                if (column == null)
+                    throw new SQLException("Column " + (i + 1) + " is not a buffer in native byte order", "M1M05");
+            }
+            else if (column != null && column.getClass().isArray()) {
+                rows = java.lang.reflect.Array.getLength(column);
+            }
+            else {
+                throw new SQLException("Column " + (i + 1) + " is not an array or buffer", "M1M05");
+            }
+            types[i] = MonetTypes.getMonetTypeFromAppendColumn(column);
+            if (types[i] < 0)
+                throw new SQLException("Column " + (i + 1) + " has an unsupported type: " + column.getClass().getSimpleName(), "M1M05");
+            if (nrows >= 0 && rows != nrows)
+                throw new SQLException("Column " + (i + 1) + " has " + rows + " rows, expected " + nrows, "M1M05");
+            nrows = rows;
+        }
+
+        //Borrow a session the same way statements do
+        MonetStatement st = new MonetStatement(this);
+        String error_msg;
+        try {
+            ByteBuffer db = st.getDatabasePointer();
+            //The session may be shared, see MonetStatement#executeNative()
+            st.session.lock.lock();
+            try {
+                error_msg = MonetNative.monetdbe_append(db, schema, table, data, types, nrows);
+            } finally {
+                st.session.lock.unlock();
+            }
+        } finally {
+            st.releaseSession();
+            invalidateResultCache();
+        }
+        if (error_msg != null)
+            throw new SQLException(error_msg);
+    }
+
+    /**
+     * Slices a direct buffer at its position, if it is in native byte order.
      *
-     * @return C pointer to the database
+     * @param buffer Direct buffer with the column data
+     * @return Slice of the buffer, or null if the buffer is not in native byte order or not of a supported type
      */
-    protected ByteBuffer getDatabasePointer() {
-        return connectionPool.get(Thread.currentThread().getId());
+    private static Object sliceAppendBuffer(Object buffer) {
+        java.nio.ByteOrder order = java.nio.ByteOrder.nativeOrder();
+        if (buffer instanceof java.nio.ShortBuffer && ((java.nio.ShortBuffer) buffer).order() == order)
+            return ((java.nio.ShortBuffer) buffer).slice();
+        else if (buffer instanceof java.nio.IntBuffer && ((java.nio.IntBuffer) buffer).order() == order)
+            return ((java.nio.IntBuffer) buffer).slice();
+        else if (buffer instanceof java.nio.LongBuffer && ((java.nio.LongBuffer) buffer).order() == order)
+            return ((java.nio.LongBuffer) buffer).slice();
+        else if (buffer instanceof java.nio.FloatBuffer && ((java.nio.FloatBuffer) buffer).order() == order)
+            return ((java.nio.FloatBuffer) buffer).slice();
+        else if (buffer instanceof java.nio.DoubleBuffer && ((java.nio.DoubleBuffer) buffer).order() == order)
+            return ((java.nio.DoubleBuffer) buffer).slice();
+        else
+            return null;
     }
 
+    //Sets and gets
+
     /**
      * Sets this connection's auto-commit mode to the given state. If a
      * connection is in auto-commit mode, then all its SQL statements
@@ -387,20 +1033,67 @@ public class MonetConnection extends MonetWrapper implements Connection {
      * are terminated by a call to either the method commit or the
      * method rollback. By default, new connections are in auto-commit mode.
      *
+     * Disabling auto-commit borrows a session for the transaction, in which all statements of this Connection run
+     * until auto-commit is enabled again (see {@link #getTransactionSession()}). Statements holding a session for
+     * an open result set release it, after converting the result set to Java memory.
+     *
      * @param autoCommit true to enable auto-commit mode; false to disable it
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a database access error occurs, a statement is executing or a session lease is open
      * @see #getAutoCommit()
      */
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
-        checkNotClosed();
-        checkThreadConnection();
-        if (autoCommit != this.autoCommit) {
-            this.autoCommit = autoCommit;
-            String error_msg = MonetNative.monetdbe_set_autocommit(getDatabasePointer(), autoCommit ? 1 : 0);
-            if (error_msg != null) {
-                throw new SQLException(error_msg);
+        transactionLock.lock();
+        try {
+            checkNotClosed();
+            if (autoCommit == this.autoCommit)
+                return;
+            if (openLeases > 0)
+                throw new SQLException("The auto-commit mode cannot be changed while a session lease is open");
+            //The sessions held by the statements belong to the current mode
+            for (MonetStatement s : statements)
+                s.detachSession();
+
+            if (!autoCommit) {
+                MonetSessionPool.Session session = sessionPool.borrow();
+                String error_msg = setNativeAutoCommit(session, false);
+                if (error_msg != null) {
+                    sessionPool.release(session);
+                    throw new SQLException(error_msg);
+                }
+                this.transactionSession = session;
+                this.autoCommit = false;
+            } else {
+                MonetSessionPool.Session session = transactionSession;
+                String error_msg = setNativeAutoCommit(session, true);
+                if (error_msg != null) {
+                    throw new SQLException(error_msg);
+                }
+                //Enabling auto-commit commits the current transaction, which may have changed the data and the catalog
+                invalidateResultCache();
+                invalidateMetaDataCache();
+                this.autoCommit = true;
+                this.transactionSession = null;
+                sessionPool.release(session);
             }
+        } finally {
+            transactionLock.unlock();
+        }
+    }
+
+    /**
+     * Calls monetdbe_set_autocommit() in a session, while holding the session's lock.
+     *
+     * @param session Native session
+     * @param autoCommit The new auto-commit mode
+     * @return The error message, or null if the mode was set
+     */
+    private static String setNativeAutoCommit(MonetSessionPool.Session session, boolean autoCommit) {
+        session.lock.lock();
+        try {
+            return MonetNative.monetdbe_set_autocommit(session.db, autoCommit ? 1 : 0);
+        } finally {
+            session.lock.unlock();
         }
     }
 
@@ -412,10 +1105,23 @@ public class MonetConnection extends MonetWrapper implements Connection {
      */
     @Override
     public boolean getAutoCommit() throws SQLException {
-        checkNotClosed();
-        checkThreadConnection();
-        //Calling the server instead of returning the Java variable because the value may have changed
-        return MonetNative.monetdbe_get_autocommit(getDatabasePointer());
+        transactionLock.lock();
+        try {
+            checkNotClosed();
+            //The sessions of the pool are in auto-commit mode
+            MonetSessionPool.Session session = transactionSession;
+            if (session == null)
+                return true;
+            //Calling the server instead of returning the Java variable because the value may have changed
+            session.lock.lock();
+            try {
+                return MonetNative.monetdbe_get_autocommit(session.db);
+            } finally {
+                session.lock.unlock();
+            }
+        } finally {
+            transactionLock.unlock();
+        }
     }
 
     /**
@@ -431,7 +1137,6 @@ public class MonetConnection extends MonetWrapper implements Connection {
     @Override
     public DatabaseMetaData getMetaData() throws SQLException {
         checkNotClosed();
-        checkThreadConnection();
         return new MonetDatabaseMetaData(this);
     }
 
@@ -684,7 +1389,21 @@ public class MonetConnection extends MonetWrapper implements Connection {
         checkNotClosed();
         if (schema == null || schema.isEmpty())
             throw new SQLException("Missing schema name", "M1M05");
-        executeCommand("SET SCHEMA \"" + schema + "\";");
+        //Set the schema in one session, the other sessions switch to it when they are borrowed
+        MonetStatement st = new MonetStatement(this);
+        try {
+            st.getDatabasePointer();
+            String previous = this.schema;
+            this.schema = schema;
+            try {
+                syncSchema(st.session);
+            } catch (SQLException e) {
+                this.schema = previous;
+                throw e;
+            }
+        } finally {
+            st.releaseSession();
+        }
     }
 
     /**
@@ -917,10 +1636,11 @@ public class MonetConnection extends MonetWrapper implements Connection {
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         checkNotClosed();
-        checkThreadConnection();
+        int type = supportedResultSetType(resultSetType);
         try {
             MonetStatement s = new MonetStatement(this);
-            statements.put(Thread.currentThread().getId(),s);
+            s.setResultSetType(type);
+            statements.add(s);
             return s;
         } catch (IllegalArgumentException e) {
             throw new SQLException(e.toString(), "M0M03");
@@ -983,10 +1703,9 @@ public class MonetConnection extends MonetWrapper implements Connection {
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         checkNotClosed();
-        checkThreadConnection();
         try {
             MonetCallableStatement s = new MonetCallableStatement(this, sql);
-            statements.put(Thread.currentThread().getId(),s);
+            statements.add(s);
             return s;
         } catch (IllegalArgumentException e) {
             throw new SQLException(e.toString(), "M0M03");
@@ -1074,10 +1793,11 @@ public class MonetConnection extends MonetWrapper implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         checkNotClosed();
-        checkThreadConnection();
+        int type = supportedResultSetType(resultSetType);
         try {
             MonetPreparedStatement s = new MonetPreparedStatement(this, sql);
-            statements.put(Thread.currentThread().getId(),s);
+            s.setResultSetType(type);
+            statements.add(s);
             return s;
         } catch (IllegalArgumentException e) {
             throw new SQLException(e.toString(), "M0M03");
@@ -2924,7 +2924,8 @@ public class MonetDatabaseMetaData extends MonetWrapper implements DatabaseMetaD
             // we need the exact cardinality for one specific fully qualified table
             ResultSet count = null;
             try {
-                count = executeMetaDataQuery("SELECT COUNT(*) FROM \"" + schema + "\".\"" + table + "\"");
+                //The row count changes with the data, so it is not cached
+                count = executeMetaDataQuery("SELECT COUNT(*) FROM \"" + schema + "\".\"" + table + "\"", false);
                 if (count != null && count.next()) {
                     String count_value = count.getString(1);
                     if (count_value != null && !count_value.isEmpty())
@@ -3881,13 +3882,26 @@ public class MonetDatabaseMetaData extends MonetWrapper implements DatabaseMetaD
      * @throws SQLException error in createStatement(), executeQuery() or close()
      */
     private final ResultSet executeMetaDataQuery(String query) throws SQLException {
-        final Statement stmt = con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        return executeMetaDataQuery(query, true);
+    }
+
+    /**
+     * Executes a catalog query in a new statement, which is closed when its result set is.
+     * Cacheable queries are answered from the connection's catalog cache when possible, see the metadata_cache_limit property.
+     *
+     * @param query the catalog query
+     * @param cacheable whether the result only depends on the catalog
+     * @return the result set of the query
+     * @throws SQLException if a database access error occurs
+     */
+    private final ResultSet executeMetaDataQuery(String query, boolean cacheable) throws SQLException {
+        final MonetStatement stmt = (MonetStatement) con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
         ResultSet rs = null;
         if (stmt != null) {
             //TODO Remove when remote connection can handle queries without semicolon
             if (!query.endsWith(";"))
                 query = query.concat(";");
-            rs = stmt.executeQuery(query);
+            rs = cacheable ? stmt.executeMetaDataQuery(query) : stmt.executeQuery(query);
             if (rs != null) {
                 /* we want the statement object to be closed also when the resultset is closed by the caller */
                 stmt.closeOnCompletion();
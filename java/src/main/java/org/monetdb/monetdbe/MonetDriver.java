@@ -43,6 +43,12 @@ import java.util.logging.Logger;
  *     <li><b>nr_threads</b> - Maximum number of worker treads</li>
  *     <li><b>autocommit</b> - Autocommit mode</li>
  *     <li><b>log_file</b> - Path to file to log to</li>
+ *     <li><b>pool_size</b> - Maximum number of native sessions opened by a connection for its statements</li>
+ *     <li><b>pool_idle_timeout</b> - Time in seconds after which idle native sessions are closed</li>
+ *     <li><b>pool_wait_timeout</b> - Time in seconds to wait for a native session when all of them are in use</li>
+ *     <li><b>statement_cache_size</b> - Number of closed prepared statements kept for reuse in each native session</li>
+ *     <li><b>result_cache_limit</b> - Amount of memory in MB for the results of repeated queries, until the database is written to (0 disables the cache)</li>
+ *     <li><b>metadata_cache_limit</b> - Amount of memory in MB for the results of DatabaseMetaData calls, until the catalog is changed through this driver (0 by default, which disables the cache)</li>
  * </ul>
  * Remote connection properties:
  * <ul>
@@ -224,7 +230,7 @@ final public class MonetDriver implements java.sql.Driver {
         if (!acceptsURL(url))
             return null;
 
-        final DriverPropertyInfo[] dpi = new DriverPropertyInfo[11];
+        final DriverPropertyInfo[] dpi = new DriverPropertyInfo[14];
 
         DriverPropertyInfo prop;
         prop = new DriverPropertyInfo("session_timeout", info != null ? info.getProperty("session_timeout") : "0");
@@ -267,6 +273,36 @@ final public class MonetDriver implements java.sql.Driver {
         prop.description = "Remote Connection: The password to use when authenticating on the database server";
         dpi[7] = prop;
 
+        prop = new DriverPropertyInfo("pool_size", info != null ? info.getProperty("pool_size") : "8");
+        prop.required = false;
+        prop.description = "Maximum number of native sessions the connection opens for statements running at the same time";
+        dpi[8] = prop;
+
+        prop = new DriverPropertyInfo("pool_idle_timeout", info != null ? info.getProperty("pool_idle_timeout") : "60");
+        prop.required = false;
+        prop.description = "Close native sessions which have been idle for a few seconds (0 keeps them open)";
+        dpi[9] = prop;
+
+        prop = new DriverPropertyInfo("pool_wait_timeout", info != null ? info.getProperty("pool_wait_timeout") : "30");
+        prop.required = false;
+        prop.description = "Wait a few seconds for a native session when all of them are in use (0 waits without limit)";
+        dpi[10] = prop;
+
+        prop = new DriverPropertyInfo("statement_cache_size", info != null ? info.getProperty("statement_cache_size") : "32");
+        prop.required = false;
+        prop.description = "Number of closed prepared statements kept for reuse in each native session (0 disables the cache)";
+        dpi[11] = prop;
+
+        prop = new DriverPropertyInfo("result_cache_limit", info != null ? info.getProperty("result_cache_limit") : "0");
+        prop.required = false;
+        prop.description = "Amount of memory in MB for the results of repeated queries, invalidated when the database is written to (0 disables the cache)";
+        dpi[12] = prop;
+
+        prop = new DriverPropertyInfo("metadata_cache_limit", info != null ? info.getProperty("metadata_cache_limit") : "0");
+        prop.required = false;
+        prop.description = "Amount of memory in MB for the results of DatabaseMetaData calls, invalidated when the catalog is changed through this driver (0 disables the cache, which is the default)";
+        dpi[13] = prop;
+
         return dpi;
     }
 
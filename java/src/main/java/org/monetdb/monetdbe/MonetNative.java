@@ -2,23 +2,41 @@ package org.monetdb.monetdbe;
 
 import java.io.*;
 import java.math.BigInteger;
-import java.net.URI;
+import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.zip.CRC32;
-import java.util.zip.CheckedInputStream;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 /**
  * Interface for C native methods in MonetDBe-Java.
  * Loads the compiled monetdbe_lowlevel C library and the libraries on
  * which it depends (found in the lib/ directories of the jar).
- * Because Java can't read libraries from inside the JAR, they are copied to a temporary location before load.
+ * Because Java can't read libraries from inside the JAR, they are extracted before load, to a versioned cache
+ * directory of the current user which later JVMs reuse (see {@link #extractLibraries(SortedMap)}). The directory is created
+ * in the monetdbe.cache.dir system property's directory (java.io.tmpdir by default). When the monetdbe.library.path system
+ * property is set, the libraries are loaded from that directory instead, without extraction.
  */
 public class MonetNative {
+    /** System property with a directory holding preinstalled libraries, which are then loaded without extracting them */
+    static final String LIBRARY_PATH_PROPERTY = "monetdbe.library.path";
+    /** System property with the directory in which the libraries are extracted, java.io.tmpdir by default */
+    static final String CACHE_DIR_PROPERTY = "monetdbe.cache.dir";
+    /** File listing the libraries in an extraction directory, written last */
+    static final String MANIFEST_FILE = "monetdbe-java.manifest";
+
     //Start-up library loading
     static {
         try {
@@ -39,44 +57,43 @@ public class MonetNative {
             }
 
             if (loadLibExtension != null) {
-                Map<String, List<String>> dependencyMap = listDependencies(directory);
-                if (dependencyMap != null) {
-                    if (!loadLibExtension.equals(".dll")) {
-                        //Copy direct and transitive dependencies (they are automatically loaded after the main library is loaded on Mac and Linux)
-                        for (String dependencyType : dependencyMap.keySet()) {
-                            for (String dependencyLib : dependencyMap.get(dependencyType)) {
-                                copyLib(directory + "/" + dependencyType, dependencyLib);
-                            }
+                Path libDir;
+                String libraryPath = System.getProperty(LIBRARY_PATH_PROPERTY);
+                if (libraryPath != null && !libraryPath.isEmpty()) {
+                    libDir = Paths.get(libraryPath);
+                } else {
+                    //Direct and transitive dependencies are extracted to the same directory, to be in the rpath of the main library
+                    //(they are automatically loaded after the main library is loaded on Mac and Linux)
+                    SortedMap<String, String> libraries = listLibraries(directory);
+                    if (libraries.isEmpty()) {
+                        throw new IOException("Library dependencies could not be found");
+                    }
+                    libDir = extractLibraries(libraries);
+                }
+                if (loadLibExtension.equals(".dll")) {
+                    //Windows requires that both transitive and direct dependencies be loaded, no Unix automatic loading
+                    //They also need to be loaded in the correct order
+                    String[] transitiveDependencies = new String[]{"iconv-2.dll", "lzma.dll", "zlib1.dll", "libcurl.dll", "bz2.dll", "libcrypto-1_1-x64.dll", "pcre.dll", "libxml2.dll"};
+                    String[] transitiveDependenciesDebug = new String[]{"iconv-2.dll", "lzmad.dll", "zlibd1.dll", "libcurl-d.dll", "bz2d.dll", "libcrypto-1_1-x64.dll", "pcred.dll", "libxml2.dll"};
+
+                    //Check if it's a release or debug build
+                    if (Files.exists(libDir.resolve("lzma.dll"))) {
+                        for (String td : transitiveDependencies) {
+                            loadLib(libDir, td);
                         }
                     } else {
-                        //Windows requires that both transitive and direct dependencies be loaded, no Unix automatic loading
-                        //They also need to be loaded in the correct order
-                        String[] transitiveDependencies = new String[]{"iconv-2.dll", "lzma.dll", "zlib1.dll", "libcurl.dll", "bz2.dll", "libcrypto-1_1-x64.dll", "pcre.dll", "libxml2.dll"};
-                        String[] transitiveDependenciesDebug = new String[]{"iconv-2.dll", "lzmad.dll", "zlibd1.dll", "libcurl-d.dll", "bz2d.dll", "libcrypto-1_1-x64.dll", "pcred.dll", "libxml2.dll"};
-
-                        //Check if it's a release or debug build
-                        InputStream is = MonetNative.class.getResourceAsStream("/lib/windows/transitive/lzma.dll");
-                        if (is != null) {
-                            for (String td : transitiveDependencies) {
-                                loadLib("windows/transitive", td);
-                            }
-                        } else {
-                            //If the user is running a debug build and the non-debug lib was not found, start loading the debug transitive dependencies
-                            for (String tdd : transitiveDependenciesDebug) {
-                                loadLib("windows/transitive", tdd);
-                            }
-                        }
-                        
-                        String[] directDependencies = new String[]{"stream.dll", "bat.dll", "mapi.dll", "monetdb5.dll", "monetdbsql.dll", "monetdbe.dll"};
-                        for (String td : directDependencies) {
-                            loadLib("windows/direct", td);
+                        //If the user is running a debug build and the non-debug lib was not found, start loading the debug transitive dependencies
+                        for (String tdd : transitiveDependenciesDebug) {
+                            loadLib(libDir, tdd);
                         }
                     }
-                } else {
-                    throw new IOException("Library dependencies could not be found");
+
+                    String[] directDependencies = new String[]{"stream.dll", "bat.dll", "mapi.dll", "monetdb5.dll", "monetdbsql.dll", "monetdbe.dll"};
+                    for (String td : directDependencies) {
+                        loadLib(libDir, td);
+                    }
                 }
-                loadLib(directory, loadLib + loadLibExtension);
-                //System.out.println("Dependencies were copied to " + System.getProperty("java.io.tmpdir"));
+                loadLib(libDir, loadLib + loadLibExtension);
             } else {
                 throw new IOException("OS " + os_name + " not supported.");
             }
@@ -86,107 +103,264 @@ public class MonetNative {
     }
 
     /**
-     * Resolves dependencies to be copied/loaded for running MonetDBe-Java.
-     * Walks through the lib/ directories, finding both direct and transitive dependencies.
-     * Works for both loading from jar (normal executions) and loading from file (running from IDEs or from maven unit tests).
+     * Lists the libraries to be extracted for running MonetDBe-Java: the main library and its direct and transitive
+     * dependencies, found in the lib/ directories. Each library is identified by its size and checksum, which are
+     * read from the jar's directory without reading the libraries themselves.
+     * Works for both loading from jar (normal executions) and loading from file (running from IDEs or from maven unit tests),
+     * where the size and modification time identify a library instead.
      *
      * @param os Operating System directory to resolve dependencies from. Each OS has its own directory (linux, mac, windows)
-     * @return Map with direct and transitive dependencies to be copied/loaded
-     * @throws IOException If the lib/ subdirectories cannot be found
+     * @return Resource path of each library (relative to lib/), mapped to its identifying size and checksum
+     * @throws IOException If the lib/ directory cannot be read
      */
-    static Map<String, List<String>> listDependencies(String os) throws IOException {
-        URI uri;
-        Path libRoot;
-        try {
-            uri = MonetNative.class.getResource("/lib/").toURI();
-        } catch (URISyntaxException | NullPointerException e) {
-            e.printStackTrace();
-            return null;
+    static SortedMap<String, String> listLibraries(String os) throws IOException {
+        SortedMap<String, String> libraries = new TreeMap<>();
+        URL url = MonetNative.class.getResource("/lib/");
+        if (url == null) {
+            return libraries;
         }
-
         //Loading within jar
-        if ("jar".equalsIgnoreCase(uri.getScheme())) {
-            libRoot = FileSystems.newFileSystem(uri, Collections.emptyMap()).getPath("/lib/" + os);
+        if ("jar".equalsIgnoreCase(url.getProtocol())) {
+            JarURLConnection connection = (JarURLConnection) url.openConnection();
+            connection.setUseCaches(false);
+            try (JarFile jar = connection.getJarFile()) {
+                String prefix = "lib/" + os + "/";
+                for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+                    JarEntry entry = entries.nextElement();
+                    if (!entry.isDirectory() && entry.getName().startsWith(prefix)) {
+                        libraries.put(entry.getName().substring(4), entry.getSize() + ":" + Long.toHexString(entry.getCrc()));
+                    }
+                }
+            }
         }
         //Loading from file (IDE execution and maven unit tests)
         else {
-            if (os.equals("windows")) {
-                //Windows hack to get rid of non-valid /C:/ or /D:/ paths
-                libRoot = Paths.get(uri.getPath().substring(1) + os);
+            Path libRoot;
+            try {
+                libRoot = Paths.get(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
             }
-            else {
-                libRoot = Paths.get(uri.getPath() + os);
+            Path osRoot = libRoot.resolve(os);
+            if (!Files.isDirectory(osRoot)) {
+                return libraries;
+            }
+            try (Stream<Path> paths = Files.walk(osRoot)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (Files.isRegularFile(path)) {
+                        String name = libRoot.relativize(path).toString().replace(File.separatorChar, '/');
+                        libraries.put(name, Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis());
+                    }
+                }
             }
         }
-        Map<String, List<String>> dependencies = Files.walk(libRoot, 2)
-                .collect(Collectors.groupingBy((path -> path.getParent().getFileName().toString()),
-                        Collectors.mapping(
-                                (paths -> paths.getFileName().toString()),
-                                Collectors.toList())));
-        dependencies.keySet().retainAll(new ArrayList<String>() {{
-            add("direct");
-            add("transitive");
-        }});
-        return dependencies;
+        return libraries;
     }
 
     /**
-     * Copy libraries to temporary location, to be in the rpath of libmonetdbe-lowlevel
+     * Extracts the libraries to a cache directory named after the user and a hash of their manifest (names, sizes and
+     * checksums), as Java cannot load them from within the jar. The directory is reused by later JVMs, without copying
+     * or reading the libraries, as long as its manifest matches and only the current user can have written it (see
+     * {@link #isTrusted(Path)}), as the cache is shared by all users by default. Extraction is done in a private directory which is then atomically
+     * renamed, so that concurrent JVMs never load a partially written library. A stale directory in the way is moved
+     * aside and removed; if it cannot be replaced, the private directory is used and removed when the JVM exits.
      *
-     * @param directory Directory to copy from. Each OS has its own directory (linux, mac, windows)
-     * @param libName   Full library name to copy to temporary location
-     * @throws IOException If the library could not be found
+     * @param libraries Resource path of each library (relative to lib/), mapped to its identifying size and checksum
+     * @return The directory holding the libraries
+     * @throws IOException If the libraries could not be extracted
      */
-    static void copyLib(String directory, String libName) throws IOException {
-        //System.out.println("Copying: " + libName);
-        InputStream is = MonetNative.class.getResourceAsStream("/lib/" + directory + "/" + libName);
-        if (is == null) {
-            throw new IOException("Library " + libName + " in /lib/" + directory + "/ could not be found.");
+    static Path extractLibraries(SortedMap<String, String> libraries) throws IOException {
+        StringBuilder manifest = new StringBuilder();
+        for (Map.Entry<String, String> library : libraries.entrySet()) {
+            manifest.append(library.getKey()).append(' ').append(library.getValue()).append('\n');
+        }
+        byte[] manifestBytes = manifest.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(manifestBytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
         }
-        File copyFile = new java.io.File(System.getProperty("java.io.tmpdir") + "/" + libName);
-        //Clean up file on JVM exit
-        copyFile.deleteOnExit();
-        Files.copy(is, copyFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        StringBuilder name = new StringBuilder("monetdbe-java-");
+        name.append(System.getProperty("user.name", "").replaceAll("[^A-Za-z0-9._-]", "_")).append('-');
+        for (int i = 0; i < 8; i++) {
+            name.append(String.format("%02x", hash[i]));
+        }
+
+        Path cacheDir = Paths.get(System.getProperty(CACHE_DIR_PROPERTY, System.getProperty("java.io.tmpdir")));
+        Path libDir = cacheDir.resolve(name.toString());
+        if (isExtracted(libDir, manifestBytes)) {
+            return libDir;
+        }
+
+        Files.createDirectories(cacheDir);
+        Path tempDir = Files.createTempDirectory(cacheDir, "." + name + "-");
+        try {
+            for (String library : libraries.keySet()) {
+                try (InputStream is = MonetNative.class.getResourceAsStream("/lib/" + library)) {
+                    if (is == null) {
+                        throw new IOException("Library " + library + " in /lib/ could not be found.");
+                    }
+                    Path libFile = tempDir.resolve(library.substring(library.lastIndexOf('/') + 1));
+                    Files.copy(is, libFile);
+                    restrictPermissions(libFile, "rw-------");
+                }
+            }
+            Files.write(tempDir.resolve(MANIFEST_FILE), manifestBytes);
+            restrictPermissions(tempDir.resolve(MANIFEST_FILE), "rw-------");
+            restrictPermissions(tempDir, "rwx------");
+            if (!moveIntoPlace(tempDir, libDir, manifestBytes)) {
+                //A stale directory is in the way, move it aside and try again
+                Path staleDir = cacheDir.resolve("." + name + "-stale-" + System.nanoTime());
+                try {
+                    Files.move(libDir, staleDir, StandardCopyOption.ATOMIC_MOVE);
+                    deleteDirectoryOrOnExit(staleDir);
+                } catch (IOException e) {
+                    //Removed or replaced by another JVM in the meantime
+                }
+                if (!moveIntoPlace(tempDir, libDir, manifestBytes)) {
+                    //Load from the private directory, which is removed when this JVM exits
+                    libDir = tempDir;
+                    deleteOnExit(tempDir);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteDirectory(tempDir);
+            throw e;
+        }
+        if (!libDir.equals(tempDir)) {
+            deleteDirectory(tempDir);
+        }
+        return libDir;
     }
 
     /**
-     * Copy library to temporary location, as Java cannot load it from within the jar
+     * Renames an extraction directory to the cache directory, unless another JVM extracted the same libraries first.
      *
-     * @param directory Directory to copy from. Each OS has its own directory (linux, mac, windows)
-     * @param libName   Full library name to load with System.load()
-     * @throws IOException If the library could not be found
+     * @return false if the cache directory could not be replaced and does not hold the libraries of the manifest
+     */
+    private static boolean moveIntoPlace(Path tempDir, Path libDir, byte[] manifest) {
+        try {
+            Files.move(tempDir, libDir, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            return isExtracted(libDir, manifest);
+        }
+    }
+
+    /**
+     * Checks whether a cache directory holds the libraries of a manifest, which is the case once it was renamed
+     * into place with the same manifest by the current user.
+     */
+    private static boolean isExtracted(Path libDir, byte[] manifest) {
+        try {
+            return isTrusted(libDir) && Arrays.equals(Files.readAllBytes(libDir.resolve(MANIFEST_FILE)), manifest);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a cache directory can only have been written by the current user. In a shared temporary directory,
+     * another local user could create a directory with the same name, a matching manifest and libraries of their own.
+     * The directory and its files must therefore be owned by the current user, must not be symbolic links and must not
+     * be writable by the group or others (where the file system has POSIX permissions).
      */
-    static void loadLib(String directory, String libName) throws IOException {
-        //System.out.println("Loading: " + libName);
-        InputStream is = MonetNative.class.getResourceAsStream("/lib/" + directory + "/" + libName);
-        if (is == null) {
-            throw new IOException("Library " + libName + " could not be found.");
+    private static boolean isTrusted(Path libDir) {
+        try {
+            UserPrincipal user = libDir.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+            if (!isTrusted(libDir, user)) {
+                return false;
+            }
+            try (Stream<Path> paths = Files.list(libDir)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (!isTrusted(path, user)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
         }
-        File loadFile = new java.io.File(System.getProperty("java.io.tmpdir") + "/" + libName);
-        Path tempLibFile = loadFile.toPath();
-        //If the temporary location library already exists, and the checksum matches the library in the jar
-        //No need to copy, only load
-        if (!loadFile.exists() || !libIsUpdated(is,tempLibFile)) {
-            //Clean up file on JVM exit
-            loadFile.deleteOnExit();
-            //Copy library contents in jar to temporary location
-            Files.copy(is, tempLibFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static boolean isTrusted(Path path, UserPrincipal user) throws IOException {
+        if (Files.isSymbolicLink(path) || !user.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS))) {
+            return false;
+        }
+        PosixFileAttributeView posix = Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (posix == null) {
+            return true;
         }
-        System.load(tempLibFile.toString());
+        Set<PosixFilePermission> permissions = posix.readAttributes().permissions();
+        return !permissions.contains(PosixFilePermission.GROUP_WRITE) && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
     }
 
-    //Compare the checksums from the library in the jar and the library in the temp location
-    //Used to check if the library in the jar needs to be copied, or the old one can be loaded
-    static boolean libIsUpdated(InputStream newLib, Path oldLibPath) throws IOException {
-        InputStream oldLib = Files.newInputStream(oldLibPath);
-        CheckedInputStream newIS = new CheckedInputStream(newLib, new CRC32());
-        CheckedInputStream oldIS = new CheckedInputStream(oldLib, new CRC32());
-        byte[] buffer = new byte[1024];
-        while (newIS.read(buffer, 0, buffer.length) >= 0);
-        long newChecksum = newIS.getChecksum().getValue();
-        while (oldIS.read(buffer, 0, buffer.length) >= 0);
-        long oldChecksum = oldIS.getChecksum().getValue();
-        return newChecksum == oldChecksum;
+    /**
+     * Sets the permissions of an extracted file or directory, where the file system has POSIX permissions,
+     * so that it is not affected by the umask.
+     */
+    private static void restrictPermissions(Path path, String permissions) throws IOException {
+        PosixFileAttributeView posix = Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (posix != null) {
+            posix.setPermissions(PosixFilePermissions.fromString(permissions));
+        }
+    }
+
+    /**
+     * Removes a directory and its files, if it still exists.
+     */
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * Removes a directory and its files, or has them removed when the JVM exits if they are in use.
+     */
+    private static void deleteDirectoryOrOnExit(Path dir) {
+        try {
+            deleteDirectory(dir);
+        } catch (IOException e) {
+            deleteOnExit(dir);
+        }
+    }
+
+    /**
+     * Has a directory and its files removed when the JVM exits.
+     */
+    private static void deleteOnExit(Path dir) {
+        //Registered in reverse order of deletion, so that the directory is empty when it is removed
+        dir.toFile().deleteOnExit();
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Load a library from the directory it was extracted to (or installed in)
+     *
+     * @param libDir  Directory holding the libraries
+     * @param libName Full library name to load with System.load()
+     * @throws IOException If the library could not be found
+     */
+    static void loadLib(Path libDir, String libName) throws IOException {
+        Path libFile = libDir.resolve(libName);
+        if (!Files.exists(libFile)) {
+            throw new IOException("Library " + libName + " could not be found in " + libDir + ".");
+        }
+        System.load(libFile.toAbsolutePath().toString());
     }
 
     //Native library API
@@ -256,16 +430,44 @@ public class MonetNative {
     protected static native String monetdbe_query(ByteBuffer db, String sql, MonetStatement statement, boolean largeUpdate, int maxrows);
 
     /**
-     * Retrieve result from monetdbe_result pointer to MonetColumn, the Java representation of the result columns.
-     * Static length types are returned as a ByteBuffer, while variable length types are returned as Object[].
-     * The constructor for MonetColumn is called within this function.
+     * Retrieve a window of rows from a monetdbe_result pointer to MonetColumn, the Java representation of the result columns.
+     * Only the rows in [offset, offset + count) are converted, so that large results can be streamed in chunks.
+     * Rows in the returned columns are indexed starting from 0, relative to the offset.
      *
      * @param nativeResult C pointer to result
-     * @param nrows        Number of rows in result
+     * @param offset       First row (starting at 0) of the window
+     * @param count        Maximum number of rows in the window
      * @param ncols        Number of columns in result
-     * @return Java object representation of result columns
+     * @return Java object representation of the result columns for the requested window
+     * @throws SQLException with MonetDB's error message if a column could not be fetched
+     */
+    protected static native MonetColumn[] monetdbe_result_fetch_rows(ByteBuffer nativeResult, int offset, int count, int ncols) throws SQLException;
+
+    /**
+     * Retrieve a window of rows of a single column from a monetdbe_result pointer to MonetColumn.
+     * Used to convert result columns only when they are first accessed.
+     *
+     * @param nativeResult C pointer to result
+     * @param column       Column number (starting at 0)
+     * @param offset       First row (starting at 0) of the window
+     * @param count        Maximum number of rows in the window
+     * @return Java object representation of the result column for the requested window
+     * @throws SQLException with MonetDB's error message if the column could not be fetched
      */
-    protected static native MonetColumn[] monetdbe_result_fetch_all(ByteBuffer nativeResult, int nrows, int ncols);
+    protected static native MonetColumn monetdbe_result_fetch_column(ByteBuffer nativeResult, int column, int offset, int count) throws SQLException;
+
+    /**
+     * Retrieve the rows [offset, offset + count) of a string column from a monetdbe_result pointer,
+     * as a single UTF-8 buffer with row offsets. No String objects are created.
+     *
+     * @param nativeResult C pointer to result
+     * @param column       Column number (starting at 0)
+     * @param offset       First row (starting at 0)
+     * @param count        Maximum number of rows
+     * @return Raw representation of the string column
+     * @throws SQLException with MonetDB's error message if the column could not be fetched, or if it is not a string column
+     */
+    protected static native MonetStringColumn monetdbe_result_fetch_string_column(ByteBuffer nativeResult, int column, int offset, int count) throws SQLException;
 
     /**
      * Cleans up and closes a result set.
@@ -326,6 +528,21 @@ public class MonetNative {
      */
     protected static native String monetdbe_execute(ByteBuffer stmt, MonetPreparedStatement statement, boolean largeUpdate, int maxrows);
 
+    /**
+     * Executes a prepared statement once for every row of a batch of parameters, in a single native call.
+     * The parameters are given column-wise, one array per parameter.
+     *
+     * @param db      C pointer to database
+     * @param stmt    C pointer to prepared statement
+     * @param columns Parameter values: boolean[], byte[], short[], int[], long[], float[], double[] or String[] per parameter
+     * @param types   MonetDBe types of the parameters
+     * @param nulls   NULL masks (boolean[]) of the constant length parameters, or null entries if the parameter has no NULL values
+     * @param nrows   Number of rows in the batch
+     * @param counts  Update counts of the executed rows, filled up to the row which failed
+     * @return Error message
+     */
+    protected static native String monetdbe_execute_batch(ByteBuffer db, ByteBuffer stmt, Object[] columns, int[] types, Object[] nulls, int nrows, long[] counts);
+
     /**
      * Cleans up and closes a previously prepared statement.
      *
@@ -440,6 +657,27 @@ public class MonetNative {
      */
     protected static native String monetdbe_bind_blob(ByteBuffer stmt, int param, byte[] data, long size);
 
+    /**
+     * Binds blob parameter to prepared statement, reading the value in place from native memory.
+     *
+     * @param stmt  C pointer to prepared statement
+     * @param param Parameter number
+     * @param data  Direct buffer with the blob value, starting at its address (position is ignored)
+     * @param size  Size of the value in bytes
+     * @return Error message
+     */
+    protected static native String monetdbe_bind_blob_buffer(ByteBuffer stmt, int param, ByteBuffer data, long size);
+
+    /**
+     * Binds string parameter to prepared statement, reading the value in place from native memory.
+     *
+     * @param stmt  C pointer to prepared statement
+     * @param param Parameter number
+     * @param data  Direct buffer with the NUL-terminated UTF-8 value, starting at its address (position is ignored)
+     * @return Error message
+     */
+    protected static native String monetdbe_bind_string_buffer(ByteBuffer stmt, int param, ByteBuffer data);
+
     /**
      * Binds date parameter to prepared statement.
      * <p>
@@ -511,4 +749,18 @@ public class MonetNative {
      * @return Error message
      */
     protected static native String monetdbe_bind_null(ByteBuffer db, int type, ByteBuffer stmt, int param);
+
+    /**
+     * Appends columns of data to an existing table, through monetdbe_append.
+     * Primitive arrays are copied once to native memory, direct buffers are appended without copying.
+     *
+     * @param db      C pointer to database
+     * @param schema  Schema of the table
+     * @param table   Table to append to
+     * @param columns Column data: primitive arrays, direct buffers or String[], in the order of the table's columns
+     * @param types   MonetDBe types of the columns
+     * @param nrows   Number of rows in each column
+     * @return Error message
+     */
+    protected static native String monetdbe_append(ByteBuffer db, String schema, String table, Object[] columns, int[] types, int nrows);
 }
@@ -8,6 +8,11 @@ import java.math.BigInteger;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,6 +21,7 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@link PreparedStatement} suitable for the MonetDB embedded database.
@@ -32,10 +38,42 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
     /* PreparedStatement state variables */
     /** The pointer to the C statement object */
     protected ByteBuffer statementNative;
+    /** The native statement and its descriptions, returned to the connection's statement cache when its session is released */
+    MonetStatementCache.Entry cacheEntry;
+    /** Prepared SQL text */
+    private final String sql;
     /** Currently bound parameters */
     private Object[] parameters;
     /** Array of bound parameters, for use in executeBatch() */
     private List<Object[]> parametersBatch = null;
+    /** Bindings of the current parameters, which also keep the native memory of streamed parameters reachable */
+    private Binding[] bindings;
+    /** Bindings applied to the native statement, so that only the parameters set since it was last used are bound */
+    private Binding[] applied;
+    /** Size of the chunks in which streams are read into native memory */
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * A parameter value, bound to the native statement when it is set or when the statement is executed.
+     */
+    private interface Binding {
+        /**
+         * @param stmt C pointer to the native statement
+         * @return The error message, or null if the value was bound
+         */
+        String bind(ByteBuffer stmt);
+    }
+
+    /**
+     * String parameter read from a Reader, kept as NUL-terminated UTF-8 in native memory to be bound again by executeBatch().
+     */
+    private static final class NativeString {
+        private final ByteBuffer utf8;
+
+        private NativeString(ByteBuffer utf8) {
+            this.utf8 = utf8;
+        }
+    }
 
     /* Input parameters variables */
     /** Metadata object containing info about the input parameters of the prepared statement */
@@ -77,9 +115,29 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
      * @param sql  query to prepare
      */
     public MonetPreparedStatement(MonetConnection conn, String sql) {
+        this(conn, sql, null);
+    }
+
+    /**
+     * Prepared statement constructor for statements running in a leased session, see {@link MonetSessionLease}.
+     * The statement is prepared in the leased session.
+     *
+     * @param conn parent connection
+     * @param sql  query to prepare
+     * @param lease session lease to run in, or null to borrow sessions from the connection
+     */
+    MonetPreparedStatement(MonetConnection conn, String sql, MonetSessionLease lease) {
         super(conn);
+        this.lease = lease;
+        this.sql = sql;
         this.nCols = 0;
-        String error_msg = MonetNative.monetdbe_prepare(conn.getDatabasePointer(), sql, this);
+        String error_msg = null;
+        try {
+            //Prepares the statement, or reuses the native statement of a PreparedStatement with the same SQL text
+            getDatabasePointer();
+        } catch (SQLException e) {
+            error_msg = e.getMessage();
+        }
 
         //Failed prepare, destroy statement
         if (error_msg != null || this.statementNative == null) {
@@ -117,6 +175,8 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
             }
             this.parameterMetaData = new MonetParameterMetaData(nParams, monetdbeTypes,digitsInput,scaleInput);
             this.parameters = new Object[nParams];
+            this.bindings = new Binding[nParams];
+            this.applied = new Binding[nParams];
 
         }
         else {
@@ -137,6 +197,119 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
             //Jul2021
             this.resultSetMetaData = null;
         }
+
+        //Until it is executed, the statement holds no session and its native statement waits in the statement cache
+        releaseSession();
+    }
+
+    /**
+     * Retrieves the C pointer to the database session this statement runs in, see {@link MonetStatement#getDatabasePointer()}.
+     * A prepared statement only holds a session while it executes or has an open result set. When it takes a session,
+     * its native statement is taken from the connection's statement cache, or prepared again if the session has none,
+     * and the parameters which are not bound in that native statement yet are bound.
+     *
+     * @return C pointer to the database
+     * @throws SQLException if no session is available or the statement could not be prepared or bound in it
+     */
+    @Override
+    protected ByteBuffer getDatabasePointer() throws SQLException {
+        ByteBuffer db = super.getDatabasePointer();
+        if (statementNative == null) {
+            //The session may be shared, see MonetStatement#executeNative()
+            MonetSessionPool.Session taken = session;
+            taken.lock.lock();
+            try {
+                takeNativeStatement();
+            } catch (SQLException e) {
+                releaseIdleSession(null);
+                throw e;
+            } finally {
+                taken.lock.unlock();
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Takes the native statement of the current session from the statement cache or prepares it, and binds the parameters.
+     * The first native statement also sets the descriptions of the parameters and result columns.
+     *
+     * @throws SQLException if the statement could not be prepared or a parameter could not be bound
+     */
+    private void takeNativeStatement() throws SQLException {
+        MonetStatementCache cache = conn.getStatementCache();
+        long generation = cache.getGeneration();
+        MonetStatementCache.Entry entry = cache.take(session, sql);
+        if (entry == null) {
+            String error_msg = MonetNative.monetdbe_prepare(session.db, sql, this);
+            if (error_msg != null)
+                throw new SQLException(error_msg);
+            if (statementNative == null)
+                throw new SQLException("statement native object is null");
+            entry = new MonetStatementCache.Entry(session, sql, this, generation);
+        } else if (cacheEntry == null) {
+            entry.restore(this);
+        } else {
+            statementNative = entry.statementNative;
+        }
+        this.cacheEntry = entry;
+
+        //Another PreparedStatement may have bound its parameters in the native statement since this one last used it
+        MonetPreparedStatement boundBy = entry.boundBy;
+        entry.boundBy = this;
+        if (bindings == null)
+            return;
+        for (int i = 0; i < nParams; i++) {
+            if (boundBy != this)
+                applied[i] = null;
+            Binding binding = bindings[i];
+            String error_msg = null;
+            if (binding != null && applied[i] != binding)
+                error_msg = binding.bind(statementNative);
+            else if (binding == null && boundBy != this && boundBy != null)
+                error_msg = MonetNative.monetdbe_bind_null(session.db, monetdbeTypes[i], statementNative, i);
+            if (error_msg != null)
+                throw new SQLException(error_msg);
+            applied[i] = binding;
+        }
+    }
+
+    /**
+     * Returns the native statement to the connection's statement cache (or frees it if the cache doesn't take it)
+     * before the session is released, as the native statement belongs to the session.
+     */
+    @Override
+    protected void releaseSession() {
+        if (statementNative != null && session != null) {
+            session.lock.lock();
+            try {
+                if (cacheEntry == null || cacheEntry.session != session || !conn.getStatementCache().offer(cacheEntry))
+                    MonetNative.monetdbe_cleanup_statement(session.db, statementNative);
+            } finally {
+                session.lock.unlock();
+            }
+        }
+        statementNative = null;
+        super.releaseSession();
+    }
+
+    /**
+     * Sets the binding of a parameter. The value is bound right away if this statement holds its native statement,
+     * otherwise when it is executed.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param binding        Binds the value
+     * @throws SQLException if the value could not be bound
+     */
+    private void bind(int parameterIndex, Binding binding) throws SQLException {
+        if (statementNative != null) {
+            String error_msg = binding.bind(statementNative);
+            if (error_msg != null) {
+                throw new SQLException(error_msg);
+            }
+            applied[parameterIndex - 1] = binding;
+        }
+        bindings[parameterIndex - 1] = binding;
     }
 
     /**
@@ -157,20 +330,29 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
 
         int lastUpdateCount = this.updateCount;
         MonetResultSet lastResultSet = this.resultSet;
+        MonetResultCache.Key key = resultCacheKey(sql, parameters);
+        if (executeFromCache(key, lastResultSet))
+            return true;
+        long generation = resultCacheGeneration();
         this.resultSet = null;
         this.updateCount = -1;
 
         //ResultSet and UpdateCount is set within monetdbe_execute
-        String error_msg = MonetNative.monetdbe_execute(statementNative, this, false, getMaxRows());
+        final int limit = getMaxRows();
+        String error_msg = executeNative(db -> MonetNative.monetdbe_execute(statementNative, this, false, limit));
+        updateResultCache(sql, key, generation, error_msg != null, lastResultSet);
         if (error_msg != null) {
             this.updateCount = lastUpdateCount;
             this.resultSet = lastResultSet;
-            throw new SQLException(error_msg);
+            releaseIdleSession(null);
+            throw executionError(error_msg);
         } else if (this.resultSet != null) {
             return true;
         } else if (this.updateCount >= 0) {
+            releaseIdleSession(lastResultSet);
             return false;
         } else {
+            releaseIdleSession(lastResultSet);
             throw new SQLException("No update count or result set returned");
         }
     }
@@ -199,14 +381,18 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         this.largeUpdateCount = -1;
 
         //ResultSet and UpdateCount is set within monetdbe_execute
-        String error_msg = MonetNative.monetdbe_execute(statementNative, this, true, getMaxRows());
+        final int limit = getMaxRows();
+        String error_msg = executeNative(db -> MonetNative.monetdbe_execute(statementNative, this, true, limit));
+        updateResultCache(sql, null, 0, error_msg != null, lastResultSet);
         if (error_msg != null) {
             this.largeUpdateCount = lastUpdateCount;
             this.resultSet = lastResultSet;
-            throw new SQLException(error_msg);
+            releaseIdleSession(null);
+            throw executionError(error_msg);
         } else if (this.resultSet != null) {
             throw new SQLException("Query produced a result set", "M1M17");
         } else {
+            releaseIdleSession(lastResultSet);
             return getLargeUpdateCount();
         }
     }
@@ -240,6 +426,29 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         throw new SQLException("This method is not available in a PreparedStatement!", "M1M05");
     }
 
+    /**
+     * Executes the SQL query in this PreparedStatement object asynchronously, on the executor of the parent
+     * connection (see {@link MonetConnection#setAsyncExecutor(java.util.concurrent.Executor)}).
+     * The parameters must be set before calling this method, and the statement must not be used until
+     * the returned future is completed.
+     *
+     * @return a future completed with the ResultSet produced by the query, or completed exceptionally
+     *         with the SQLException executeQuery() would throw
+     * @throws SQLException if this method is called on a closed PreparedStatement or its connection is closed
+     */
+    public CompletableFuture<ResultSet> executeAsync() throws SQLException {
+        checkNotClosed();
+        return runAsync(this::executeQuery);
+    }
+
+    /**
+     * Override the executeAsync from the Statement to throw a SQLException
+     */
+    @Override
+    public CompletableFuture<ResultSet> executeAsync(final String q) throws SQLException {
+        throw new SQLException("This method is not available in a PreparedStatement!", "M1M05");
+    }
+
     /**
      * Executes the SQL statement in this PreparedStatement object, which must be an SQL Data Manipulation Language (DML)
      * statement, such as INSERT, UPDATE or DELETE; or an SQL statement that returns nothing, such as a DDL statement.
@@ -337,6 +546,163 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         if (parametersBatch == null || parametersBatch.isEmpty()) {
             return new long[0];
         }
+        for (Object[] cur_batch : parametersBatch) {
+            if (cur_batch == null) {
+                throw new BatchUpdateException();
+            }
+        }
+
+        long[] counts = executeColumnBatch();
+        if (counts == null) {
+            counts = executeRowBatch();
+        }
+        clearBatch();
+        return counts;
+    }
+
+    /**
+     * Executes the batch by transposing the parameters into one array per parameter, which are bound and executed
+     * in a single native call instead of one native call per parameter and per row.
+     *
+     * @return the update counts, or null if the parameters can't be transposed and the batch must be executed row by row
+     * @throws BatchUpdateException if one of the rows fails to execute or produces a result set
+     */
+    private long[] executeColumnBatch() throws SQLException {
+        int nrows = parametersBatch.size();
+        if (nParams == 0) {
+            return null;
+        }
+        Object[] columns = new Object[nParams];
+        Object[] nulls = new Object[nParams];
+        for (int j = 0; j < nParams; j++) {
+            //Decimal parameters are bound through their scaled value, which is left to the row by row execution
+            if (scaleInput != null && scaleInput[j] > 0) {
+                return null;
+            }
+            columns[j] = transposeParameter(j, nrows, nulls);
+            if (columns[j] == null) {
+                return null;
+            }
+        }
+
+        long[] counts = new long[nrows];
+        java.util.Arrays.fill(counts, Statement.EXECUTE_FAILED);
+        String error_msg = executeNative(db -> MonetNative.monetdbe_execute_batch(db, statementNative, columns, monetdbeTypes, nulls, nrows, counts));
+        //The native statement is left with the values of the last row bound
+        java.util.Arrays.fill(applied, null);
+        updateResultCache(sql, null, 0, error_msg != null, null);
+        releaseIdleSession(null);
+        if (error_msg != null) {
+            int executed = 0;
+            while (executed < nrows && counts[executed] != Statement.EXECUTE_FAILED)
+                executed++;
+            SQLException error = executionError(error_msg);
+            throw new BatchUpdateException(error.getMessage(), error.getSQLState(), 0, java.util.Arrays.copyOf(counts, executed), error);
+        }
+        return counts;
+    }
+
+    /**
+     * Copies the values of a parameter in all rows of the batch into an array of the parameter's type.
+     * Values are converted in the same way as by setObject(int, Object).
+     *
+     * @param j     Parameter index (starts at 0)
+     * @param nrows Number of rows in the batch
+     * @param nulls NULL masks of the parameters, where the mask of this parameter is set if it has NULL values
+     * @return the array of values, or null if the parameter type or one of its values can't be transposed
+     */
+    private Object transposeParameter(int j, int nrows, Object[] nulls) {
+        int type = monetdbeTypes[j];
+        Object column;
+        switch (type) {
+            case 0:
+                column = new boolean[nrows];
+                break;
+            case 1:
+                column = new byte[nrows];
+                break;
+            case 2:
+                column = new short[nrows];
+                break;
+            case 3:
+                column = new int[nrows];
+                break;
+            case 4:
+                column = new long[nrows];
+                break;
+            case 7:
+                column = new float[nrows];
+                break;
+            case 8:
+                column = new double[nrows];
+                break;
+            case 9:
+                column = new String[nrows];
+                break;
+            default:
+                return null;
+        }
+
+        boolean[] columnNulls = null;
+        for (int i = 0; i < nrows; i++) {
+            Object x = parametersBatch.get(i)[j];
+            if (x == null) {
+                if (type != 9) {
+                    if (columnNulls == null)
+                        columnNulls = new boolean[nrows];
+                    columnNulls[i] = true;
+                }
+                continue;
+            }
+            if (type == 9) {
+                if (!(x instanceof String || x instanceof Number || x instanceof Boolean))
+                    return null;
+                ((String[]) column)[i] = x.toString();
+                continue;
+            }
+
+            final Number num;
+            if (x instanceof Number)
+                num = (Number) x;
+            else if (x instanceof Boolean)
+                num = (Boolean) x ? 1 : 0;
+            else
+                return null;
+            switch (type) {
+                case 0:
+                    ((boolean[]) column)[i] = num.doubleValue() != 0.0;
+                    break;
+                case 1:
+                    ((byte[]) column)[i] = num.byteValue();
+                    break;
+                case 2:
+                    ((short[]) column)[i] = num.shortValue();
+                    break;
+                case 3:
+                    ((int[]) column)[i] = num.intValue();
+                    break;
+                case 4:
+                    ((long[]) column)[i] = num.longValue();
+                    break;
+                case 7:
+                    ((float[]) column)[i] = num.floatValue();
+                    break;
+                case 8:
+                    ((double[]) column)[i] = num.doubleValue();
+                    break;
+            }
+        }
+        nulls[j] = columnNulls;
+        return column;
+    }
+
+    /**
+     * Executes the batch one row at a time, binding each parameter through setObject.
+     *
+     * @return the update counts
+     * @throws BatchUpdateException if one of the rows fails to execute or produces a result set
+     */
+    private long[] executeRowBatch() throws SQLException {
         long[] counts = new long[parametersBatch.size()];
         long count = -1;
         Object[] cur_batch;
@@ -345,10 +711,6 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
             //Get batch of parameters
             cur_batch = parametersBatch.get(i);
 
-            if (cur_batch == null) {
-                throw new BatchUpdateException();
-            }
-
             for (int j = 0; j < nParams; j++) {
                 //Set each parameter in current batch
                 setObject(j + 1, cur_batch[j]);
@@ -366,7 +728,6 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
                 counts[i] = Statement.SUCCESS_NO_INFO;
             }
         }
-        clearBatch();
         return counts;
     }
 
@@ -499,6 +860,13 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
             setObjectDate(parameterIndex, targetSqlType, x);
         } else if (x instanceof MonetBlob || x instanceof Blob) {
             setBlob(parameterIndex, (Blob) x);
+        } else if (x instanceof Clob) {
+            setClob(parameterIndex, (Clob) x);
+        } else if (x instanceof ByteBuffer) {
+            setBlob(parameterIndex, (ByteBuffer) x);
+        } else if (x instanceof NativeString) {
+            bindNativeString(parameterIndex, ((NativeString) x).utf8);
+            parameters[parameterIndex - 1] = x;
         } else if (x instanceof java.net.URL) {
             setURL(parameterIndex, (URL) x);
         }
@@ -770,10 +1138,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
         int monettype = monetdbeTypes[parameterIndex - 1];
 
-        String error_msg = MonetNative.monetdbe_bind_null(conn.getDatabasePointer(), monettype, statementNative, parameterIndex - 1);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_null(session.db, monettype, stmt, parameterIndex - 1));
         parameters[parameterIndex - 1] = null;
     }
 
@@ -790,10 +1155,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_bool(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_bool(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -810,10 +1172,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_byte(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_byte(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -830,10 +1189,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_short(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_short(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -850,10 +1206,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_int(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_int(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -870,10 +1223,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_long(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_long(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -890,10 +1240,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_float(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_float(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -910,10 +1257,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_double(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_double(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -1000,10 +1344,7 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_string(statementNative, parameterIndex - 1, x);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_string(stmt, parameterIndex - 1, x));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -1031,10 +1372,8 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
                     .withZoneSameInstant(ZoneOffset.UTC)
                     .toLocalDate();
         }
-        String error_msg = MonetNative.monetdbe_bind_date(statementNative, parameterIndex - 1, (short) localDate.getYear(), (byte) localDate.getMonthValue(), (byte) localDate.getDayOfMonth());
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        LocalDate date = localDate;
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_date(stmt, parameterIndex - 1, (short) date.getYear(), (byte) date.getMonthValue(), (byte) date.getDayOfMonth()));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -1063,10 +1402,8 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
                     .toLocalTime();
         }
 
-        String error_msg = MonetNative.monetdbe_bind_time(statementNative, parameterIndex - 1, localTime.getHour(), localTime.getMinute(), localTime.getSecond(), localTime.getNano() * 1000);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        LocalTime time = localTime;
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_time(stmt, parameterIndex - 1, time.getHour(), time.getMinute(), time.getSecond(), time.getNano() * 1000));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -1093,10 +1430,8 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
                     .withZoneSameInstant(ZoneOffset.UTC)
                     .toLocalDateTime();
         }
-        String error_msg = MonetNative.monetdbe_bind_timestamp(statementNative, parameterIndex - 1, localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(), localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(), (int) (x.toInstant().toEpochMilli() % 1000));
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        LocalDateTime dateTime = localDateTime;
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_timestamp(stmt, parameterIndex - 1, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), (int) (x.toInstant().toEpochMilli() % 1000)));
         parameters[parameterIndex - 1] = x;
     }
 
@@ -1152,13 +1487,154 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        String error_msg = MonetNative.monetdbe_bind_blob(statementNative, parameterIndex - 1, x, x.length);
-        if (error_msg != null) {
-            throw new SQLException(error_msg);
-        }
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_blob(stmt, parameterIndex - 1, x, x.length));
         parameters[parameterIndex - 1] = x;
     }
 
+    /**
+     * Sets the designated parameter to the remaining bytes of a ByteBuffer, bound as a BLOB.
+     * A direct buffer is read in place by the database, so its contents must not change until the statement is
+     * executed; other buffers are copied to native memory first. The buffer's position is not changed.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param x              the parameter value
+     * @throws SQLException if parameterIndex does not correspond to a parameter marker in the SQL statement;
+     *                      if a database access error occurs or this method is called on a closed PreparedStatement
+     */
+    public void setBlob(int parameterIndex, ByteBuffer x) throws SQLException {
+        checkNotClosed();
+        if (parameterIndex <= 0 || parameterIndex > nParams)
+            throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
+        if (x == null) {
+            setNull(parameterIndex, Types.BLOB);
+            return;
+        }
+        ByteBuffer data;
+        if (x.isDirect()) {
+            data = x.slice();
+        } else {
+            data = ByteBuffer.allocateDirect(x.remaining());
+            data.put(x.duplicate());
+            data.flip();
+        }
+        bindNativeBlob(parameterIndex, data);
+        parameters[parameterIndex - 1] = data;
+    }
+
+    /**
+     * Binds a BLOB parameter from native memory, which its binding keeps reachable until the parameter is set again.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param data           Direct buffer with the value, from its address up to its limit
+     * @throws SQLException if a database access error occurs
+     */
+    private void bindNativeBlob(int parameterIndex, ByteBuffer data) throws SQLException {
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_blob_buffer(stmt, parameterIndex - 1, data, data.limit()));
+    }
+
+    /**
+     * Binds a string parameter from native memory, which its binding keeps reachable until the parameter is set again.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param utf8           Direct buffer with the NUL-terminated UTF-8 value
+     * @throws SQLException if a database access error occurs
+     */
+    private void bindNativeString(int parameterIndex, ByteBuffer utf8) throws SQLException {
+        bind(parameterIndex, stmt -> MonetNative.monetdbe_bind_string_buffer(stmt, parameterIndex - 1, utf8));
+    }
+
+    /**
+     * Reads a stream into native memory, in chunks, so that the value is never buffered on the Java heap.
+     *
+     * @param in     Stream to read
+     * @param length Maximum number of bytes to read, or -1 to read until the end of the stream
+     * @return Direct buffer with the bytes read, from position 0 up to its limit
+     * @throws SQLException if the stream could not be read or its value is larger than 2GB
+     */
+    private static ByteBuffer readNative(InputStream in, long length) throws SQLException {
+        if (length > Integer.MAX_VALUE)
+            throw new SQLException("Invalid length value: " + length, "M1M05");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length >= 0 ? (int) length : STREAM_CHUNK_SIZE);
+        //Channels read through a small transfer array, whatever the size of the buffer
+        ReadableByteChannel channel = Channels.newChannel(in);
+        try {
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    if (length >= 0)
+                        break;
+                    buffer = growNative(buffer);
+                }
+                if (channel.read(buffer) < 0)
+                    break;
+            }
+        } catch (IOException e) {
+            throw new SQLException("failed to read from stream: " + e.getMessage(), "M1M25");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes the characters of a Reader as NUL-terminated UTF-8 in native memory, in chunks, so that the value is
+     * never held as a String. Malformed characters are replaced.
+     *
+     * @param reader Reader to read
+     * @param length Maximum number of characters to read, or -1 to read until the end of the reader
+     * @return Direct buffer with the UTF-8 bytes and a terminating NUL, from position 0 up to its limit
+     * @throws SQLException if the reader could not be read or the encoded value is larger than 2GB
+     */
+    private static ByteBuffer encodeNative(Reader reader, long length) throws SQLException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long remaining = length >= 0 ? length : Long.MAX_VALUE;
+        ByteBuffer out = ByteBuffer.allocateDirect(length >= 0 ? (int) Math.min(length + 1, STREAM_CHUNK_SIZE) : STREAM_CHUNK_SIZE);
+        CharBuffer in = CharBuffer.allocate(8192);
+        try {
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                int max = (int) Math.min(in.remaining(), remaining);
+                int read = max > 0 ? reader.read(in.array(), in.arrayOffset() + in.position(), max) : -1;
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    in.position(in.position() + read);
+                    remaining -= read;
+                }
+                in.flip();
+                //A high surrogate at the end of a chunk is kept in the buffer until its low surrogate is read
+                while (encoder.encode(in, out, endOfInput).isOverflow())
+                    out = growNative(out);
+                in.compact();
+            }
+            while (encoder.flush(out).isOverflow())
+                out = growNative(out);
+        } catch (IOException e) {
+            throw new SQLException("failed to read from stream: " + e.getMessage(), "M1M25");
+        }
+        if (!out.hasRemaining())
+            out = growNative(out);
+        out.put((byte) 0);
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Doubles the capacity of a direct buffer which is being written, keeping its contents and position.
+     *
+     * @param buffer Full buffer
+     * @return The new buffer
+     * @throws SQLException if the buffer would become larger than 2GB
+     */
+    private static ByteBuffer growNative(ByteBuffer buffer) throws SQLException {
+        if (buffer.capacity() == Integer.MAX_VALUE)
+            throw new SQLException("Parameter value is larger than 2GB", "M1M05");
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Math.max(2L * buffer.capacity(), STREAM_CHUNK_SIZE), Integer.MAX_VALUE));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
     /**
      * Sets the designated parameter to the given Java java.net.URL value.
      *
@@ -1193,17 +1669,14 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         if (x == null || x.length() <= 0) {
             setNull(parameterIndex, Types.BLOB);
         } else {
-            byte[] blob_data = x.getBytes(1, (int) x.length());
-            String error_msg = MonetNative.monetdbe_bind_blob(statementNative, parameterIndex - 1, blob_data, x.length());
-            if (error_msg != null) {
-                throw new SQLException(error_msg);
-            }
+            bindNativeBlob(parameterIndex, readNative(x.getBinaryStream(), x.length()));
         }
         parameters[parameterIndex - 1] = x;
     }
 
     /**
      * Sets the designated parameter with InputStream object which is sent to the server as a BLOB.
+     * The stream is read in chunks into native memory, without buffering the value on the Java heap.
      *
      * @param parameterIndex Parameter index (starts at 1)
      * @param inputStream   An object that contains the data to set the parameter value to
@@ -1216,12 +1689,12 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
 
-        MonetBlob x = new MonetBlob(inputStream);
-        setBlob(parameterIndex,x);
+        setNativeBlob(parameterIndex, inputStream, -1);
     }
 
     /**
      * Sets the designated parameter with InputStream object which is sent to the server as a BLOB.
+     * Up to length bytes are read in chunks into native memory, without buffering the value on the Java heap.
      *
      * @param parameterIndex Parameter index (starts at 1)
      * @param inputStream    An object that contains the data to set the parameter value to
@@ -1238,8 +1711,25 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         if (length < 0)
             throw new SQLException("length cannot be less than zero");
 
-        MonetBlob x = new MonetBlob(inputStream,(int) length);
-        setBlob(parameterIndex,x);
+        setNativeBlob(parameterIndex, inputStream, length);
+    }
+
+    /**
+     * Binds a BLOB parameter read from a stream. Empty streams are bound as NULL, like empty Blob objects.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param inputStream    Stream to read, or null to bind NULL
+     * @param length         Maximum number of bytes to read, or -1 to read until the end of the stream
+     * @throws SQLException if the stream could not be read or a database access error occurs
+     */
+    private void setNativeBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        ByteBuffer data = inputStream != null ? readNative(inputStream, length) : null;
+        if (data == null || !data.hasRemaining()) {
+            setNull(parameterIndex, Types.BLOB);
+            return;
+        }
+        bindNativeBlob(parameterIndex, data);
+        parameters[parameterIndex - 1] = data;
     }
 
     /**
@@ -1255,62 +1745,67 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
         checkNotClosed();
         if (parameterIndex <= 0 || parameterIndex > nParams)
             throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
-        long size = x.length();
+        long size = x != null ? x.length() : 0;
         if (size > 0) {
-            String error_msg = MonetNative.monetdbe_bind_string(statementNative, parameterIndex - 1, x.toString());
-            if (error_msg != null) {
-                throw new SQLException(error_msg);
-            }
+            bindNativeString(parameterIndex, encodeNative(x.getCharacterStream(), size));
             parameters[parameterIndex - 1] = x;
         } else {
             setNull(parameterIndex, Types.BLOB);
         }
     }
 
-    //Imported from default driver implementation
+    /**
+     * Sets the designated parameter to a Reader object, which is sent to the server as a string.
+     * The characters are encoded to UTF-8 in chunks, in native memory, without holding the value as a String.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param reader         An object that contains the data to set the parameter value to
+     * @throws SQLException if parameterIndex does not correspond to a parameter marker in the SQL statement;
+     *                      if a database access error occurs or this method is called on a closed PreparedStatement
+     */
     @Override
     public void setClob(int parameterIndex, Reader reader) throws SQLException {
-        if (reader == null) {
-            setNull(parameterIndex, -1);
-            return;
-        }
-
-        // Some buffer. Size of 8192 is default for BufferedReader, so...
-        final int size = 8192;
-        final char[] arr = new char[size];
-        final StringBuilder buf = new StringBuilder(size * 32);
-        try {
-            int numChars;
-            while ((numChars = reader.read(arr, 0, size)) > 0) {
-                buf.append(arr, 0, numChars);
-            }
-            setString(parameterIndex, buf.toString());
-        } catch (IOException e) {
-            throw new SQLException("failed to read from stream: " + e.getMessage(), "M1M25");
-        }
+        setNativeString(parameterIndex, reader, -1);
     }
 
-    //Imported from default driver implementation
+    /**
+     * Sets the designated parameter to a Reader object, of which up to length characters are sent to the server as a string.
+     * The characters are encoded to UTF-8 in chunks, in native memory, without holding the value as a String.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param reader         An object that contains the data to set the parameter value to
+     * @param length         The number of characters in the parameter data
+     * @throws SQLException if parameterIndex does not correspond to a parameter marker in the SQL statement;
+     *                      if a database access error occurs or this method is called on a closed PreparedStatement;
+     *                      if the length specified is less than zero
+     */
     @Override
     public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
-        if (reader == null) {
-            setNull(parameterIndex, -1);
-            return;
-        }
         if (length < 0 || length > Integer.MAX_VALUE) {
             throw new SQLException("Invalid length value: " + length, "M1M05");
         }
+        setNativeString(parameterIndex, reader, length);
+    }
 
-        // simply serialise the Reader data into a large buffer
-        final CharBuffer buf = CharBuffer.allocate((int) length); // have to down cast
-        try {
-            reader.read(buf);
-            // We have to rewind the buffer, because otherwise toString() returns "".
-            buf.rewind();
-            setString(parameterIndex, buf.toString());
-        } catch (IOException e) {
-            throw new SQLException("failed to read from stream: " + e.getMessage(), "M1M25");
+    /**
+     * Binds a string parameter read from a Reader.
+     *
+     * @param parameterIndex Parameter index (starts at 1)
+     * @param reader         Reader to read, or null to bind NULL
+     * @param length         Maximum number of characters to read, or -1 to read until the end of the reader
+     * @throws SQLException if the reader could not be read or a database access error occurs
+     */
+    private void setNativeString(int parameterIndex, Reader reader, long length) throws SQLException {
+        checkNotClosed();
+        if (parameterIndex <= 0 || parameterIndex > nParams)
+            throw new SQLException("parameterIndex does not correspond to a parameter marker in the statement");
+        if (reader == null) {
+            setNull(parameterIndex, -1);
+            return;
         }
+        NativeString x = new NativeString(encodeNative(reader, length));
+        bindNativeString(parameterIndex, x.utf8);
+        parameters[parameterIndex - 1] = x;
     }
 
     /**
@@ -1427,33 +1922,33 @@ public class MonetPreparedStatement extends MonetStatement implements PreparedSt
     }
 
     /**
-     * Feature not supported.
+     * Similar to setBlob(int,InputStream,long).
      *
-     * @throws SQLFeatureNotSupportedException This feature is not supported
+     * @see #setBlob(int, InputStream, long)
      */
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        throw new SQLFeatureNotSupportedException("setBinaryStream");
+        setBlob(parameterIndex, x, (long) length);
     }
 
     /**
-     * Feature not supported.
+     * Similar to setBlob(int,InputStream,long).
      *
-     * @throws SQLFeatureNotSupportedException This feature is not supported
+     * @see #setBlob(int, InputStream, long)
      */
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
-        throw new SQLFeatureNotSupportedException("setBinaryStream");
+        setBlob(parameterIndex, x, length);
     }
 
     /**
-     * Feature not supported.
+     * Similar to setBlob(int,InputStream).
      *
-     * @throws SQLFeatureNotSupportedException This feature is not supported
+     * @see #setBlob(int, InputStream)
      */
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
-        throw new SQLFeatureNotSupportedException("setBinaryStream");
+        setBlob(parameterIndex, x);
     }
 
     /**
@@ -0,0 +1,42 @@
+package org.monetdb.monetdbe;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the query timeouts of statements (see {@link MonetStatement#setQueryTimeout(int)}).
+ *
+ * When a statement with a query timeout starts a native call, a task is scheduled on a single daemon thread shared
+ * by all connections. If the call has not returned when the timeout expires, the task stops the running query
+ * the way {@link MonetStatement#cancel()} does, which frees the native session and the threads running the query.
+ * The task is unscheduled when the call returns in time.
+ */
+final class MonetQueryWatchdog {
+    /** Timer thread, created with the first statement which has a query timeout */
+    private static final ScheduledThreadPoolExecutor TIMER;
+
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "monetdbe-query-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        //Most queries finish in time, so don't keep their tasks in the queue until they expire
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private MonetQueryWatchdog() {
+    }
+
+    /**
+     * Schedules the timeout of a statement's native call.
+     *
+     * @param statement The statement which starts a native call
+     * @param seconds Query timeout of the statement, in seconds
+     * @return The scheduled timeout, to be cancelled when the native call returns
+     */
+    static ScheduledFuture<?> schedule(final MonetStatement statement, int seconds) {
+        return TIMER.schedule(statement::timeout, seconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,405 @@
+package org.monetdb.monetdbe;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of query results of a {@link MonetConnection}, keyed by normalized SQL text, bound parameters,
+ * schema and maximum number of rows. Enabled through the result_cache_limit driver property (in MB).
+ *
+ * A cached result holds its columns converted to Java memory, so a repeated query is answered without calling
+ * the database, by a result set which does not hold a native result. Only SELECT and WITH queries executed
+ * in auto-commit mode outside of a {@link MonetSessionLease} are cached, as other statements may depend on session state.
+ *
+ * The cache is invalidated as a whole when any other statement (or append) is executed on the same database, through
+ * any connection of this JVM: each database has a generation counter, which writes increment, and results are
+ * only stored and used while the generation they were read in is current. Queries calling non-deterministic functions
+ * (such as now() or sequences) return the cached values until the next write.
+ *
+ * The same class caches the catalog queries of {@link MonetDatabaseMetaData} (see the metadata_cache_limit driver
+ * property), in a separate cache whose generation counter is only incremented by statements which may change the
+ * catalog, so that data manipulation does not invalidate it.
+ */
+final class MonetResultCache {
+    /**
+     * Identifies a query result: the normalized SQL text, the schema it resolves names in, the maximum number of rows
+     * and a copy of the bound parameters.
+     */
+    static final class Key {
+        private final String sql;
+        private final String schema;
+        private final int maxRows;
+        private final Object[] parameters;
+        private final int hash;
+
+        private Key(String sql, String schema, int maxRows, Object[] parameters) {
+            this.sql = sql;
+            this.schema = schema;
+            this.maxRows = maxRows;
+            this.parameters = parameters;
+            this.hash = 31 * (31 * (31 * sql.hashCode() + (schema != null ? schema.hashCode() : 0)) + maxRows) + Arrays.deepHashCode(parameters);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return hash == other.hash && maxRows == other.maxRows && sql.equals(other.sql)
+                    && (schema != null ? schema.equals(other.schema) : other.schema == null)
+                    && Arrays.deepEquals(parameters, other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached result, with its columns in Java memory.
+     */
+    static final class Entry {
+        final MonetColumn[] columns;
+        final MonetResultSetMetaData metaData;
+        final int nRows;
+        final String name;
+        /** Estimated memory used by the columns */
+        final long bytes;
+        /** Generation of the database when the result was read */
+        final long generation;
+
+        private Entry(MonetColumn[] columns, MonetResultSetMetaData metaData, int nRows, String name, long bytes, long generation) {
+            this.columns = columns;
+            this.metaData = metaData;
+            this.nRows = nRows;
+            this.name = name;
+            this.bytes = bytes;
+            this.generation = generation;
+        }
+    }
+
+    /** Generation counters of the databases opened in this JVM, per scope */
+    private static final ConcurrentHashMap<String, AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+
+    /** Maximum estimated size of the cached results, in bytes */
+    private final long maxBytes;
+    /** Generation counter of the database, shared by all connections to it */
+    private final AtomicLong generation;
+    /** Cached results, the least recently used one first */
+    private final LinkedHashMap<Key, Entry> entries;
+    /** Estimated size of the cached results, in bytes */
+    private long usedBytes;
+    /** Guards the map */
+    private final ReentrantLock lock;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxBytes Maximum estimated size of the cached results, in bytes
+     * @param generation Generation counter of the database
+     */
+    private MonetResultCache(long maxBytes, AtomicLong generation) {
+        this.maxBytes = maxBytes;
+        this.generation = generation;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.lock = new ReentrantLock();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Returns the generation counter of a connection's database. Connections to the same database share the counter,
+     * so that they invalidate each other's results, also when they don't cache results themselves. All in-memory
+     * connections of the JVM share one counter, as monetdbe opens a single in-memory database per process.
+     *
+     * @param properties Properties of the connection, as set by the driver
+     * @param scope What the caches hold, caches with different scopes have separate generation counters
+     * @return The generation counter
+     */
+    static AtomicLong generation(Properties properties, String scope) {
+        String database;
+        String type = properties.getProperty("connection_type");
+        if ("file".equals(type) && properties.getProperty("path") != null)
+            database = "file:" + new File(properties.getProperty("path")).getAbsolutePath();
+        else if ("remote".equals(type))
+            database = "remote:" + properties.getProperty("host", "localhost") + ":" + properties.getProperty("port", "50000") + "/" + properties.getProperty("database", "test");
+        else
+            database = "memory:";
+        return GENERATIONS.computeIfAbsent(scope + "|" + database, k -> new AtomicLong());
+    }
+
+    /**
+     * Creates the result cache of a connection.
+     *
+     * @param generation Generation counter of the connection's database, see {@link #generation(Properties, String)}
+     * @param limit Maximum size of the cached results, in MB
+     * @return The result cache, or null if the limit is not positive
+     */
+    static MonetResultCache create(AtomicLong generation, int limit) {
+        if (limit <= 0)
+            return null;
+        return new MonetResultCache(limit * 1024L * 1024L, generation);
+    }
+
+    /**
+     * Checks whether an SQL statement is a query which does not write to the database, which is the case for SELECT
+     * and WITH statements. Leading white space, comments and parentheses are skipped.
+     *
+     * @param sql SQL text
+     * @return true if the statement is a query
+     */
+    static boolean isQuery(String sql) {
+        int i = skipPrefix(sql);
+        return startsWithWord(sql, i, "select") || startsWithWord(sql, i, "with");
+    }
+
+    /**
+     * Checks whether an SQL statement only changes data, which is the case for INSERT, UPDATE, DELETE, MERGE, TRUNCATE
+     * and COPY statements. Other statements which are not queries may change the catalog.
+     *
+     * @param sql SQL text
+     * @return true if the statement manipulates data
+     */
+    static boolean isDataManipulation(String sql) {
+        int i = skipPrefix(sql);
+        for (String word : new String[] {"insert", "update", "delete", "merge", "truncate", "copy"}) {
+            if (startsWithWord(sql, i, word))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skips the leading white space, comments and parentheses of an SQL statement.
+     *
+     * @param sql SQL text
+     * @return Offset of the statement's first word
+     */
+    private static int skipPrefix(String sql) {
+        int i = 0, n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? n : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean startsWithWord(String sql, int offset, String word) {
+        int end = offset + word.length();
+        return sql.regionMatches(true, offset, word, 0, word.length())
+                && (end == sql.length() || !Character.isLetterOrDigit(sql.charAt(end)) && sql.charAt(end) != '_');
+    }
+
+    /**
+     * Normalizes the SQL text of a query, so that queries which only differ in white space or trailing semicolons
+     * share their cached result. Runs of white space outside of quoted literals and identifiers are replaced by a single
+     * space, and white space and semicolons at both ends are removed. Letter case is kept.
+     *
+     * @param sql SQL text
+     * @return The normalized SQL text
+     */
+    static String normalize(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && sb.length() > 0)
+                sb.append(' ');
+            space = false;
+            sb.append(c);
+            if (quote == 0 && (c == '\'' || c == '"'))
+                quote = c;
+            else if (c == quote)
+                quote = 0;
+        }
+        int end = sb.length();
+        while (end > 0 && (sb.charAt(end - 1) == ';' || sb.charAt(end - 1) == ' '))
+            end--;
+        sb.setLength(end);
+        return sb.toString();
+    }
+
+    /**
+     * Creates the key of a query result. Parameters are copied, as the caller may change them afterwards.
+     *
+     * @param sql SQL text of the query
+     * @param schema Schema set on the connection, or null for the user's default schema
+     * @param maxRows Maximum number of rows of the result, 0 if unlimited
+     * @param parameters Bound parameters, or null if the query has none
+     * @return The key, or null if the statement is not a query or one of the parameters has a type which is not cached
+     */
+    static Key key(String sql, String schema, int maxRows, Object[] parameters) {
+        if (sql == null || !isQuery(sql))
+            return null;
+        Object[] copy = null;
+        if (parameters != null) {
+            copy = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                Object p = parameters[i];
+                if (p instanceof byte[])
+                    copy[i] = ((byte[]) p).clone();
+                else if (p instanceof java.util.Date)
+                    copy[i] = ((java.util.Date) p).clone();
+                else if (p == null || p instanceof String || p instanceof Boolean || p instanceof Byte || p instanceof Short
+                        || p instanceof Integer || p instanceof Long || p instanceof Float || p instanceof Double
+                        || p instanceof BigDecimal || p instanceof BigInteger || p instanceof java.time.temporal.TemporalAccessor)
+                    copy[i] = p;
+                else
+                    return null;
+            }
+        }
+        return new Key(normalize(sql), schema, maxRows, copy);
+    }
+
+    /**
+     * Returns the current generation of the database, to be passed to {@link #store} for a query executed afterwards.
+     *
+     * @return Current generation
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Looks up a cached result. Results read before the last write to the database are removed.
+     *
+     * @param key Key of the query
+     * @return The cached result, or null if it is not cached
+     */
+    Entry get(Key key) {
+        long current = generation.get();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.generation != current) {
+                clear();
+                entry = null;
+            }
+            if (entry != null)
+                hits.incrementAndGet();
+            else
+                misses.incrementAndGet();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Converts the whole result of a query to Java memory and caches it, if it fits in the cache and there was no write
+     * to the database since the query started. The result set then no longer holds a native result.
+     * The least recently used results are removed to make room for it.
+     *
+     * @param key Key of the query
+     * @param queryGeneration Generation of the database before the query was executed
+     * @param rs Result set of the query
+     * @return true if the result set was converted to Java memory (which is also the case if it could not be cached
+     *         after all), false if it still holds its native result
+     */
+    boolean store(Key key, long queryGeneration, MonetResultSet rs) {
+        MonetColumn[] columns;
+        MonetResultSetMetaData metaData;
+        try {
+            if (rs.isClosed() || rs.isCached() || generation.get() != queryGeneration || rs.estimateSize() > maxBytes)
+                return false;
+            columns = rs.materialize();
+            metaData = (MonetResultSetMetaData) rs.getMetaData();
+        } catch (SQLException e) {
+            //The result set keeps reading its native result
+            return rs.isCached();
+        }
+        long bytes = 0;
+        for (MonetColumn column : columns)
+            bytes += column.estimateSize(rs.getRowCount());
+        if (bytes > maxBytes)
+            return true;
+        Entry entry = new Entry(columns, metaData, rs.getRowCount(), rs.getName(), bytes, queryGeneration);
+        lock.lock();
+        try {
+            //Checked while holding the lock, as invalidate() clears the map after changing the generation
+            if (generation.get() != queryGeneration)
+                return true;
+            Entry previous = entries.put(key, entry);
+            if (previous != null)
+                usedBytes -= previous.bytes;
+            usedBytes += bytes;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (usedBytes > maxBytes) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                usedBytes -= evicted.bytes;
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Invalidates the cached results of all connections to the database, called after a statement which may have
+     * written to it. The results of this connection are removed immediately, those of other connections when they are
+     * next looked up.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        lock.lock();
+        try {
+            clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all results, must be called while holding the lock.
+     */
+    private void clear() {
+        evictions.addAndGet(entries.size());
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+}
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Map;
 
@@ -28,11 +29,13 @@ import java.util.Map;
  * Values can be retrieved using either the index number of the column or the name of the column.
  * In general, using the column index will be more efficient. Columns are numbered from 1.
  */
-public class MonetResultSet extends MonetWrapper implements ResultSet {
+public class MonetResultSet extends MonetWrapper implements ResultSet, MonetColumnarResult {
     /** This result set's parent statement object */
     private final MonetStatement statement;
     /** The pointer to the C result set object */
     private ByteBuffer nativeResult;
+    /** The database session the result was created in */
+    private final MonetSessionPool.Session session;
     /** Metadata object containing info about this result set */
     private MonetResultSetMetaData metaData;
     /** Number of rows in result */
@@ -41,8 +44,15 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
     private final int nColumns;
     /** Current cursor position */
     private int curRow;
-    /** Result columns */
+    /** Result columns (only the rows of the current window when streaming with a fetch size).
+     * Columns are converted on first access, so a null entry is a column which was not read in the current window */
     private MonetColumn[] columns;
+    /** MonetDBe types of the result columns */
+    private int[] monetdbeTypes;
+    /** Row (starting at 0) of the result at which the current window of columns starts */
+    private int windowOffset = 0;
+    /** Number of result rows held in the current window of columns */
+    private int windowRows;
     /** Result set name */
     private String name;
     /** The stack of warnings for this Statement object */
@@ -52,16 +62,27 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
     /** Whether this result set is closed */
     private boolean closed = false;
 
-    //Ignored
+    /** Result set type, TYPE_FORWARD_ONLY or TYPE_SCROLL_INSENSITIVE (set by the parent statement) */
     private int resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-    private int concurrency = ResultSet.CONCUR_READ_ONLY;
+    /** Fetch direction hint, used to place the window of rows when it moves */
     private int fetchDirection = ResultSet.FETCH_UNKNOWN;
+    //Ignored
+    private int concurrency = ResultSet.CONCUR_READ_ONLY;
     private int resultSetHoldability = ResultSet.HOLD_CURSORS_OVER_COMMIT;
     private int fetchSize;
 
     /**
      * Result constructor, called from native function returnResult().
      *
+     * Only the column descriptions are read here; the Java column of a result column is created the first time one of
+     * its values is read. If the parent statement has a fetch size smaller than the number of rows, only a window of
+     * fetch size rows is held in Java memory at a time. The window slides as the cursor moves, so the Java memory use
+     * is bounded by the fetch size instead of the size of the result.
+     *
+     * Note that the native conversion is still eager: monetdbe has no call which describes a result column without
+     * fetching it, so reading the descriptions makes MonetDB convert every column of the whole result (strings and
+     * temporal values included) into its native representation, which it keeps until the result is cleaned up.
+     *
      * @param statement Parent statement object
      * @param nativeResult Pointer to C result set
      * @param nRows Number of rows
@@ -72,35 +93,409 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
     MonetResultSet(MonetStatement statement, ByteBuffer nativeResult, int nRows, int nColumns, String name, int maxRows) {
         this.statement = statement;
         this.nativeResult = nativeResult;
+        //The statement may return its session before this result set is closed, so keep it for the cleanup
+        this.session = statement.session;
         this.nColumns = nColumns;
         this.curRow = 0;
-        this.columns = MonetNative.monetdbe_result_fetch_all(nativeResult,nRows,nColumns);
-        this.metaData = new MonetResultSetMetaData(columns, nColumns);
+        try {
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.resultSetType = statement.getResultSetType();
+        } catch (SQLException e) {
+            this.fetchSize = 0;
+        }
+        if (maxRows != 0 && maxRows < nRows) {
+            this.nRows = maxRows;
+        }
+        else {
+            this.nRows = nRows;
+        }
+        if (fetchSize > 0 && fetchSize < this.nRows) {
+            this.windowRows = fetchSize;
+        }
+        else {
+            this.windowRows = this.nRows;
+        }
+        this.columns = new MonetColumn[nColumns];
+
+        //Empty window, used to retrieve the names and types of the columns without creating their Java data
+        //(MonetDB still converts every column natively when it is fetched)
+        MonetColumn[] descriptions;
+        String fetchError = "ResultSet fetch error";
+        try {
+            descriptions = callNative(() -> MonetNative.monetdbe_result_fetch_rows(nativeResult,0,0,nColumns));
+        } catch (SQLException e) {
+            descriptions = null;
+            fetchError += ": " + e.getMessage();
+        }
 
         //Failed fetch, destroy resultset
-        if (this.columns == null) {
-            System.out.println("ResultSet fetch error");
+        if (descriptions == null) {
+            System.out.println(fetchError);
             try {
                 this.close();
             } catch (SQLException e) {
                 e.printStackTrace();
             }
         }
+        else {
+            this.metaData = new MonetResultSetMetaData(descriptions, nColumns);
+            this.monetdbeTypes = new int[nColumns];
+            for (int i = 0; i < nColumns; i++) {
+                monetdbeTypes[i] = descriptions[i].getMonetdbeType();
+            }
+        }
 
         this.name = name;
+    }
 
-        if (maxRows != 0 && maxRows < nRows) {
-            this.nRows = maxRows;
+    /**
+     * Result constructor for results taken from the connection's {@link MonetResultCache}. The result set reads the
+     * cached columns, which are in Java memory, and does not hold a native result or session.
+     *
+     * @param statement Parent statement object
+     * @param entry Cached result
+     */
+    MonetResultSet(MonetStatement statement, MonetResultCache.Entry entry) {
+        this.statement = statement;
+        this.nativeResult = null;
+        this.session = null;
+        this.nRows = entry.nRows;
+        this.nColumns = entry.columns.length;
+        this.curRow = 0;
+        try {
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.resultSetType = statement.getResultSetType();
+        } catch (SQLException e) {
+            this.fetchSize = 0;
         }
-        else {
-            this.nRows = nRows;
+        //All rows are in memory, so the window never moves
+        this.windowRows = nRows;
+        this.columns = entry.columns.clone();
+        this.metaData = entry.metaData;
+        this.monetdbeTypes = new int[nColumns];
+        for (int i = 0; i < nColumns; i++) {
+            monetdbeTypes[i] = columns[i].getMonetdbeType();
+        }
+        this.name = entry.name;
+    }
+
+    /**
+     * Returns whether this result set reads columns in Java memory instead of a native result, because it was taken
+     * from the result cache or stored in it.
+     *
+     * @return true if the result set does not hold a native result
+     */
+    boolean isCached() {
+        return nativeResult == null;
+    }
+
+    /**
+     * Returns the name of the result.
+     *
+     * @return Result name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Estimates the memory used by the whole result once converted, counting 8 bytes for variable length values.
+     *
+     * @return Estimated size in bytes
+     */
+    long estimateSize() {
+        long rowSize = 0;
+        for (int type : monetdbeTypes) {
+            rowSize += Math.max(MonetTypes.getMonetSize(type), 8);
         }
+        return rowSize * nRows;
+    }
+
+    /**
+     * Converts all rows of the result to Java memory and frees the native result, after which the result set reads
+     * the converted columns. Used to store the result in the connection's {@link MonetResultCache}, and to release
+     * the statement's session when the connection's auto-commit mode changes.
+     *
+     * @return The converted columns, which must not be modified
+     * @throws SQLException if the result could not be fetched from the native result
+     */
+    MonetColumn[] materialize() throws SQLException {
+        checkNotClosed();
+        MonetColumn[] converted = new MonetColumn[nColumns];
+        if (nColumns > 0) {
+            MonetColumn[] whole = callNative(() -> MonetNative.monetdbe_result_fetch_rows(nativeResult,0,nRows,nColumns));
+            if (whole == null) {
+                throw new SQLException("ResultSet fetch error", "M1M05");
+            }
+            for (int i = 0; i < nColumns; i++) {
+                converted[i] = whole[i].copyRows(0, nRows);
+            }
+        }
+        cleanupNativeResult();
+        this.nativeResult = null;
+        this.columns = converted.clone();
+        this.windowOffset = 0;
+        this.windowRows = nRows;
+        return converted;
+    }
+
+    /**
+     * Frees the native result in its session.
+     *
+     * @throws SQLException if the result could not be freed
+     */
+    private void cleanupNativeResult() throws SQLException {
+        String error_msg = callNative(() -> MonetNative.monetdbe_result_cleanup(session != null ? session.db : null,nativeResult));
+        if (error_msg != null)
+            throw new SQLException(error_msg);
+    }
+
+    /**
+     * Runs a native call on the result while holding the lock of its session, as the session may be shared by
+     * statements executing on other threads (see {@link MonetStatement#executeNative(MonetStatement.NativeExecution)}).
+     *
+     * @param call Native call
+     * @param <T> Type of the returned value
+     * @return The value returned by the call
+     * @throws SQLException if the native call failed with an error of MonetDB
+     */
+    private <T> T callNative(NativeCall<T> call) throws SQLException {
+        if (session == null)
+            return call.run();
+        session.lock.lock();
+        try {
+            return call.run();
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * A native call on the result, which may fail with an error of MonetDB.
+     */
+    private interface NativeCall<T> {
+        T run() throws SQLException;
     }
 
     public int getRowsNumber() {
         return nRows;
     }
 
+    /**
+     * Returns the number of rows in each of the result columns, for columnar access through {@link MonetColumnarResult}.
+     *
+     * @return Number of rows
+     */
+    @Override
+    public int getRowCount() {
+        return nRows;
+    }
+
+    /**
+     * Publishes the rows of this result as batches of at most batchSize rows, which are only converted from the
+     * native result when the subscriber requests them. This avoids converting the whole result before
+     * passing it downstream. The result set must stay open while it is being published, and it is not closed
+     * when the last batch was emitted.
+     *
+     * @param batchSize Maximum number of rows per batch
+     * @return A publisher of the result's batches, which can be subscribed to once
+     * @throws SQLException if the batchSize is not positive or the result set is closed
+     */
+    public MonetBatchPublisher publishBatches(int batchSize) throws SQLException {
+        checkNotClosed();
+        if (batchSize <= 0)
+            throw new SQLException("batchSize must be positive", "M1M05");
+        return new MonetBatchPublisher(this, batchSize);
+    }
+
+    /**
+     * Converts a batch of rows from the native result, independently of the cursor's window of rows.
+     *
+     * @param offset First row (starting at 0) of the batch
+     * @param batchSize Maximum number of rows in the batch
+     * @return the converted batch
+     * @throws SQLException if the result set is closed or the rows could not be fetched from the native result
+     */
+    MonetColumnBatch fetchBatch(int offset, int batchSize) throws SQLException {
+        checkNotClosed();
+        int rows = Math.min(batchSize, nRows - offset);
+        if (nativeResult == null) {
+            MonetColumn[] batch = new MonetColumn[nColumns];
+            for (int i = 0; i < nColumns; i++) {
+                batch[i] = columns[i].copyRows(offset, rows);
+            }
+            return new MonetColumnBatch(batch, offset, rows);
+        }
+        MonetColumn[] batch = callNative(() -> MonetNative.monetdbe_result_fetch_rows(nativeResult,offset,rows,nColumns));
+        if (batch == null) {
+            throw new SQLException("ResultSet fetch error", "M1M05");
+        }
+        return new MonetColumnBatch(batch, offset, rows);
+    }
+
+    /**
+     * Returns the designated column covering all rows of the result, for columnar access.
+     * When the result is streamed in windows of rows, the whole column is converted separately from the current window.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @param types MonetDBe types supported by the caller
+     * @return the converted result column
+     * @throws SQLException if the columnIndex is not valid, the column has another type or the result set is closed
+     */
+    private MonetColumn wholeColumn(int columnIndex, int... types) throws SQLException {
+        checkNotClosed();
+        if (columnIndex < 1 || columnIndex > nColumns) {
+            throw new SQLException("columnIndex out of bounds");
+        }
+        boolean supported = types.length == 0;
+        for (int type : types) {
+            supported |= monetdbeTypes[columnIndex-1] == type;
+        }
+        if (!supported) {
+            throw new SQLException("Column " + columnIndex + " of type " + metaData.getColumnTypeName(columnIndex) + " cannot be retrieved as this buffer type", "M1M05");
+        }
+        if (windowOffset == 0 && windowRows == nRows) {
+            return windowColumn(columnIndex);
+        }
+        MonetColumn column = callNative(() -> MonetNative.monetdbe_result_fetch_column(nativeResult,columnIndex-1,0,nRows));
+        if (column == null) {
+            throw new SQLException("ResultSet fetch error", "M1M05");
+        }
+        return column;
+    }
+
+    @Override
+    public ByteBuffer getByteColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 0, 1).getByteBuffer();
+    }
+
+    @Override
+    public ShortBuffer getShortColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 2).getShortBuffer();
+    }
+
+    @Override
+    public IntBuffer getIntColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 3).getIntBuffer();
+    }
+
+    @Override
+    public LongBuffer getLongColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 4).getLongBuffer();
+    }
+
+    @Override
+    public FloatBuffer getFloatColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 7).getFloatBuffer();
+    }
+
+    @Override
+    public DoubleBuffer getDoubleColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 8).getDoubleBuffer();
+    }
+
+    @Override
+    public IntBuffer getDateColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 11).getIntBuffer();
+    }
+
+    @Override
+    public LongBuffer getTimeColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 12).getLongBuffer();
+    }
+
+    @Override
+    public LongBuffer getTimestampColumn(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex, 13).getLongBuffer();
+    }
+
+    @Override
+    public MonetStringColumn getStringColumn(int columnIndex) throws SQLException {
+        checkNotClosed();
+        if (columnIndex < 1 || columnIndex > nColumns) {
+            throw new SQLException("columnIndex out of bounds");
+        }
+        if (monetdbeTypes[columnIndex-1] != 9) {
+            throw new SQLException("Column " + columnIndex + " of type " + metaData.getColumnTypeName(columnIndex) + " cannot be retrieved as a string column", "M1M05");
+        }
+        if (nativeResult == null) {
+            return MonetStringColumn.of(columns[columnIndex-1], nRows);
+        }
+        MonetStringColumn column = callNative(() -> MonetNative.monetdbe_result_fetch_string_column(nativeResult,columnIndex-1,0,nRows));
+        if (column == null) {
+            throw new SQLException("ResultSet fetch error", "M1M05");
+        }
+        return column;
+    }
+
+    @Override
+    public BitSet getNulls(int columnIndex) throws SQLException {
+        return wholeColumn(columnIndex).getNulls(nRows);
+    }
+
+    /**
+     * Returns the designated column for a row read through the indexed accessors, without moving the cursor.
+     * If the row is outside of the current window of rows, the window is moved to contain it.
+     *
+     * @param row Row of the result (starts at 0)
+     * @param columnIndex Column index (starts at 1)
+     * @return the converted column of the window containing the row
+     * @throws SQLException if the row or columnIndex is not valid or the result set is closed
+     */
+    private MonetColumn columnAt(int row, int columnIndex) throws SQLException {
+        checkNotClosed();
+        if (row < 0 || row >= nRows) {
+            throw new SQLException("row out of bounds", "M1M05");
+        }
+        if (columnIndex < 1 || columnIndex > nColumns) {
+            throw new SQLException("columnIndex out of bounds", "M1M05");
+        }
+        if (row < windowOffset || row >= windowOffset + windowRows) {
+            moveWindow(row);
+        }
+        return windowColumn(columnIndex);
+    }
+
+    @Override
+    public boolean isNull(int row, int columnIndex) throws SQLException {
+        return columnAt(row, columnIndex).isNull(row - windowOffset);
+    }
+
+    @Override
+    public Object getObject(int row, int columnIndex) throws SQLException {
+        MonetColumn column = columnAt(row, columnIndex);
+        if (column.isNull(row - windowOffset))
+            return null;
+        if (column.getScale() > 0)
+            return column.getBigDecimal(row - windowOffset);
+        return column.getObject(row - windowOffset);
+    }
+
+    @Override
+    public int getInt(int row, int columnIndex) throws SQLException {
+        MonetColumn column = columnAt(row, columnIndex);
+        return column.isNull(row - windowOffset) ? 0 : column.getIntValue(row - windowOffset);
+    }
+
+    @Override
+    public long getLong(int row, int columnIndex) throws SQLException {
+        MonetColumn column = columnAt(row, columnIndex);
+        return column.isNull(row - windowOffset) ? 0 : column.getLongValue(row - windowOffset);
+    }
+
+    @Override
+    public double getDouble(int row, int columnIndex) throws SQLException {
+        MonetColumn column = columnAt(row, columnIndex);
+        return column.isNull(row - windowOffset) ? 0 : column.getDoubleValue(row - windowOffset);
+    }
+
+    @Override
+    public String getString(int row, int columnIndex) throws SQLException {
+        return columnAt(row, columnIndex).getString(row - windowOffset);
+    }
+
     public int getColumnsNumber() {
         return nColumns;
     }
@@ -121,7 +516,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (columnIndex > nColumns) {
             throw new SQLException("columnIndex is not valid");
         }
-        int type = columns[columnIndex-1].getMonetdbeType();
+        int type = monetdbeTypes[columnIndex-1];
         switch (type) {
             case 0:
                 return getBoolean(columnIndex);
@@ -177,7 +572,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
             return getObject(columnIndex);
         }
 
-        int monetdbeType = columns[columnIndex-1].getMonetdbeType();
+        int monetdbeType = monetdbeTypes[columnIndex-1];
         String sqlDefaultType = MonetTypes.getSQLTypeNameFromMonet(monetdbeType);
         Class<?> convertClass;
 
@@ -224,7 +619,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
             throw new SQLException("columnIndex is not valid");
         }
 
-        int monetdbeType = columns[columnIndex-1].getMonetdbeType();
+        int monetdbeType = monetdbeTypes[columnIndex-1];
         if (MonetTypes.convertTojavaClass(monetdbeType,type)) {
             Object defaultValue = getObject(columnIndex);
             return type.cast(defaultValue);
@@ -244,18 +639,10 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
     @Override
     public int findColumn(String columnLabel) throws SQLException {
         checkNotClosed();
-        String[] names = metaData.getNames();
         if (columnLabel != null) {
-            final int array_size = names.length;
-            for (int i = 0; i < array_size; i++) {
-                if (columnLabel.equals(names[i]))
-                    return i + 1;
-            }
-            /* if an exact match did not succeed try a case insensitive match */
-            for (int i = 0; i < array_size; i++) {
-                if (columnLabel.equalsIgnoreCase(names[i]))
-                    return i + 1;
-            }
+            int column = metaData.findColumn(columnLabel);
+            if (column > 0)
+                return column;
         }
         throw new SQLException("No such column name: " + columnLabel, "M1M05");
     }
@@ -273,7 +660,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            String val = columns[columnIndex-1].getString(curRow-1);
+            String val = column(columnIndex).getString(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -304,9 +691,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Boolean val = columns[columnIndex-1].getBoolean(curRow-1);
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
+                lastReadWasNull = true;
+                return false;
+            }
             lastReadWasNull = false;
-            return val;
+            return column.getBooleanValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -325,13 +716,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Byte val = columns[columnIndex-1].getByte(curRow-1);
-            if (val == null) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getByteValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -350,13 +741,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Short val = columns[columnIndex-1].getShort(curRow-1);
-            if (val == null) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getShortValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -375,13 +766,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Integer val = columns[columnIndex-1].getInt(curRow-1);
-            if (val == null) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getIntValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -400,13 +791,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Long val = columns[columnIndex-1].getLong(curRow-1);
-            if (val == null) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getLongValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -425,13 +816,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Float val = columns[columnIndex-1].getFloat(curRow-1);
-            if (val.isNaN()) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getFloatValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -450,13 +841,13 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Double val = columns[columnIndex-1].getDouble(curRow-1);
-            if (val.isNaN()) {
+            MonetColumn column = column(columnIndex);
+            if (column.isNull(curRow-1-windowOffset)) {
                 lastReadWasNull = true;
                 return 0;
             }
             lastReadWasNull = false;
-            return val;
+            return column.getDoubleValue(curRow-1-windowOffset);
         } catch (IndexOutOfBoundsException e) {
             throw new SQLException("columnIndex out of bounds");
         }
@@ -476,7 +867,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            byte[] val = columns[columnIndex-1].getBytes(curRow-1);
+            byte[] val = column(columnIndex).getBytes(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -501,7 +892,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            BigDecimal val = columns[columnIndex-1].getBigDecimal(curRow-1);
+            BigDecimal val = column(columnIndex).getBigDecimal(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -525,7 +916,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            BigInteger val = columns[columnIndex-1].getBigInteger(curRow-1);
+            BigInteger val = column(columnIndex).getBigInteger(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return BigInteger.ZERO;
@@ -550,7 +941,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            LocalDate val = columns[columnIndex-1].getLocalDate(curRow-1);
+            LocalDate val = column(columnIndex).getLocalDate(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -599,7 +990,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            LocalTime val = columns[columnIndex-1].getLocalTime(curRow-1);
+            LocalTime val = column(columnIndex).getLocalTime(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -649,7 +1040,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            LocalDateTime val = columns[columnIndex-1].getLocalDateTime(curRow-1);
+            LocalDateTime val = column(columnIndex).getLocalDateTime(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -697,7 +1088,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            MonetBlob val = columns[columnIndex-1].getBlob(curRow-1);
+            MonetBlob val = column(columnIndex).getBlob(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -722,7 +1113,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            String val = columns[columnIndex-1].getString(curRow-1);
+            String val = column(columnIndex).getString(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -747,7 +1138,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            String val = columns[columnIndex-1].getString(curRow-1);
+            String val = column(columnIndex).getString(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -775,7 +1166,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            Blob val = columns[columnIndex-1].getBlob(curRow-1);
+            Blob val = column(columnIndex).getBlob(curRow-1-windowOffset);
             if (val == null)
                 return null;
             return val.getBinaryStream();
@@ -797,7 +1188,7 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
         if (curRow <= 0 || curRow > nRows)
             throw new SQLException("Current row " + curRow + " does not support operation");
         try {
-            String val = columns[columnIndex-1].getString(curRow-1);
+            String val = column(columnIndex).getString(curRow-1-windowOffset);
             if (val == null) {
                 lastReadWasNull = true;
                 return null;
@@ -885,11 +1276,12 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
     public void close() throws SQLException {
         if (isClosed())
             return;
-        String error_msg = MonetNative.monetdbe_result_cleanup(((MonetConnection)this.statement.getConnection()).getDatabasePointer(),nativeResult);
-        if (error_msg != null)
-            throw new SQLException(error_msg);
+        if (nativeResult != null) {
+            cleanupNativeResult();
+        }
         this.closed = true;
         this.columns = null;
+        statement.releaseIdleSession(null);
         statement.closeIfComplete();
     }
 
@@ -933,10 +1325,18 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
             throw new SQLException("(Absolute) positioning not allowed on forward " +
                     " only result sets!", "M1M05");
         }
-        if (row < 0) {
-            row = nRows + row + 1;
-        }
-        else if (row == 0) {
+        return moveCursor(row < 0 ? nRows + row + 1 : row);
+    }
+
+    /**
+     * Moves the cursor to the given row, before the first row if it is not positive or after the last row if it is
+     * larger than the number of rows. Only the window of rows moves when the row is outside of it, so this is O(1).
+     *
+     * @param row Row number (starting at 1)
+     * @return true if the cursor is on a row; false if it is before the first row or after the last row
+     */
+    private boolean moveCursor(int row) {
+        if (row <= 0) {
             curRow = 0;    // before first
             return false;
         }
@@ -945,9 +1345,68 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
             return false;
         }
         curRow = row;
+        if (curRow - 1 < windowOffset || curRow - 1 >= windowOffset + windowRows) {
+            moveWindow(curRow - 1);
+        }
         return true;
     }
 
+    /**
+     * Moves the window of rows so that it contains the given row, discarding the columns converted for the current window.
+     * The window holds fetch size rows (or all remaining rows if the fetch size is 0). When the fetch direction
+     * is ResultSet.FETCH_REVERSE, or the row is before the current window, the window ends at the given row
+     * instead of starting at it, so that scrolling backwards converts each row once.
+     *
+     * @param row Row (starting at 0) which must be contained in the new window
+     */
+    private void moveWindow(int row) {
+        int size = fetchSize > 0 ? fetchSize : nRows;
+        int offset = row;
+        if (fetchDirection == ResultSet.FETCH_REVERSE || row < windowOffset) {
+            offset = Math.max(0, row - size + 1);
+        }
+        this.columns = new MonetColumn[nColumns];
+        this.windowOffset = offset;
+        this.windowRows = Math.min(size, nRows - offset);
+    }
+
+    /**
+     * Returns the designated column for the window of rows containing the cursor, moving the window back to the cursor
+     * if it was moved by one of the indexed accessors.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return the converted result column
+     * @throws SQLException if the column could not be fetched from the native result
+     * @throws IndexOutOfBoundsException if the columnIndex is not valid
+     */
+    private MonetColumn column(int columnIndex) throws SQLException {
+        if (curRow > 0 && curRow <= nRows && (curRow - 1 < windowOffset || curRow - 1 >= windowOffset + windowRows)) {
+            moveWindow(curRow - 1);
+        }
+        return windowColumn(columnIndex);
+    }
+
+    /**
+     * Returns the designated column for the current window of rows, converting it from the native result
+     * if it was not accessed before in this window.
+     *
+     * @param columnIndex Column index (starts at 1)
+     * @return the converted result column
+     * @throws SQLException if the column could not be fetched from the native result
+     * @throws IndexOutOfBoundsException if the columnIndex is not valid
+     */
+    private MonetColumn windowColumn(int columnIndex) throws SQLException {
+        MonetColumn column = columns[columnIndex-1];
+        if (column == null) {
+            column = callNative(() -> MonetNative.monetdbe_result_fetch_column(nativeResult,columnIndex-1,windowOffset,windowRows));
+            if (column == null) {
+                throw new SQLException("ResultSet fetch error", "M1M05");
+            }
+            columns[columnIndex-1] = column;
+        }
+        return column;
+    }
+
     /**
      * Moves the cursor a relative number of rows, either positive or negative.
      * Attempting to move beyond the first/last row in the result set positions the cursor
@@ -961,7 +1420,12 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
      */
     @Override
     public boolean relative(final int rows) throws SQLException {
-        return absolute(curRow + rows);
+        checkNotClosed();
+        if (resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
+            throw new SQLException("(Relative) positioning not allowed on forward " +
+                    " only result sets!", "M1M05");
+        }
+        return moveCursor(curRow + rows);
     }
 
 
@@ -975,11 +1439,12 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
      * Any invocation of a ResultSet method which requires a current row will result in a SQLException being thrown.
      *
      * @return     true if the new current row is valid; false if there are no more rows
-     * @throws SQLException if this method is called on a closed result set or the result set type is TYPE_FORWARD_ONLY
+     * @throws SQLException if this method is called on a closed result set
      */
     @Override
     public boolean next() throws SQLException {
-        return relative(1);
+        checkNotClosed();
+        return moveCursor(curRow + 1);
     }
 
     /**
@@ -1193,22 +1658,24 @@ public class MonetResultSet extends MonetWrapper implements ResultSet {
      * The default value is set by the Statement object that created the result set.
      * The fetch size may be changed at any time.
      *
-     * Not used currently.
+     * A positive fetch size is the number of rows converted from the native result each time the cursor
+     * moves outside of the current window of rows. The new value is used from the next window onwards.
      *
      * @param rows the number of rows to fetch
-     * @throws SQLException if this method is called on a closed result set
+     * @throws SQLException if this method is called on a closed result set or the condition rows &gt;= 0 is not satisfied
      */
     @Override
     public void setFetchSize(int rows) throws SQLException {
         checkNotClosed();
+        if (rows < 0) {
+            throw new SQLException("Illegal fetch size value: " + rows, "M1M05");
+        }
         this.fetchSize = rows;
     }
 
     /**
      * Retrieves the fetch size for this ResultSet object.
      *
-     * Not used currently.
-     *
      * @return the current fetch size for this ResultSet object
      * @throws SQLException if this method is called on a closed result set
      */
@@ -4,6 +4,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Types;
+import java.util.HashMap;
 
 /**
  * A {@link ResultSetMetaData} suitable for the MonetDB embedded database.
@@ -23,6 +24,28 @@ public class MonetResultSetMetaData extends MonetWrapper implements ResultSetMet
     private final int[] precisions;
     /** Scale for numerical values */
     private final int[] scales;
+    /** Column indexes by name, built on the first lookup through {@link #findColumn(String)} */
+    private volatile ColumnIndex columnIndex;
+
+    /**
+     * Hash index from column names to their indexes, exact and case-insensitive. Where several columns have the same
+     * name, the first one is found.
+     */
+    private static final class ColumnIndex {
+        private final HashMap<String, Integer> exact;
+        private final HashMap<String, Integer> folded;
+
+        private ColumnIndex(String[] names) {
+            exact = new HashMap<>(names.length * 2);
+            folded = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    exact.putIfAbsent(names[i], i + 1);
+                    folded.putIfAbsent(foldCase(names[i]), i + 1);
+                }
+            }
+        }
+    }
 
     //Constructor for PreparedStatement without query execution
     MonetResultSetMetaData(int ncols, String[] resultMonetGDKTypes, String[] resultNames, int[] precisions, int[] scales) {
@@ -63,7 +86,7 @@ public class MonetResultSetMetaData extends MonetWrapper implements ResultSetMet
     }
 
     /**
-     * Returns the column names of the ResultSet. Used for {@link MonetResultSet#findColumn(String) findColumn(String)}.
+     * Returns the column names of the ResultSet.
      *
      * @return Array of Strings with column names.
      */
@@ -71,6 +94,36 @@ public class MonetResultSetMetaData extends MonetWrapper implements ResultSetMet
         return names;
     }
 
+    /**
+     * Maps a column label to its column index, preferring an exact match over a case-insensitive one
+     * (as {@link String#equalsIgnoreCase(String)}). Used for {@link MonetResultSet#findColumn(String) findColumn(String)},
+     * the index is built once and shared by all result sets with this metadata.
+     *
+     * @param columnLabel Column label
+     * @return Column index (starts at 1), or 0 if no column has the label
+     */
+    int findColumn(String columnLabel) {
+        ColumnIndex index = columnIndex;
+        if (index == null) {
+            index = new ColumnIndex(names);
+            columnIndex = index;
+        }
+        Integer column = index.exact.get(columnLabel);
+        if (column == null)
+            column = index.folded.get(foldCase(columnLabel));
+        return column != null ? column : 0;
+    }
+
+    /**
+     * Folds the case of a column name the same way {@link String#equalsIgnoreCase(String)} compares characters.
+     */
+    private static String foldCase(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        return new String(chars);
+    }
+
     /**
      * Returns the number of columns in this ResultSet object.
      *
@@ -0,0 +1,141 @@
+package org.monetdb.monetdbe;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A native session of a {@link MonetConnection}, leased for a logical unit of work instead of being bound to a thread.
+ * Retrieved through {@link MonetConnection#lease()}.
+ *
+ * Statements created through the lease all run in the leased session, so session state such as temporary tables
+ * and session variables is kept between them. The lease may be handed from thread to thread, which suits
+ * virtual threads: tens of thousands of them can take turns on the few sessions of the connection's pool,
+ * parking while they wait for a lease. A lease must not be used by several threads at the same time.
+ *
+ * While auto-commit is disabled, the lease owns the session of the connection's transaction instead of borrowing one.
+ * Only one lease at a time owns it, {@link MonetConnection#lease()} waits until the lease holding it is closed.
+ *
+ * Closing the lease closes its statements and returns the session to the connection's pool.
+ * <pre>{@code
+ * try (MonetSessionLease lease = conn.unwrap(MonetConnection.class).lease();
+ *      Statement st = lease.createStatement()) {
+ *     st.executeUpdate("CREATE LOCAL TEMPORARY TABLE t (i INT) ON COMMIT PRESERVE ROWS;");
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class MonetSessionLease implements AutoCloseable {
+    /** The connection the session belongs to */
+    private final MonetConnection conn;
+    /** The leased session */
+    private final MonetSessionPool.Session session;
+    /** Whether the session was borrowed from the pool, false if it is the connection's shared transaction session */
+    private final boolean borrowed;
+    /** The statements created through this lease */
+    private final List<MonetStatement> statements;
+    /** If the lease is closed */
+    private volatile boolean closed;
+
+    /**
+     * Leases a session of the connection, waiting for one if all of them are in use.
+     *
+     * @param conn The connection to lease a session from
+     * @throws SQLException if the connection is closed or no session is available
+     */
+    MonetSessionLease(MonetConnection conn) throws SQLException {
+        this.conn = conn;
+        MonetSessionPool.Session transactionSession = conn.getTransactionSession();
+        this.borrowed = transactionSession == null;
+        this.session = borrowed ? conn.borrowSession() : transactionSession;
+        this.statements = new ArrayList<>();
+    }
+
+    /**
+     * Returns the leased session, used by the statements created through this lease.
+     *
+     * @return The leased session
+     * @throws SQLException if the lease is closed
+     */
+    MonetSessionPool.Session getSession() throws SQLException {
+        checkNotClosed();
+        return session;
+    }
+
+    /**
+     * Helper method to test whether the lease is closed
+     * When closed, it throws an SQLException
+     *
+     * @throws SQLException if the lease is closed
+     */
+    private void checkNotClosed() throws SQLException {
+        if (closed)
+            throw new SQLException("Session lease is closed", "M1M20");
+    }
+
+    /**
+     * Creates a Statement object which runs in the leased session.
+     *
+     * @return A new Statement object
+     * @throws SQLException if the lease or its connection is closed
+     */
+    public Statement createStatement() throws SQLException {
+        checkNotClosed();
+        MonetStatement s = conn.createStatement(this);
+        statements.add(s);
+        return s;
+    }
+
+    /**
+     * Creates a PreparedStatement object, prepared in and running in the leased session.
+     *
+     * @param sql an SQL statement that may contain one or more '?' IN parameter placeholders
+     * @return A new PreparedStatement object containing the pre-compiled SQL statement
+     * @throws SQLException if the lease or its connection is closed
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        checkNotClosed();
+        MonetPreparedStatement s = conn.prepareStatement(sql, this);
+        statements.add(s);
+        return s;
+    }
+
+    /**
+     * Retrieves whether this lease has been closed.
+     *
+     * @return true if the lease is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the statements created through this lease and returns the session to the connection's pool.
+     * Calling close on a lease that is already closed has no effect.
+     *
+     * @throws SQLException if closing one of the statements failed
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed)
+            return;
+        SQLException error = null;
+        for (MonetStatement s : statements) {
+            try {
+                s.close();
+            } catch (SQLException e) {
+                if (error == null)
+                    error = e;
+            }
+        }
+        statements.clear();
+        closed = true;
+        if (borrowed)
+            conn.releaseSession(session);
+        conn.leaseClosed(!borrowed);
+        if (error != null)
+            throw error;
+    }
+}
@@ -0,0 +1,279 @@
+package org.monetdb.monetdbe;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of the native sessions (monetdbe_database handles) of a {@link MonetConnection}.
+ *
+ * Sessions are borrowed by statements for as long as they need them and returned afterwards, from any thread.
+ * The number of native sessions therefore follows the number of statements running at the same time,
+ * not the number of threads which used the connection. The primary session is opened together with the
+ * connection and stays open until the pool is closed, other sessions are closed once they have been idle
+ * for longer than the idle timeout. Idle sessions are evicted when sessions are borrowed or returned.
+ *
+ * The pool uses a {@link ReentrantLock} instead of synchronized blocks, so that virtual threads waiting for a
+ * session park without pinning their carrier thread. Many virtual threads can therefore share a small pool,
+ * with at most one carrier thread per session pinned in native calls.
+ */
+final class MonetSessionPool {
+    /**
+     * A native session of the pool.
+     */
+    static final class Session {
+        /** The pointer to the C database object */
+        final ByteBuffer db;
+        /** Schema set in this session, null while it uses the default schema */
+        String schema;
+        /** When this session was last returned to the pool (System.nanoTime()) */
+        long lastUsed;
+        /** MonetDB's id of this session (as listed in sys.queue()), used to stop its queries; -1 if it is not known */
+        int sessionId = -1;
+        /** Serializes the native calls in this session while it is shared, see {@link MonetConnection#getTransactionSession()} */
+        final ReentrantLock lock = new ReentrantLock();
+
+        Session(ByteBuffer db) {
+            this.db = db;
+        }
+    }
+
+    /**
+     * Opens new native sessions for the pool.
+     */
+    interface Opener {
+        /**
+         * Opens a new native session.
+         *
+         * @return The new session
+         * @throws SQLException if a database connection error occurs
+         */
+        Session open() throws SQLException;
+    }
+
+    /** Opens the sessions of this pool */
+    private final Opener opener;
+    /** Called before a session is closed, to free what the connection keeps in it */
+    private final Consumer<Session> beforeClose;
+    /** Maximum number of open sessions, including the primary session */
+    private final int maxSessions;
+    /** Time in nanoseconds after which idle sessions are closed, 0 to keep them open */
+    private final long idleTimeout;
+    /** Time in nanoseconds to wait for a session when all of them are in use, 0 to wait without limit */
+    private final long waitTimeout;
+    /** The session opened with the pool, which is never evicted */
+    private final Session primary;
+    /** Idle sessions, the most recently returned one first */
+    private final ArrayDeque<Session> idle;
+    /** Number of open sessions, both idle and borrowed */
+    private int open;
+    /** If the pool is closed */
+    private boolean closed;
+    /** Guards the state of the pool */
+    private final ReentrantLock lock;
+    /** Signalled when a session is returned or a slot becomes free */
+    private final Condition available;
+
+    /**
+     * Creates a pool and opens its primary session.
+     *
+     * @param opener Opens the sessions of this pool
+     * @param beforeClose Called before a session is closed
+     * @param maxSessions Maximum number of open sessions (at least 1)
+     * @param idleTimeout Seconds after which idle sessions are closed, 0 to keep them open
+     * @param waitTimeout Seconds to wait for a session when all of them are in use, 0 to wait without limit
+     * @throws SQLException if the primary session could not be opened
+     */
+    MonetSessionPool(Opener opener, Consumer<Session> beforeClose, int maxSessions, int idleTimeout, int waitTimeout) throws SQLException {
+        this.opener = opener;
+        this.beforeClose = beforeClose;
+        this.maxSessions = Math.max(maxSessions, 1);
+        this.idleTimeout = TimeUnit.SECONDS.toNanos(Math.max(idleTimeout, 0));
+        this.waitTimeout = TimeUnit.SECONDS.toNanos(Math.max(waitTimeout, 0));
+        this.idle = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        this.available = lock.newCondition();
+        this.primary = opener.open();
+        this.primary.lastUsed = System.nanoTime();
+        this.idle.addFirst(primary);
+        this.open = 1;
+    }
+
+    /**
+     * Borrows a session. Idle sessions are reused, the most recently returned one first. If there are
+     * none, a new session is opened while the pool is below its maximum size, otherwise the calling thread
+     * waits for another session to be returned.
+     *
+     * @return A session, which must be returned through {@link #release(Session)}
+     * @throws SQLException if the pool is closed, no session was returned in time or opening a session failed
+     */
+    Session borrow() throws SQLException {
+        List<Session> evicted = null;
+        Session session = null;
+        lock.lock();
+        try {
+            //Close the expired sessions first instead of reusing them, so that an idle pool shrinks
+            evicted = evictIdle(System.nanoTime());
+            long remaining = waitTimeout;
+            while (true) {
+                if (closed)
+                    throw new SQLException("Connection is closed", "M1M20");
+                if (!idle.isEmpty()) {
+                    session = idle.pollFirst();
+                    break;
+                }
+                if (open < maxSessions) {
+                    //Reserve the slot, the session is opened outside of the lock
+                    open++;
+                    break;
+                }
+                try {
+                    if (waitTimeout == 0) {
+                        available.await();
+                    } else {
+                        if (remaining <= 0)
+                            throw new SQLException("Timeout waiting for a free session, all " + maxSessions + " sessions are in use", "HYT00");
+                        remaining = available.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a free session", "HY008", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+            closeSessions(evicted);
+        }
+        if (session != null)
+            return session;
+
+        try {
+            return opener.open();
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                open--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed session to the pool, or closes it if the pool was closed in the meantime.
+     *
+     * @param session Borrowed session
+     */
+    void release(Session session) {
+        List<Session> evicted;
+        lock.lock();
+        try {
+            if (closed) {
+                open--;
+                evicted = new ArrayList<>(1);
+                evicted.add(session);
+            } else {
+                session.lastUsed = System.nanoTime();
+                idle.addFirst(session);
+                evicted = evictIdle(session.lastUsed);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeSessions(evicted);
+    }
+
+    /**
+     * Returns the number of open native sessions, both idle and borrowed.
+     *
+     * @return Number of open sessions
+     */
+    int getOpenSessions() {
+        lock.lock();
+        try {
+            return open;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle sessions and marks the pool as closed. Sessions which are still borrowed
+     * are closed when they are returned.
+     *
+     * @throws SQLException if closing one of the sessions failed
+     */
+    void close() throws SQLException {
+        List<Session> sessions;
+        lock.lock();
+        try {
+            if (closed)
+                return;
+            closed = true;
+            sessions = new ArrayList<>(idle);
+            open -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        String error_msg = closeSessions(sessions);
+        if (error_msg != null)
+            throw new SQLException(error_msg);
+    }
+
+    /**
+     * Removes the sessions which have been idle for longer than the idle timeout, oldest first.
+     * Must be called while holding the pool's lock.
+     *
+     * @param now Current System.nanoTime()
+     * @return The removed sessions, to be closed outside of the lock
+     */
+    private List<Session> evictIdle(long now) {
+        List<Session> evicted = null;
+        if (idleTimeout == 0)
+            return null;
+        for (Iterator<Session> it = idle.descendingIterator(); it.hasNext(); ) {
+            Session s = it.next();
+            if (now - s.lastUsed <= idleTimeout)
+                break;
+            if (s == primary)
+                continue;
+            it.remove();
+            open--;
+            if (evicted == null)
+                evicted = new ArrayList<>();
+            evicted.add(s);
+        }
+        return evicted;
+    }
+
+    /**
+     * Closes native sessions.
+     *
+     * @param sessions Sessions to close, may be null
+     * @return The first error message, or null if all sessions were closed
+     */
+    private String closeSessions(List<Session> sessions) {
+        String first_error = null;
+        if (sessions == null)
+            return null;
+        for (Session s : sessions) {
+            beforeClose.accept(s);
+            String error_msg = MonetNative.monetdbe_close(s.db);
+            if (error_msg != null && first_error == null)
+                first_error = error_msg;
+        }
+        return first_error;
+    }
+}
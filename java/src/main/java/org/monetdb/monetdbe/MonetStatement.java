@@ -1,8 +1,13 @@
 package org.monetdb.monetdbe;
 
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * A {@link Statement} suitable for the MonetDB embedded database.
@@ -41,12 +46,38 @@ public class MonetStatement extends MonetWrapper implements Statement {
     /** Maximum number of rows to fetch for resultset for executeLarge methods */
     //This one isn't used right now
     private long largeMaxRows = 0;
-    //These ones are ignored
     private int fetchSize;
     private int fetchDirection = ResultSet.FETCH_UNKNOWN;
+    /** Type of the result sets, TYPE_FORWARD_ONLY or TYPE_SCROLL_INSENSITIVE */
     private int resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+    //These ones are ignored
     private int resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
     private int resultSetHoldability = ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    /** Native session this statement runs in, null while it has none */
+    MonetSessionPool.Session session;
+    /** Whether the session was borrowed from the connection's pool (and must be returned to it) */
+    private boolean sessionBorrowed;
+    /** Session lease this statement runs in, null if it borrows sessions from the connection */
+    MonetSessionLease lease;
+    /** Session of the native call in progress, null while no query is executing */
+    private volatile MonetSessionPool.Session executingSession;
+    /** Number of native calls started, to tell the call in progress apart from later ones */
+    private volatile long executions;
+    /** Whether the native call in progress was stopped by cancel() */
+    private volatile boolean cancelled;
+    /** Whether the native call in progress was stopped because the query timeout expired */
+    private volatile boolean timedOut;
+
+    /**
+     * A native call which executes a query in the statement's session.
+     */
+    interface NativeExecution {
+        /**
+         * @param db C pointer to the database session
+         * @return The error message, or null if the execution succeeded
+         */
+        String run(ByteBuffer db);
+    }
 
     /**
      * Default MonetStatement constructor.
@@ -109,6 +140,241 @@ public class MonetStatement extends MonetWrapper implements Statement {
             throw new SQLException("Statement is closed", "M1M20");
     }
 
+    /**
+     * Retrieves the C pointer to the database session this statement runs in.
+     * If the statement has no session yet, it uses the session of its lease, or otherwise borrows one from the
+     * connection or shares the connection's primary session while auto-commit is disabled.
+     * Used in ResultSet, Statement and PreparedStatement
+     *
+     * @return C pointer to the database
+     * @throws SQLException if the connection or lease is closed or no session is available
+     */
+    protected ByteBuffer getDatabasePointer() throws SQLException {
+        if (session == null && lease != null) {
+            session = lease.getSession();
+            sessionBorrowed = false;
+        }
+        else if (session == null) {
+            session = conn.getTransactionSession();
+            sessionBorrowed = session == null;
+            if (sessionBorrowed)
+                session = conn.borrowSession();
+        }
+        return session.db;
+    }
+
+    /**
+     * Runs a native call in the statement's session, so that it can be stopped through {@link #cancel()}.
+     * If a query timeout is set, the call is stopped when it expires. The call holds the session's lock, as the
+     * transaction session is shared by the statements of the connection and their asynchronous queries.
+     *
+     * @param execution Native call
+     * @return The error message of the call, or null if it succeeded
+     * @throws SQLException if no session could be obtained
+     */
+    protected String executeNative(NativeExecution execution) throws SQLException {
+        ByteBuffer db = getDatabasePointer();
+        cancelled = false;
+        timedOut = false;
+        executions++;
+        MonetSessionPool.Session running = session;
+        running.lock.lock();
+        ScheduledFuture<?> timeout = null;
+        try {
+            executingSession = running;
+            timeout = queryTimeout > 0 ? MonetQueryWatchdog.schedule(this, queryTimeout) : null;
+            return execution.run(db);
+        } finally {
+            executingSession = null;
+            if (timeout != null)
+                timeout.cancel(false);
+            running.lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the exception for a failed native call, which is an SQLTimeoutException if the query timeout expired.
+     *
+     * @param error_msg Error message of the call
+     * @return The exception to throw
+     */
+    protected SQLException executionError(String error_msg) {
+        if (timedOut)
+            return new SQLTimeoutException("Query timeout of " + queryTimeout + " seconds expired: " + error_msg, "HYT00");
+        if (cancelled)
+            return new SQLException("Query was cancelled: " + error_msg, "HY008");
+        return new SQLException(error_msg);
+    }
+
+    /**
+     * Stops the query running in a session, if this statement is still executing it.
+     *
+     * @param running Session of the native call in progress
+     * @throws SQLException if the query could not be stopped
+     */
+    private void stopQuery(final MonetSessionPool.Session running) throws SQLException {
+        final long execution = executions;
+        conn.cancelQuery(running, () -> executingSession == running && executions == execution);
+    }
+
+    /**
+     * Stops the running query when the query timeout expires, called by the {@link MonetQueryWatchdog}.
+     */
+    void timeout() {
+        MonetSessionPool.Session running = executingSession;
+        if (running == null)
+            return;
+        timedOut = true;
+        try {
+            stopQuery(running);
+        } catch (SQLException e) {
+            //The query runs until it finishes
+        }
+    }
+
+    /**
+     * Returns the statement's session to the connection, if it was borrowed.
+     */
+    protected void releaseSession() {
+        if (session != null && sessionBorrowed)
+            conn.releaseSession(session);
+        session = null;
+        sessionBorrowed = false;
+    }
+
+    /**
+     * Releases the statement's session when the connection's auto-commit mode changes, as the session then belongs
+     * to the other mode: sessions borrowed in auto-commit mode don't take part in the transaction, and the
+     * transaction session is returned to the pool when auto-commit is enabled again. An open result set is first
+     * converted to Java memory. Statements running in a session lease keep their session.
+     *
+     * @throws SQLException if the statement is executing or its result set could not be converted
+     */
+    void detachSession() throws SQLException {
+        if (lease != null || session == null)
+            return;
+        if (executingSession != null)
+            throw new SQLException("The auto-commit mode cannot be changed while a statement is executing");
+        if (holdsNativeResult(resultSet))
+            resultSet.materialize();
+        releaseSession();
+    }
+
+    /**
+     * Returns the statement's session to the connection if it is no longer needed, which is the case
+     * when there is no open result set.
+     *
+     * @param lastResultSet Result set replaced by the last execution, which may still be open
+     * @throws SQLException if a database access error occurs
+     */
+    protected void releaseIdleSession(MonetResultSet lastResultSet) throws SQLException {
+        if (holdsNativeResult(resultSet) || holdsNativeResult(lastResultSet))
+            return;
+        releaseSession();
+    }
+
+    private static boolean holdsNativeResult(MonetResultSet rs) throws SQLException {
+        return rs != null && !rs.isClosed() && !rs.isCached();
+    }
+
+    /**
+     * Returns the key of a query in the connection's result cache.
+     * Statements running in a session lease don't use the cache, as their queries may depend on session state.
+     *
+     * @param sql SQL text of the query
+     * @param parameters Bound parameters, or null if the query has none
+     * @return The key, or null if the query's result is not cached
+     * @throws SQLException if this method is called on a closed Statement
+     */
+    protected MonetResultCache.Key resultCacheKey(String sql, Object[] parameters) throws SQLException {
+        if (lease != null)
+            return null;
+        return conn.resultCacheKey(sql, getMaxRows(), parameters);
+    }
+
+    /**
+     * Sets the cached result of a query as the current result set, if the connection's result cache holds it.
+     *
+     * @param key Key of the query, or null if its result is not cached
+     * @param lastResultSet Result set replaced by this execution, which may still be open
+     * @return true if the cached result was used, false if the query must be executed
+     * @throws SQLException if a database access error occurs
+     */
+    protected boolean executeFromCache(MonetResultCache.Key key, MonetResultSet lastResultSet) throws SQLException {
+        if (key == null)
+            return false;
+        MonetResultCache.Entry entry = conn.getResultCache().get(key);
+        if (entry == null)
+            return false;
+        this.resultSet = new MonetResultSet(this, entry);
+        this.updateCount = -1;
+        this.largeUpdateCount = -1;
+        releaseIdleSession(lastResultSet);
+        return true;
+    }
+
+    /**
+     * Keeps the connection's result cache consistent after an execution: the result of a cacheable query is stored,
+     * and the cache is invalidated after any other statement, as it may have written to the database.
+     * Failed queries leave the cache unchanged. The connection's catalog cache is invalidated after statements which
+     * may have changed the catalog.
+     *
+     * @param sql SQL text of the executed statement
+     * @param key Key of the query, or null if its result is not cached
+     * @param generation Generation of the database before the execution, see {@link MonetResultCache#getGeneration()}
+     * @param failed Whether the execution failed
+     * @param lastResultSet Result set replaced by this execution, which may still be open
+     * @throws SQLException if the result could not be converted to be cached
+     */
+    protected void updateResultCache(String sql, MonetResultCache.Key key, long generation, boolean failed, MonetResultSet lastResultSet) throws SQLException {
+        if (!failed && (sql == null || !MonetResultCache.isQuery(sql) && !MonetResultCache.isDataManipulation(sql)))
+            conn.invalidateMetaDataCache();
+        MonetResultCache cache = conn.getResultCache();
+        if (sql == null || !MonetResultCache.isQuery(sql) || (!failed && resultSet == null))
+            conn.invalidateResultCache();
+        else if (cache != null && key != null && !failed && cache.store(key, generation, resultSet))
+            releaseIdleSession(lastResultSet);
+    }
+
+    /**
+     * Returns the generation of the database before an execution, to be passed to
+     * {@link #updateResultCache(String, MonetResultCache.Key, long, boolean, MonetResultSet)}.
+     *
+     * @return The database's generation, 0 if the connection has no result cache
+     */
+    protected long resultCacheGeneration() {
+        MonetResultCache cache = conn.getResultCache();
+        return cache != null ? cache.getGeneration() : 0;
+    }
+
+    /**
+     * Executes a catalog query of {@link MonetDatabaseMetaData}, answering it from the connection's catalog cache
+     * when possible. The result of an executed query is stored in the cache.
+     *
+     * @param sql Catalog query
+     * @return The result set of the query
+     * @throws SQLException if a database access error occurs or this method is called on a closed Statement
+     */
+    ResultSet executeMetaDataQuery(String sql) throws SQLException {
+        MonetResultCache cache = conn.getMetaDataCache();
+        MonetResultCache.Key key = conn.metaDataCacheKey(sql);
+        if (key == null)
+            return executeQuery(sql);
+        checkNotClosed();
+        MonetResultCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            this.resultSet = new MonetResultSet(this, entry);
+            this.updateCount = -1;
+            this.largeUpdateCount = -1;
+            return resultSet;
+        }
+        long generation = cache.getGeneration();
+        ResultSet rs = executeQuery(sql);
+        if (cache.store(key, generation, resultSet))
+            releaseIdleSession(null);
+        return rs;
+    }
+
     //Close
     /**
      * Releases this Statement object's database and JDBC resources immediately
@@ -131,24 +397,30 @@ public class MonetStatement extends MonetWrapper implements Statement {
         if (resultSet != null && !resultSet.isClosed()) {
             resultSet.close();
         }
-        //If called on a PreparedStatement object, it should free the prepared statement in the database
-        if (this instanceof MonetPreparedStatement) {
-            //This check is here in case the Prepared Statement was not successful in the prepare stage
-            if (((MonetPreparedStatement) this).statementNative != null) {
-                MonetNative.monetdbe_cleanup_statement(conn.getDatabasePointer(),((MonetPreparedStatement) this).statementNative);
-            }
-        }
+        //A PreparedStatement returns its native statement to the connection's cache along with the session
+        releaseSession();
+        conn.removeStatement(this);
         this.closed = true;
     }
 
     /**
-     * This feature is not currently supported.
+     * Cancels this Statement object if both the DBMS and driver support aborting an SQL statement.
+     * This method can be used by one thread to cancel a statement that is being executed by another thread.
      *
-     * @throws SQLFeatureNotSupportedException This feature is not supported
+     * The query is stopped through MonetDB's query monitor (sys.queue() and sys.stop()), after which the executing
+     * method throws an SQLException with SQLState HY008. Nothing happens if the statement is not executing.
+     *
+     * @throws SQLException if this method is called on a closed Statement or the query could not be stopped
+     * @throws SQLFeatureNotSupportedException if the id of the native session could not be determined
      */
     @Override
     public void cancel() throws SQLException {
-        throw new SQLFeatureNotSupportedException("cancel()");
+        checkNotClosed();
+        MonetSessionPool.Session running = executingSession;
+        if (running == null)
+            return;
+        cancelled = true;
+        stopQuery(running);
     }
 
     /**
@@ -223,24 +495,33 @@ public class MonetStatement extends MonetWrapper implements Statement {
 
         int lastUpdateCount = this.updateCount;
         MonetResultSet lastResultSet = this.resultSet;
+        MonetResultCache.Key key = resultCacheKey(sql, null);
+        if (executeFromCache(key, lastResultSet))
+            return true;
+        long generation = resultCacheGeneration();
         this.resultSet = null;
         this.updateCount = -1;
 
         //ResultSet and UpdateCount is set within monetdbe_query
-        String error_msg = MonetNative.monetdbe_query(conn.getDatabasePointer(),sql,this,false, getMaxRows());
+        final int limit = getMaxRows();
+        String error_msg = executeNative(db -> MonetNative.monetdbe_query(db,sql,this,false, limit));
+        updateResultCache(sql, key, generation, error_msg != null, lastResultSet);
         if (error_msg != null) {
             this.updateCount = lastUpdateCount;
             this.resultSet = lastResultSet;
-            throw new SQLException(error_msg);
+            releaseIdleSession(null);
+            throw executionError(error_msg);
         }
         else if (this.resultSet!=null) {
             return true;
         }
         //Data manipulation and data definition queries
         else if (this.updateCount >= 0){
+            releaseIdleSession(lastResultSet);
             return false;
         }
         else {
+            releaseIdleSession(lastResultSet);
             throw new SQLException("Error in monetdbe_query");
         }
     }
@@ -265,6 +546,49 @@ public class MonetStatement extends MonetWrapper implements Statement {
         return getResultSet();
     }
 
+    /**
+     * Executes the given SQL query asynchronously, on the executor of the parent connection
+     * (see {@link MonetConnection#setAsyncExecutor(java.util.concurrent.Executor)}). The query runs in a
+     * native session borrowed from the connection's pool, like any other execution of this statement. While auto-commit
+     * is disabled, the queries run one at a time in the connection's transaction session.
+     *
+     * The statement must not be used until the returned future is completed. Cancelling the future
+     * does not abort a query which is already running.
+     *
+     * @param sql an SQL statement to be sent to the database, typically a static SQL SELECT statement
+     * @return a future completed with the ResultSet produced by the query, or completed exceptionally
+     *         with the SQLException executeQuery() would throw
+     * @throws SQLException if this method is called on a closed Statement or its connection is closed
+     */
+    public CompletableFuture<ResultSet> executeAsync(final String sql) throws SQLException {
+        checkNotClosed();
+        return runAsync(() -> executeQuery(sql));
+    }
+
+    /**
+     * Runs a task on the executor of the parent connection.
+     *
+     * @param task The task to run
+     * @param <T> The type of the task's result
+     * @return a future completed with the result of the task, or exceptionally with its exception
+     * @throws SQLException if the connection is closed
+     */
+    protected <T> CompletableFuture<T> runAsync(final Callable<T> task) throws SQLException {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            conn.getAsyncExecutor().execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("Asynchronous query rejected by the executor", "HY000", e));
+        }
+        return future;
+    }
+
     /**
      * Executes the given SQL statement, which may be an INSERT, UPDATE, or
      * DELETE statement or an SQL statement that returns nothing, such as an
@@ -312,16 +636,20 @@ public class MonetStatement extends MonetWrapper implements Statement {
         this.largeUpdateCount = -1;
 
         //ResultSet and UpdateCount is set within monetdbe_query
-        String error_msg = MonetNative.monetdbe_query(conn.getDatabasePointer(),sql,this, true, getMaxRows());
+        final int limit = getMaxRows();
+        String error_msg = executeNative(db -> MonetNative.monetdbe_query(db,sql,this, true, limit));
+        updateResultCache(sql, null, 0, error_msg != null, lastResultSet);
         if (error_msg != null) {
             this.largeUpdateCount = lastUpdateCount;
             this.resultSet = lastResultSet;
-            throw new SQLException(error_msg);
+            releaseIdleSession(null);
+            throw executionError(error_msg);
         }
         else if (this.resultSet!=null) {
             throw new SQLException("Query produced a result set", "M1M17");
         }
         else {
+            releaseIdleSession(lastResultSet);
             return getLargeUpdateCount();
         }
     }
@@ -499,9 +827,7 @@ public class MonetStatement extends MonetWrapper implements Statement {
 
     /**
      * Retrieves the number of seconds the driver will wait for a Statement object to execute.
-     * If the limit is exceeded, a SQLException is thrown.
-     *
-     * The current version of the driver does not support query timeout, so this limit will have no effect on query execution.
+     * If the limit is exceeded, an SQLTimeoutException is thrown.
      *
      * @return the current query timeout limit in seconds; zero means there is no limit
      * @throws SQLException if this method is called on a closed Statement
@@ -519,7 +845,8 @@ public class MonetStatement extends MonetWrapper implements Statement {
      *
      * The driver must apply this limit to the execute, executeQuery and executeUpdate methods.
      *
-     * The current version of the driver does not support query timeout, so this limit will have no effect on query execution.
+     * The limit applies to each native call separately, which for executeBatch is one call per batched query
+     * (or one for all rows of a prepared statement batch). When it expires, the query is stopped as by {@link #cancel()}.
      *
      * @param seconds the new query timeout limit in seconds; zero means there is no limit
      * @throws SQLException if this method is called on a closed Statement or the condition seconds &gt;= 0 is not satisfied
@@ -664,6 +991,15 @@ public class MonetStatement extends MonetWrapper implements Statement {
         return resultSetType;
     }
 
+    /**
+     * Sets the type of the ResultSet objects generated by this Statement object (called from MonetConnection).
+     *
+     * @param resultSetType ResultSet.TYPE_FORWARD_ONLY or ResultSet.TYPE_SCROLL_INSENSITIVE
+     */
+    void setResultSetType(int resultSetType) {
+        this.resultSetType = resultSetType;
+    }
+
     /**
      * Retrieves the Connection object that produced this Statement object.
      *
@@ -0,0 +1,267 @@
+package org.monetdb.monetdbe;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of the native prepared statements (monetdbe_statement handles) of a {@link MonetConnection},
+ * keyed by native session and SQL text.
+ *
+ * A {@link MonetPreparedStatement} only holds a session while it executes, so whenever it releases its session
+ * (after an execution or when it is closed) its native statement is kept in the cache instead of being freed,
+ * together with the parameter and result descriptions returned by monetdbe_prepare(). Executing or preparing the same
+ * SQL text in the same session takes it from the cache again, skipping monetdbe_prepare(). A cached statement is only
+ * used by one PreparedStatement at a time.
+ *
+ * Statements prepared while the session used another schema are not reused. Neither are statements prepared before
+ * the catalog changed, as their parameter and result descriptions may be outdated: the cache shares the catalog
+ * generation counter of the connection's {@link MonetResultCache}s, which is incremented by schema changes, commits
+ * and rollbacks through any connection to the database. Changes made through this connection also free the idle
+ * statements of all its sessions right away.
+ * Each session keeps at most maxSize idle statements, the least recently used one is freed when another one is added.
+ * Statements are only freed in the session of the caller (which holds it) or in sessions which are being closed,
+ * so that the cache never calls into a session used by another thread.
+ */
+final class MonetStatementCache {
+    /**
+     * A prepared native statement, with the values set by monetdbe_prepare().
+     */
+    static final class Entry {
+        final MonetSessionPool.Session session;
+        /** Schema of the session when the statement was prepared, as names in the SQL text resolve to it */
+        final String schema;
+        /** Catalog generation before the statement was prepared */
+        final long generation;
+        final String sql;
+        final ByteBuffer statementNative;
+        final int nParams;
+        final int[] monetdbeTypes;
+        final String[] paramMonetGDKTypes;
+        final int[] digitsInput;
+        final int[] scaleInput;
+        final int nCols;
+        final String[] resultMonetGDKTypes;
+        final String[] resultNames;
+        final int[] digitsOutput;
+        final int[] scaleOutput;
+        /** PreparedStatement whose parameters were last bound in the statement, only accessed by the session's holder */
+        MonetPreparedStatement boundBy;
+
+        /**
+         * Records the values set by monetdbe_prepare() in a prepared statement.
+         *
+         * @param session Session the statement was prepared in
+         * @param sql Prepared SQL text
+         * @param ps Prepared statement, right after monetdbe_prepare()
+         * @param generation Catalog generation before monetdbe_prepare() was called, see {@link #getGeneration()}
+         */
+        Entry(MonetSessionPool.Session session, String sql, MonetPreparedStatement ps, long generation) {
+            this.session = session;
+            this.schema = session.schema;
+            this.generation = generation;
+            this.sql = sql;
+            this.statementNative = ps.statementNative;
+            this.nParams = ps.nParams;
+            this.monetdbeTypes = ps.monetdbeTypes;
+            this.paramMonetGDKTypes = ps.paramMonetGDKTypes;
+            this.digitsInput = ps.digitsInput;
+            this.scaleInput = ps.scaleInput;
+            this.nCols = ps.nCols;
+            this.resultMonetGDKTypes = ps.resultMonetGDKTypes;
+            this.resultNames = ps.resultNames;
+            this.digitsOutput = ps.digitsOutput;
+            this.scaleOutput = ps.scaleOutput;
+        }
+
+        /**
+         * Sets the recorded values in a new prepared statement, as monetdbe_prepare() would.
+         *
+         * @param ps New prepared statement
+         */
+        void restore(MonetPreparedStatement ps) {
+            ps.statementNative = statementNative;
+            ps.nParams = nParams;
+            ps.monetdbeTypes = monetdbeTypes;
+            ps.paramMonetGDKTypes = paramMonetGDKTypes;
+            ps.digitsInput = digitsInput;
+            ps.scaleInput = scaleInput;
+            ps.nCols = nCols;
+            ps.resultMonetGDKTypes = resultMonetGDKTypes;
+            ps.resultNames = resultNames;
+            ps.digitsOutput = digitsOutput;
+            ps.scaleOutput = scaleOutput;
+        }
+    }
+
+    /** Maximum number of idle statements per session, 0 disables the cache */
+    private final int maxSize;
+    /** Catalog generation counter of the database, shared with the catalog caches of its connections */
+    private final AtomicLong generation;
+    /** Idle statements of each session by SQL text, the least recently used one first */
+    private final Map<MonetSessionPool.Session, LinkedHashMap<String, Entry>> sessions;
+    /** Guards the maps */
+    private final ReentrantLock lock;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize Maximum number of idle statements per session, 0 disables the cache
+     * @param generation Catalog generation counter of the database
+     */
+    MonetStatementCache(int maxSize, AtomicLong generation) {
+        this.maxSize = Math.max(maxSize, 0);
+        this.generation = generation;
+        this.sessions = new HashMap<>();
+        this.lock = new ReentrantLock();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Takes the cached statement for an SQL text out of the cache, so that it is used by a single PreparedStatement.
+     *
+     * @param session Session to prepare the statement in
+     * @param sql SQL text to prepare
+     * @return The cached statement, or null if it has to be prepared
+     */
+    Entry take(MonetSessionPool.Session session, String sql) {
+        if (maxSize == 0)
+            return null;
+        Entry entry = null;
+        lock.lock();
+        try {
+            LinkedHashMap<String, Entry> statements = sessions.get(session);
+            if (statements != null)
+                entry = statements.remove(sql);
+        } finally {
+            lock.unlock();
+        }
+        //Prepared for another schema or catalog, the caller holds the session so the statement can be freed
+        if (entry != null && (!Objects.equals(entry.schema, session.schema) || entry.generation != generation.get())) {
+            evictions.incrementAndGet();
+            MonetNative.monetdbe_cleanup_statement(session.db, entry.statementNative);
+            entry = null;
+        }
+        if (entry != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Offers the statement of a PreparedStatement releasing its session to the cache. The caller must hold the statement's session.
+     * If the session has too many idle statements, its least recently used one is freed.
+     *
+     * @param entry Statement to cache
+     * @return true if the statement was cached, false if the caller has to free it
+     */
+    boolean offer(Entry entry) {
+        if (maxSize == 0 || entry.generation != generation.get())
+            return false;
+        Entry evicted = null;
+        lock.lock();
+        try {
+            LinkedHashMap<String, Entry> statements = sessions.get(entry.session);
+            if (statements == null) {
+                statements = new LinkedHashMap<>(16, 0.75f, true);
+                sessions.put(entry.session, statements);
+            }
+            //Another PreparedStatement with the same SQL text was closed before, keep that one
+            if (statements.containsKey(entry.sql))
+                return false;
+            statements.put(entry.sql, entry);
+            if (statements.size() > maxSize) {
+                Iterator<Entry> eldest = statements.values().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            evictions.incrementAndGet();
+            MonetNative.monetdbe_cleanup_statement(evicted.session.db, evicted.statementNative);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current catalog generation, to be recorded in the entries of statements prepared afterwards.
+     *
+     * @return The catalog generation
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Frees the idle statements of all sessions after the catalog changed, each one while holding its session's lock
+     * as the session may be in use by another statement. The catalog generation was incremented before, so that
+     * statements which are in use are not cached again.
+     */
+    void invalidate() {
+        List<Entry> removed = new ArrayList<>();
+        lock.lock();
+        try {
+            for (LinkedHashMap<String, Entry> statements : sessions.values())
+                removed.addAll(statements.values());
+            sessions.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : removed) {
+            evictions.incrementAndGet();
+            entry.session.lock.lock();
+            try {
+                MonetNative.monetdbe_cleanup_statement(entry.session.db, entry.statementNative);
+            } finally {
+                entry.session.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Frees the cached statements of a session which is about to be closed.
+     *
+     * @param session Session which is closed
+     */
+    void removeSession(MonetSessionPool.Session session) {
+        List<Entry> removed;
+        lock.lock();
+        try {
+            LinkedHashMap<String, Entry> statements = sessions.remove(session);
+            if (statements == null)
+                return;
+            removed = new ArrayList<>(statements.values());
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : removed)
+            MonetNative.monetdbe_cleanup_statement(session.db, entry.statementNative);
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+}
@@ -0,0 +1,192 @@
+package org.monetdb.monetdbe;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Raw representation of a string result column, retrieved through {@link MonetColumnarResult#getStringColumn(int)}.
+ * All values are stored as UTF-8 in a single buffer, indexed by an offsets array, so no String objects are created
+ * while fetching the column. Strings are only decoded when requested through {@link #getString(int)}, while
+ * {@link #equals(int, byte[])} and {@link #hashCode(int)} work directly on the UTF-8 bytes.
+ */
+public class MonetStringColumn {
+    /** Column name */
+    private final String name;
+    /** UTF-8 bytes of all the non-null values, one after another */
+    private final ByteBuffer data;
+    /** Start of each row in data, followed by the end of the last row (row i spans offsets[i] to offsets[i+1]) */
+    private final int[] offsets;
+    /** Null mask, true at the rows which are null (null if the column has no null values) */
+    private final boolean[] nulls;
+
+    /**
+     * Constructor for raw string columns (called from monetdbe_result_fetch_string_column)
+     *
+     * @param name Column name
+     * @param data UTF-8 bytes of all the values
+     * @param offsets Start of each row in data, followed by the end of the last row
+     * @param nulls Null mask, true at the rows which are null (null if the column has no null values)
+     */
+    MonetStringColumn(String name, ByteBuffer data, int[] offsets, boolean[] nulls) {
+        this.name = name;
+        this.data = data;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Encodes a converted string column, for results which do not hold a native result (see {@link MonetResultCache}).
+     *
+     * @param column String column
+     * @param rows Number of rows in the column
+     * @return The raw string column
+     */
+    static MonetStringColumn of(MonetColumn column, int rows) {
+        byte[][] values = new byte[rows][];
+        boolean[] nulls = null;
+        int[] offsets = new int[rows + 1];
+        for (int row = 0; row < rows; row++) {
+            String value = column.getString(row);
+            if (value == null) {
+                if (nulls == null)
+                    nulls = new boolean[rows];
+                nulls[row] = true;
+                values[row] = new byte[0];
+            } else {
+                values[row] = value.getBytes(StandardCharsets.UTF_8);
+            }
+            offsets[row + 1] = offsets[row] + values[row].length;
+        }
+        ByteBuffer data = ByteBuffer.allocateDirect(offsets[rows]);
+        for (byte[] value : values)
+            data.put(value);
+        data.clear();
+        return new MonetStringColumn(column.getName(), data, offsets, nulls);
+    }
+
+    /**
+     * Returns the name of the column.
+     *
+     * @return Column name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of rows in the column.
+     *
+     * @return Number of rows
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Checks whether the value at a row is NULL.
+     *
+     * @param row Row number (starts at 0)
+     * @return true if the value is NULL
+     */
+    public boolean isNull(int row) {
+        return nulls != null && nulls[row];
+    }
+
+    /**
+     * Returns the length in bytes of the UTF-8 value at a row.
+     *
+     * @param row Row number (starts at 0)
+     * @return Length in bytes, 0 for NULL values
+     */
+    public int byteLength(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the value at a row, without copying.
+     *
+     * @param row Row number (starts at 0)
+     * @return Read-only buffer over the value's bytes, or null if the value is NULL
+     */
+    public ByteBuffer getBytes(int row) {
+        if (isNull(row))
+            return null;
+        ByteBuffer bytes = data.asReadOnlyBuffer();
+        bytes.limit(offsets[row + 1]).position(offsets[row]);
+        return bytes.slice();
+    }
+
+    /**
+     * Decodes the value at a row into a String.
+     *
+     * @param row Row number (starts at 0)
+     * @return Value at the row, or null if the value is NULL
+     */
+    public String getString(int row) {
+        if (isNull(row))
+            return null;
+        byte[] bytes = new byte[byteLength(row)];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = data.get(offsets[row] + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the value at a row with UTF-8 bytes, without decoding the value.
+     *
+     * @param row Row number (starts at 0)
+     * @param utf8 UTF-8 bytes to compare with, or null to check for NULL
+     * @return true if the value has the same bytes, or both are NULL
+     */
+    public boolean equals(int row, byte[] utf8) {
+        if (isNull(row) || utf8 == null)
+            return isNull(row) && utf8 == null;
+        if (utf8.length != byteLength(row))
+            return false;
+        int start = offsets[row];
+        for (int i = 0; i < utf8.length; i++) {
+            if (data.get(start + i) != utf8[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compares the value at a row with the value at a row of another (or the same) string column, without decoding them.
+     *
+     * @param row Row number (starts at 0)
+     * @param other String column to compare with
+     * @param otherRow Row number in the other column (starts at 0)
+     * @return true if both values have the same bytes, or both are NULL
+     */
+    public boolean equals(int row, MonetStringColumn other, int otherRow) {
+        if (isNull(row) || other.isNull(otherRow))
+            return isNull(row) && other.isNull(otherRow);
+        int length = byteLength(row);
+        if (length != other.byteLength(otherRow))
+            return false;
+        int start = offsets[row];
+        int otherStart = other.offsets[otherRow];
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != other.data.get(otherStart + i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of the value at a row, without decoding the value.
+     * Equal values have equal hash codes, also across columns, but the hash differs from {@link String#hashCode()}.
+     *
+     * @param row Row number (starts at 0)
+     * @return Hash code of the value, 0 for NULL values
+     */
+    public int hashCode(int row) {
+        if (isNull(row))
+            return 0;
+        int hash = 1;
+        for (int i = offsets[row]; i < offsets[row + 1]; i++)
+            hash = 31 * hash + data.get(i);
+        return hash;
+    }
+}
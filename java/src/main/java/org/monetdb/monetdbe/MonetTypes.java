@@ -324,6 +324,32 @@ public class MonetTypes {
         sizeMapMonet.put(8, 8);
     }
 
+    /**
+     * Returns the MonetDBe type of a column to be appended, from the class of its Java array or direct buffer.
+     * @param column Java array or buffer with the column data
+     * @return MonetDBe type (int), or -1 if the column class is not supported
+     */
+    protected static int getMonetTypeFromAppendColumn(final Object column) {
+        if (column instanceof boolean[])
+            return 0;
+        else if (column instanceof byte[])
+            return 1;
+        else if (column instanceof short[] || column instanceof java.nio.ShortBuffer)
+            return 2;
+        else if (column instanceof int[] || column instanceof java.nio.IntBuffer)
+            return 3;
+        else if (column instanceof long[] || column instanceof java.nio.LongBuffer)
+            return 4;
+        else if (column instanceof float[] || column instanceof java.nio.FloatBuffer)
+            return 7;
+        else if (column instanceof double[] || column instanceof java.nio.DoubleBuffer)
+            return 8;
+        else if (column instanceof String[])
+            return 9;
+        else
+            return -1;
+    }
+
     //SQL string name to SQL type integer
     static final java.util.Map<String, Integer> typeMapSQLNameToSQLInt = new java.util.HashMap<String, Integer>();
     static {
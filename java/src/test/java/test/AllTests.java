@@ -30,7 +30,15 @@ import org.junit.runners.Suite.SuiteClasses;
 		//Test_14_MultipleResultSet.class,
 		Test_15_Transactions.class, Test_16_MixedOrderStatements.class, Test_17_QueryInThread.class,
 		Test_18_Multithreaded_Connection.class, Test_19_ParameterMetadata.class, Test_20_PreparedResultMetadata.class,
-		Test_21_ConnectionOptions.class, Test_22_GetObject.class})
+		Test_21_ConnectionOptions.class, Test_22_GetObject.class, Test_24_FetchSize.class, Test_25_NullValues.class,
+		Test_26_ColumnarResult.class, Test_27_Append.class,
+		Test_28_ColumnBatch.class, Test_29_LargeResult.class,
+		Test_30_TemporalColumns.class, Test_31_StringColumn.class, Test_32_SessionPool.class,
+		Test_33_SessionLease.class, Test_34_AsyncQuery.class,
+		Test_35_BatchPublisher.class, Test_36_StatementCache.class,
+		Test_37_WideResult.class, Test_38_ScrollableResult.class, Test_39_ResultCache.class, Test_40_QueryCancel.class,
+		Test_41_MetaDataCache.class, Test_42_FindColumn.class,
+		Test_43_StreamedParameters.class})
 public class AllTests {
 
 	protected static final String MEMORY_CONNECTION = "jdbc:monetdb:memory:";
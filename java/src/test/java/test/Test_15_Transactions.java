@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -68,4 +69,52 @@ public class Test_15_Transactions {
 
 		}
 	}
+
+	@Test
+	public void statementsOpenedBeforeTransaction() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::statementsOpenedBeforeTransaction);
+	}
+
+	private void statementsOpenedBeforeTransaction(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test15b (i int);");
+				statement.executeUpdate("INSERT INTO test15b VALUES (1), (2);");
+			}
+
+			// Statements created in auto-commit mode take part in the transaction started afterwards
+			try (Statement statement = conn.createStatement();
+					PreparedStatement ps = conn.prepareStatement("INSERT INTO test15b VALUES (?);")) {
+				ResultSet open = statement.executeQuery("SELECT i FROM test15b ORDER BY i;");
+				assertTrue(open.next());
+
+				conn.setAutoCommit(false);
+				ps.setInt(1, 3);
+				assertEquals(1, ps.executeUpdate());
+				assertEquals(1, statement.executeUpdate("DELETE FROM test15b WHERE i = 1;"));
+				conn.rollback();
+
+				// The result set opened before the transaction is still readable
+				assertEquals(1, open.getInt(1));
+				assertTrue(open.next());
+				assertEquals(2, open.getInt(1));
+				assertFalse(open.next());
+				open.close();
+
+				conn.setAutoCommit(true);
+				try (ResultSet rs = statement.executeQuery("SELECT COUNT(*), SUM(i) FROM test15b;")) {
+					assertTrue(rs.next());
+					assertEquals(2, rs.getInt(1));
+					assertEquals(3, rs.getInt(2));
+				}
+				statement.executeUpdate("DROP TABLE test15b;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
 }
\ No newline at end of file
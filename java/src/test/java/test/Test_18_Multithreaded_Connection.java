@@ -43,7 +43,7 @@ class MultiThreadRun implements Runnable {
             while(rs.next())
                 assertEquals(0,rs.getObject(1));
             assertFalse(rs.next());
-            c.close();
+            stat.close();
         } catch (SQLException e) {
             fail(e.toString());
         }
@@ -0,0 +1,87 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetResultSet;
+
+public class Test_24_FetchSize {
+
+	private static final int ROW_COUNT = 1000;
+
+	@Test
+	public void fetchSize() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::fetchSize);
+	}
+
+	private void fetchSize(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test24 (i INTEGER, s STRING);");
+				statement.executeUpdate("INSERT INTO test24 SELECT value, CASE WHEN value % 10 = 0 THEN NULL ELSE 'row' || value END " +
+						"FROM sys.generate_series(0, " + ROW_COUNT + ");");
+
+				// Result is streamed in windows of 64 rows
+				statement.setFetchSize(64);
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test24 ORDER BY i;")) {
+					assertEquals(ROW_COUNT, ((MonetResultSet) rs).getRowsNumber());
+					assertEquals(64, rs.getFetchSize());
+
+					int expected = 0;
+					while (rs.next()) {
+						assertEquals(expected + 1, rs.getRow());
+						assertEquals(expected, rs.getInt(1));
+						if (expected % 10 == 0)
+							assertNull(rs.getString(2));
+						else
+							assertEquals("row" + expected, rs.getString(2));
+						expected++;
+					}
+					assertEquals(ROW_COUNT, expected);
+
+					// Moving backwards and jumping around the result fetches the windows again
+					assertTrue(rs.absolute(10));
+					assertEquals(9, rs.getInt(1));
+					assertTrue(rs.absolute(-1));
+					assertEquals(ROW_COUNT - 1, rs.getInt(1));
+					assertTrue(rs.previous());
+					assertEquals(ROW_COUNT - 2, rs.getInt(1));
+
+					// Changing the fetch size applies from the next window onwards
+					rs.setFetchSize(500);
+					assertTrue(rs.first());
+					assertEquals(0, rs.getInt(1));
+					assertTrue(rs.absolute(500));
+					assertEquals(499, rs.getInt(1));
+					assertTrue(rs.absolute(501));
+					assertEquals(500, rs.getInt(1));
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test24;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
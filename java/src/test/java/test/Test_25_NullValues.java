@@ -0,0 +1,98 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class Test_25_NullValues {
+
+	@Test
+	public void nullValues() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::nullValues);
+	}
+
+	private void nullValues(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test25 (b BOOLEAN, t TINYINT, sm SMALLINT, i INTEGER, l BIGINT, r REAL, d DOUBLE, dec DECIMAL(10,2));");
+				statement.executeUpdate("INSERT INTO test25 VALUES (true, 1, 2, 3, 4, 5.5, 6.5, 7.25), (NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL), (false, 0, 0, 0, 0, 0, 0, 0);");
+
+				try (ResultSet rs = statement.executeQuery("SELECT * FROM test25;")) {
+					rs.next();
+					assertEquals(true, rs.getBoolean(1));
+					assertFalse(rs.wasNull());
+					assertEquals(1, rs.getByte(2));
+					assertEquals(2, rs.getShort(3));
+					assertEquals(3, rs.getInt(4));
+					assertEquals(4L, rs.getLong(5));
+					assertEquals(5.5f, rs.getFloat(6), 0.01f);
+					assertEquals(6.5d, rs.getDouble(7), 0.01d);
+					assertFalse(rs.wasNull());
+					assertEquals(new BigDecimal("7.25"), rs.getBigDecimal(8));
+
+					// NULL values are returned as 0 (or false) and reported by wasNull()
+					rs.next();
+					assertEquals(false, rs.getBoolean(1));
+					assertTrue(rs.wasNull());
+					assertEquals(0, rs.getByte(2));
+					assertTrue(rs.wasNull());
+					assertEquals(0, rs.getShort(3));
+					assertTrue(rs.wasNull());
+					assertEquals(0, rs.getInt(4));
+					assertTrue(rs.wasNull());
+					assertEquals(0L, rs.getLong(5));
+					assertTrue(rs.wasNull());
+					assertEquals(0f, rs.getFloat(6), 0.01f);
+					assertTrue(rs.wasNull());
+					assertEquals(0d, rs.getDouble(7), 0.01d);
+					assertTrue(rs.wasNull());
+					assertNull(rs.getBigDecimal(8));
+					assertTrue(rs.wasNull());
+					assertNull(rs.getString(4));
+					assertTrue(rs.wasNull());
+					assertNull(rs.getString(7));
+					assertTrue(rs.wasNull());
+
+					// Zero values are not NULL
+					rs.next();
+					assertEquals(false, rs.getBoolean(1));
+					assertFalse(rs.wasNull());
+					assertEquals(0, rs.getInt(4));
+					assertFalse(rs.wasNull());
+					assertEquals(0L, rs.getLong(5));
+					assertFalse(rs.wasNull());
+					assertEquals(0d, rs.getDouble(7), 0.01d);
+					assertFalse(rs.wasNull());
+					assertEquals("0", rs.getString(4));
+					assertFalse(rs.wasNull());
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test25;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
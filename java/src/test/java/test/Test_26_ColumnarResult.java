@@ -0,0 +1,91 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetColumnarResult;
+
+public class Test_26_ColumnarResult {
+
+	@Test
+	public void columnarResult() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::columnarResult);
+	}
+
+	private void columnarResult(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test26 (i INTEGER, l BIGINT, d DOUBLE, s STRING);");
+				statement.executeUpdate("INSERT INTO test26 VALUES (1, 10, 0.5, 'a'), (NULL, 20, 1.5, NULL), (3, NULL, 2.5, 'c');");
+
+				try (ResultSet rs = statement.executeQuery("SELECT * FROM test26;")) {
+					assertTrue(rs.isWrapperFor(MonetColumnarResult.class));
+					MonetColumnarResult columnar = rs.unwrap(MonetColumnarResult.class);
+					assertEquals(3, columnar.getRowCount());
+
+					IntBuffer ints = columnar.getIntColumn(1);
+					assertTrue(ints.isReadOnly());
+					assertEquals(3, ints.remaining());
+					assertEquals(1, ints.get(0));
+					assertEquals(3, ints.get(2));
+					BitSet intNulls = columnar.getNulls(1);
+					assertFalse(intNulls.get(0));
+					assertTrue(intNulls.get(1));
+					assertFalse(intNulls.get(2));
+
+					// NULL values keep MonetDB's representation in the buffers
+					LongBuffer longs = columnar.getLongColumn(2);
+					BitSet longNulls = columnar.getNulls(2);
+					assertTrue(longNulls.get(2));
+					assertEquals(Long.MIN_VALUE, longs.get(2));
+					long sum = 0;
+					for (int row = 0; row < longs.remaining(); row++)
+						if (!longNulls.get(row))
+							sum += longs.get(row);
+					assertEquals(30L, sum);
+
+					DoubleBuffer doubles = columnar.getDoubleColumn(3);
+					assertEquals(2.5d, doubles.get(2), 0.01d);
+					assertTrue(columnar.getNulls(3).isEmpty());
+
+					// Variable length columns only report their nulls
+					assertEquals(1, columnar.getNulls(4).cardinality());
+					try {
+						columnar.getIntColumn(4);
+						fail("String column should not be returned as an IntBuffer");
+					} catch (SQLException e) {
+						assertEquals("M1M05", e.getSQLState());
+					}
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test26;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
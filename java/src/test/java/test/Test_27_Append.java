@@ -0,0 +1,108 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+
+public class Test_27_Append {
+
+	private static final int ROW_COUNT = 10000;
+
+	@Test
+	public void append() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::append);
+	}
+
+	private void append(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test27 (i INTEGER, l BIGINT, d DOUBLE, s STRING);");
+
+				int[] ints = new int[ROW_COUNT];
+				long[] longs = new long[ROW_COUNT];
+				DoubleBuffer doubles = ByteBuffer.allocateDirect(ROW_COUNT * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+				String[] strings = new String[ROW_COUNT];
+				for (int i = 0; i < ROW_COUNT; i++) {
+					ints[i] = i;
+					longs[i] = i * 10L;
+					doubles.put(i, i / 2.0d);
+					strings[i] = i % 100 == 0 ? null : "row" + i;
+				}
+
+				MonetConnection monetConnection = conn.unwrap(MonetConnection.class);
+				Object[] columns = { ints, longs, doubles, strings };
+				monetConnection.appendColumns(null, "test27", columns);
+				// The caller's array keeps its buffer, which is only sliced internally
+				assertTrue(columns[2] == doubles);
+
+				try (ResultSet rs = statement.executeQuery("SELECT COUNT(*), SUM(i), SUM(l), COUNT(s) FROM test27;")) {
+					assertTrue(rs.next());
+					assertEquals(ROW_COUNT, rs.getInt(1));
+					assertEquals((long) ROW_COUNT * (ROW_COUNT - 1) / 2, rs.getLong(2));
+					assertEquals((long) ROW_COUNT * (ROW_COUNT - 1) * 5, rs.getLong(3));
+					assertEquals(ROW_COUNT - ROW_COUNT / 100, rs.getInt(4));
+				}
+
+				try (ResultSet rs = statement.executeQuery("SELECT i, d, s FROM test27 WHERE i IN (100, 101) ORDER BY i;")) {
+					assertTrue(rs.next());
+					assertEquals(50.0d, rs.getDouble(2), 0.01d);
+					assertNull(rs.getString(3));
+					assertTrue(rs.next());
+					assertEquals("row101", rs.getString(3));
+				}
+
+				// Columns must have the same length
+				try {
+					monetConnection.appendColumns(null, "test27", new int[1], new long[2], new double[1], new String[1]);
+					fail("Columns with different lengths should not be appended");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+				}
+
+				// Unsupported column classes are rejected
+				try {
+					monetConnection.appendColumns(null, "test27", new Object[] { new Integer[1] });
+					fail("Integer[] columns should not be appended");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+				}
+				try {
+					monetConnection.appendColumns(null, "test27", ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder()));
+					fail("ByteBuffer columns should not be appended");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+					assertTrue(e.getMessage().contains("unsupported type"));
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test27;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
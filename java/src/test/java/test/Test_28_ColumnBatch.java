@@ -0,0 +1,119 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class Test_28_ColumnBatch {
+
+	private static final int ROW_COUNT = 1000;
+
+	@Test
+	public void columnBatch() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::columnBatch);
+	}
+
+	private void columnBatch(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test28 (b BOOLEAN, i INTEGER, l BIGINT, r REAL, d DOUBLE, s STRING);");
+
+				try (PreparedStatement ps = conn.prepareStatement("INSERT INTO test28 VALUES (?, ?, ?, ?, ?, ?);")) {
+					for (int i = 0; i < ROW_COUNT; i++) {
+						ps.setBoolean(1, i % 2 == 0);
+						if (i % 10 == 0)
+							ps.setNull(2, Types.INTEGER);
+						else
+							ps.setInt(2, i);
+						ps.setLong(3, i * 10L);
+						ps.setInt(4, i);
+						ps.setDouble(5, i / 2.0d);
+						ps.setString(6, i % 10 == 0 ? null : "row" + i);
+						ps.addBatch();
+					}
+					long[] counts = ps.executeLargeBatch();
+					assertEquals(ROW_COUNT, counts.length);
+					for (long count : counts)
+						assertEquals(1, count);
+				}
+
+				try (ResultSet rs = statement.executeQuery("SELECT COUNT(*), COUNT(i), SUM(l), SUM(r), COUNT(s), SUM(CASE WHEN b THEN 1 ELSE 0 END) FROM test28;")) {
+					assertTrue(rs.next());
+					assertEquals(ROW_COUNT, rs.getInt(1));
+					assertEquals(ROW_COUNT - ROW_COUNT / 10, rs.getInt(2));
+					assertEquals((long) ROW_COUNT * (ROW_COUNT - 1) * 5, rs.getLong(3));
+					assertEquals(ROW_COUNT * (ROW_COUNT - 1) / 2.0d, rs.getDouble(4), 0.01d);
+					assertEquals(ROW_COUNT - ROW_COUNT / 10, rs.getInt(5));
+					assertEquals(ROW_COUNT / 2, rs.getInt(6));
+				}
+
+				try (ResultSet rs = statement.executeQuery("SELECT i, d, s FROM test28 WHERE l IN (100, 110) ORDER BY l;")) {
+					assertTrue(rs.next());
+					assertEquals(0, rs.getInt(1));
+					assertTrue(rs.wasNull());
+					assertEquals(5.0d, rs.getDouble(2), 0.01d);
+					assertNull(rs.getString(3));
+					assertTrue(rs.next());
+					assertEquals(11, rs.getInt(1));
+					assertEquals("row11", rs.getString(3));
+				}
+
+				// Update counts are returned per row of the batch
+				try (PreparedStatement ps = conn.prepareStatement("UPDATE test28 SET s = ? WHERE i < ?;")) {
+					ps.setString(1, "small");
+					ps.setInt(2, 5);
+					ps.addBatch();
+					ps.setString(1, "medium");
+					ps.setInt(2, 20);
+					ps.addBatch();
+					assertArrayEquals(new int[] { 4, 18 }, ps.executeBatch());
+				}
+
+				// A failing row stops the batch, and reports the counts of the rows before it
+				statement.executeUpdate("CREATE TABLE test28_pk (i INTEGER PRIMARY KEY);");
+				try (PreparedStatement ps = conn.prepareStatement("INSERT INTO test28_pk VALUES (?);")) {
+					ps.setInt(1, 1);
+					ps.addBatch();
+					ps.setInt(1, 2);
+					ps.addBatch();
+					ps.setInt(1, 1);
+					ps.addBatch();
+					ps.executeBatch();
+					fail("Duplicate primary key should fail the batch");
+				} catch (BatchUpdateException e) {
+					assertArrayEquals(new int[] { 1, 1 }, e.getUpdateCounts());
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test28_pk;");
+				statement.executeUpdate("DROP TABLE test28;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
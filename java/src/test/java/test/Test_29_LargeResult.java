@@ -0,0 +1,98 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetResultSet;
+
+public class Test_29_LargeResult {
+
+	private static final int ROW_COUNT = 2000000;
+
+	@Test
+	public void largeResult() {
+		// Stream.of(Configuration.CONNECTIONS).forEach(this::largeResult);
+		largeResult(AllTests.MEMORY_CONNECTION);
+	}
+
+	private void largeResult(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			// Create table and insert values, with a NULL in every 1000th row
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test29 (" +
+					"i INTEGER," +
+					"s STRING," +
+					"d DATE," +
+					"t TIME," +
+					"ts TIMESTAMP," +
+					"b BLOB);");
+
+				long rows = statement.executeLargeUpdate("INSERT INTO test29 SELECT " +
+					"value," +
+					"CASE WHEN value % 1000 = 0 THEN NULL ELSE 'row' || value END," +
+					"CASE WHEN value % 1000 = 0 THEN NULL ELSE DATE '2020-01-01' + (value % 3650) * INTERVAL '1' DAY END," +
+					"CASE WHEN value % 1000 = 0 THEN NULL ELSE TIME '00:00:00' + (value % 86400) * INTERVAL '1' SECOND END," +
+					"CASE WHEN value % 1000 = 0 THEN NULL ELSE TIMESTAMP '2020-01-01 00:00:00' + value * INTERVAL '1' SECOND END," +
+					"CASE WHEN value % 1000 = 0 THEN NULL ELSE BLOB '0102' END " +
+					"FROM sys.generate_series(0, " + ROW_COUNT + ");");
+				assertEquals(ROW_COUNT, rows);
+			}
+
+			// The whole result is converted in a single window, so every variable length column creates ROW_COUNT Java objects
+			try (Statement statement = conn.createStatement();
+				ResultSet rs = statement.executeQuery("SELECT i, s, d, t, ts, b FROM test29 ORDER BY i;")) {
+				assertEquals(ROW_COUNT, ((MonetResultSet) rs).getRowsNumber());
+
+				int expected = 0;
+				int nulls = 0;
+				while (rs.next()) {
+					assertEquals(expected, rs.getInt(1));
+					if (expected % 1000 == 0) {
+						assertNull(rs.getString(2));
+						assertNull(rs.getDate(3));
+						assertNull(rs.getTime(4));
+						assertNull(rs.getTimestamp(5));
+						assertNull(rs.getBytes(6));
+						nulls++;
+					} else {
+						assertEquals("row" + expected, rs.getString(2));
+						assertNotNull(rs.getDate(3));
+						assertNotNull(rs.getTime(4));
+						assertNotNull(rs.getTimestamp(5));
+						assertEquals(2, rs.getBytes(6).length);
+					}
+					expected++;
+				}
+				assertEquals(ROW_COUNT, expected);
+				assertEquals(ROW_COUNT / 1000, nulls);
+			}
+
+			// Clean up
+			try (Statement statement = conn.createStatement()) {
+				int result = statement.executeUpdate("DROP TABLE test29;");
+				assertEquals(ROW_COUNT, result);
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetColumnarResult;
+import org.monetdb.monetdbe.MonetResultSet;
+
+public class Test_30_TemporalColumns {
+
+	@Test
+	public void temporalColumns() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::temporalColumns);
+	}
+
+	private void temporalColumns(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test30 (d DATE, t TIME, ts TIMESTAMP);");
+				statement.executeUpdate("INSERT INTO test30 VALUES " +
+						"('2020-02-29', '13:45:30', '2020-02-29 13:45:30.250'), " +
+						"(NULL, NULL, NULL), " +
+						"('1969-12-31', '00:00:00', '1969-12-31 23:59:59');");
+
+				try (ResultSet rs = statement.executeQuery("SELECT d, t, ts FROM test30;")) {
+					MonetResultSet monetResultSet = rs.unwrap(MonetResultSet.class);
+
+					rs.next();
+					assertEquals(LocalDate.of(2020, 2, 29), monetResultSet.getLocalDate(1));
+					assertEquals(LocalTime.of(13, 45, 30), monetResultSet.getLocalTime(2));
+					assertEquals(LocalDateTime.of(2020, 2, 29, 13, 45, 30, 250000000), monetResultSet.getLocalDateTime(3));
+					assertEquals(java.sql.Date.valueOf("2020-02-29"), rs.getDate(1));
+					assertEquals(LocalDate.of(2020, 2, 29), rs.getObject(1));
+					assertEquals("2020-02-29", rs.getString(1));
+					assertFalse(rs.wasNull());
+
+					rs.next();
+					assertNull(rs.getDate(1));
+					assertTrue(rs.wasNull());
+					assertNull(rs.getTime(2));
+					assertTrue(rs.wasNull());
+					assertNull(rs.getTimestamp(3));
+					assertTrue(rs.wasNull());
+					assertNull(rs.getObject(3));
+
+					// Dates and timestamps before the epoch
+					rs.next();
+					assertEquals(LocalDate.of(1969, 12, 31), monetResultSet.getLocalDate(1));
+					assertEquals(LocalTime.MIDNIGHT, monetResultSet.getLocalTime(2));
+					assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59), monetResultSet.getLocalDateTime(3));
+
+					// Temporal columns are also available as packed primitive buffers
+					MonetColumnarResult columnar = rs.unwrap(MonetColumnarResult.class);
+					IntBuffer days = columnar.getDateColumn(1);
+					assertEquals(LocalDate.of(2020, 2, 29).toEpochDay(), days.get(0));
+					assertEquals(-1, days.get(2));
+					LongBuffer nanos = columnar.getTimeColumn(2);
+					assertEquals(LocalTime.of(13, 45, 30).toNanoOfDay(), nanos.get(0));
+					LongBuffer micros = columnar.getTimestampColumn(3);
+					assertEquals(-1000000L, micros.get(2));
+					assertTrue(columnar.getNulls(3).get(1));
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test30;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetColumnarResult;
+import org.monetdb.monetdbe.MonetStringColumn;
+
+public class Test_31_StringColumn {
+
+	@Test
+	public void stringColumn() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::stringColumn);
+	}
+
+	private void stringColumn(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			assertTrue(conn.getAutoCommit());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test31 (i INTEGER, s STRING);");
+				statement.executeUpdate("INSERT INTO test31 VALUES (1, 'apple'), (2, NULL), (3, ''), (4, '\u00e7\u00e3\u00f5 \u20ac'), (5, 'apple');");
+
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test31 ORDER BY i;")) {
+					MonetColumnarResult columnar = rs.unwrap(MonetColumnarResult.class);
+					MonetStringColumn strings = columnar.getStringColumn(2);
+					assertEquals(5, strings.size());
+
+					assertEquals("apple", strings.getString(0));
+					assertTrue(strings.isNull(1));
+					assertNull(strings.getString(1));
+					assertNull(strings.getBytes(1));
+					assertEquals("", strings.getString(2));
+					assertEquals(0, strings.byteLength(2));
+					assertEquals("\u00e7\u00e3\u00f5 \u20ac", strings.getString(3));
+					assertEquals("\u00e7\u00e3\u00f5 \u20ac".getBytes(StandardCharsets.UTF_8).length, strings.byteLength(3));
+
+					// Comparing and hashing on the raw bytes
+					assertTrue(strings.equals(0, "apple".getBytes(StandardCharsets.UTF_8)));
+					assertFalse(strings.equals(0, "apples".getBytes(StandardCharsets.UTF_8)));
+					assertTrue(strings.equals(1, (byte[]) null));
+					assertTrue(strings.equals(0, strings, 4));
+					assertFalse(strings.equals(0, strings, 3));
+					assertEquals(strings.hashCode(0), strings.hashCode(4));
+					assertNotEquals(strings.hashCode(0), strings.hashCode(3));
+
+					// The row cursor is not affected
+					assertTrue(rs.next());
+					assertEquals("apple", rs.getString(2));
+
+					try {
+						columnar.getStringColumn(1);
+						fail("Integer column should not be returned as a string column");
+					} catch (SQLException e) {
+						assertEquals("M1M05", e.getSQLState());
+					}
+				}
+
+				// The column is limited to the rows of the result set
+				statement.setMaxRows(3);
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test31 ORDER BY i;")) {
+					MonetStringColumn strings = rs.unwrap(MonetColumnarResult.class).getStringColumn(2);
+					assertEquals(3, strings.size());
+					assertEquals("apple", strings.getString(0));
+					assertTrue(strings.isNull(1));
+					assertEquals("", strings.getString(2));
+				}
+				statement.setMaxRows(0);
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test31;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+
+public class Test_32_SessionPool {
+
+	@Test
+	public void sessionPool() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::sessionPool);
+	}
+
+	private void sessionPool(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("pool_size", "2");
+		props.setProperty("pool_idle_timeout", "1");
+		props.setProperty("pool_wait_timeout", "1");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			assertEquals(1, monetConn.getOpenSessions());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test32 (t INTEGER);");
+			}
+
+			// More threads than sessions: the threads share the two sessions of the pool
+			int n = 8;
+			ExecutorService executor = Executors.newFixedThreadPool(n);
+			List<Future<Integer>> inserts = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				final int t = i;
+				inserts.add(executor.submit(() -> {
+					try (Statement statement = conn.createStatement()) {
+						return statement.executeUpdate("INSERT INTO test32 VALUES (" + t + ");");
+					}
+				}));
+			}
+			for (Future<Integer> insert : inserts)
+				assertEquals(1, (int) insert.get());
+			assertTrue(monetConn.getOpenSessions() <= 2);
+
+			// A session held by an open result set is returned by another thread
+			Statement statement = conn.createStatement();
+			ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM test32;");
+			assertTrue(rs.next());
+			assertEquals(n, rs.getInt(1));
+			executor.submit(() -> {
+				rs.close();
+				return null;
+			}).get();
+			executor.shutdown();
+			assertTrue(rs.isClosed());
+			statement.close();
+
+			// Open prepared statements do not hold sessions, so there can be more of them than sessions
+			List<PreparedStatement> prepared = new ArrayList<>();
+			for (int i = 0; i < 2 * n; i++)
+				prepared.add(conn.prepareStatement("SELECT COUNT(*) FROM test32 WHERE t < ?;"));
+			for (int i = 0; i < prepared.size(); i++) {
+				PreparedStatement ps = prepared.get(i);
+				ps.setInt(1, i);
+				try (ResultSet prs = ps.executeQuery()) {
+					assertTrue(prs.next());
+					assertEquals(Math.min(i, n), prs.getInt(1));
+				}
+			}
+			try (Statement st = conn.createStatement()) {
+				assertEquals(1, st.executeUpdate("INSERT INTO test32 VALUES (" + n + ");"));
+			}
+			for (PreparedStatement ps : prepared)
+				ps.close();
+			try (Statement st = conn.createStatement()) {
+				assertEquals(1, st.executeUpdate("DELETE FROM test32 WHERE t = " + n + ";"));
+			}
+
+			// Idle sessions are closed after the idle timeout, except for the primary session
+			Thread.sleep(1500);
+			try (Statement st = conn.createStatement()) {
+				assertEquals(1, st.executeUpdate("DELETE FROM test32 WHERE t = 0;"));
+				assertEquals(1, monetConn.getOpenSessions());
+			}
+
+			// Clean up
+			try (Statement st = conn.createStatement()) {
+				st.executeUpdate("DROP TABLE test32;");
+			}
+
+		} catch (SQLException | InterruptedException | ExecutionException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
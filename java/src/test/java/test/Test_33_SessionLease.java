@@ -0,0 +1,151 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+import org.monetdb.monetdbe.MonetSessionLease;
+
+public class Test_33_SessionLease {
+
+	@Test
+	public void sessionLease() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::sessionLease);
+	}
+
+	private void sessionLease(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("pool_size", "2");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+
+			// Session state is kept across the statements of a lease, also when they run on other threads
+			try (MonetSessionLease lease = monetConn.lease()) {
+				Statement statement = lease.createStatement();
+				statement.executeUpdate("CREATE LOCAL TEMPORARY TABLE test33 (i INTEGER) ON COMMIT PRESERVE ROWS;");
+				executor.submit(() -> {
+					try (PreparedStatement ps = lease.prepareStatement("INSERT INTO test33 VALUES (?);")) {
+						ps.setInt(1, 33);
+						return ps.executeUpdate();
+					}
+				}).get();
+				try (ResultSet rs = lease.createStatement().executeQuery("SELECT i FROM test33;")) {
+					assertTrue(rs.next());
+					assertEquals(33, rs.getInt(1));
+				}
+				statement.executeUpdate("DROP TABLE tmp.test33;");
+
+				lease.close();
+				assertTrue(lease.isClosed());
+				assertTrue(statement.isClosed());
+				try {
+					lease.createStatement();
+					fail("A closed lease should not create statements");
+				} catch (SQLException e) {
+					assertEquals("M1M20", e.getSQLState());
+				}
+			}
+
+			// Many tasks take turns on the two sessions of the pool
+			int n = 64;
+			List<Future<Integer>> queries = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				final int t = i;
+				queries.add(executor.submit(() -> {
+					try (MonetSessionLease lease = monetConn.lease();
+							ResultSet rs = lease.createStatement().executeQuery("SELECT " + t + ";")) {
+						assertTrue(rs.next());
+						return rs.getInt(1);
+					}
+				}));
+			}
+			for (int i = 0; i < n; i++)
+				assertEquals(i, (int) queries.get(i).get());
+			assertTrue(monetConn.getOpenSessions() <= 2);
+			executor.shutdown();
+
+		} catch (SQLException | InterruptedException | ExecutionException e) {
+
+			fail(e.toString());
+
+		}
+	}
+
+	@Test
+	public void transactionLease() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::transactionLease);
+	}
+
+	private void transactionLease(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("pool_wait_timeout", "1");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			conn.setAutoCommit(false);
+
+			// Only one lease at a time owns the transaction session
+			try (MonetSessionLease lease = monetConn.lease()) {
+				try (ResultSet rs = lease.createStatement().executeQuery("SELECT 1;")) {
+					assertTrue(rs.next());
+				}
+				try {
+					executor.submit(() -> {
+						monetConn.lease().close();
+						return null;
+					}).get();
+					fail("The transaction session should not be leased twice");
+				} catch (ExecutionException e) {
+					assertEquals("HYT00", ((SQLException) e.getCause()).getSQLState());
+				}
+				try {
+					conn.setAutoCommit(true);
+					fail("The auto-commit mode should not change while a lease is open");
+				} catch (SQLException e) {
+					assertFalse(conn.getAutoCommit());
+				}
+			}
+
+			// Once the lease is closed, another thread leases the transaction session
+			int value = executor.submit(() -> {
+				try (MonetSessionLease lease = monetConn.lease();
+						ResultSet rs = lease.createStatement().executeQuery("SELECT 2;")) {
+					assertTrue(rs.next());
+					return rs.getInt(1);
+				}
+			}).get();
+			assertEquals(2, value);
+			conn.setAutoCommit(true);
+			executor.shutdown();
+
+		} catch (SQLException | InterruptedException | ExecutionException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
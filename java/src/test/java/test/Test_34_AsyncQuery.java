@@ -0,0 +1,123 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+import org.monetdb.monetdbe.MonetPreparedStatement;
+import org.monetdb.monetdbe.MonetStatement;
+
+public class Test_34_AsyncQuery {
+
+	@Test
+	public void asyncQuery() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::asyncQuery);
+	}
+
+	private void asyncQuery(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test34 (i INTEGER);");
+				statement.executeUpdate("INSERT INTO test34 VALUES (1), (2), (3);");
+			}
+
+			// Several queries running at the same time, each on its own statement
+			int n = 6;
+			List<Statement> statements = new ArrayList<>();
+			List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				MonetStatement statement = conn.createStatement().unwrap(MonetStatement.class);
+				statements.add(statement);
+				futures.add(statement.executeAsync("SELECT SUM(i) + " + i + " FROM test34;"));
+			}
+			for (int i = 0; i < n; i++) {
+				try (ResultSet rs = futures.get(i).get()) {
+					assertTrue(rs.next());
+					assertEquals(6 + i, rs.getInt(1));
+				}
+				statements.get(i).close();
+			}
+
+			// With auto-commit disabled, the queries take turns in the transaction session and see its changes
+			conn.setAutoCommit(false);
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("INSERT INTO test34 VALUES (4);");
+			}
+			statements.clear();
+			futures.clear();
+			for (int i = 0; i < n; i++) {
+				MonetStatement statement = conn.createStatement().unwrap(MonetStatement.class);
+				statements.add(statement);
+				futures.add(statement.executeAsync("SELECT SUM(i) + " + i + " FROM test34;"));
+			}
+			for (int i = 0; i < n; i++) {
+				try (ResultSet rs = futures.get(i).get()) {
+					assertTrue(rs.next());
+					assertEquals(10 + i, rs.getInt(1));
+				}
+				statements.get(i).close();
+			}
+			conn.rollback();
+			conn.setAutoCommit(true);
+
+			// Prepared statements, on a custom executor
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			AtomicInteger submitted = new AtomicInteger();
+			conn.unwrap(MonetConnection.class).setAsyncExecutor(task -> {
+				submitted.incrementAndGet();
+				executor.execute(task);
+			});
+			try (PreparedStatement ps = conn.prepareStatement("SELECT i FROM test34 WHERE i > ? ORDER BY i;")) {
+				ps.setInt(1, 1);
+				try (ResultSet rs = ps.unwrap(MonetPreparedStatement.class).executeAsync().get()) {
+					assertTrue(rs.next());
+					assertEquals(2, rs.getInt(1));
+					assertTrue(rs.next());
+					assertEquals(3, rs.getInt(1));
+					assertFalse(rs.next());
+				}
+			}
+			assertEquals(1, submitted.get());
+
+			// Errors complete the future exceptionally
+			try (Statement statement = conn.createStatement()) {
+				try {
+					statement.unwrap(MonetStatement.class).executeAsync("SELECT * FROM test34_missing;").get();
+					fail("The query should have failed");
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof SQLException);
+				}
+				statement.executeUpdate("DROP TABLE test34;");
+			}
+			executor.shutdown();
+
+		} catch (SQLException | InterruptedException | ExecutionException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
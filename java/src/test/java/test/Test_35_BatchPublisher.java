@@ -0,0 +1,135 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetBatchPublisher;
+import org.monetdb.monetdbe.MonetColumnBatch;
+import org.monetdb.monetdbe.MonetResultSet;
+
+public class Test_35_BatchPublisher {
+
+	private static class CollectingSubscriber implements MonetBatchPublisher.Subscriber {
+		private final int maxBatches;
+		private final List<MonetColumnBatch> batches = new ArrayList<>();
+		private MonetBatchPublisher.Subscription subscription;
+		private Throwable error;
+		private int completions;
+
+		CollectingSubscriber(int maxBatches) {
+			this.maxBatches = maxBatches;
+		}
+
+		@Override
+		public void onSubscribe(MonetBatchPublisher.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(MonetColumnBatch batch) {
+			batches.add(batch);
+			// Request the next batch from within onNext, or stop after maxBatches
+			if (batches.size() < maxBatches)
+				subscription.request(1);
+			else
+				subscription.cancel();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completions++;
+		}
+	}
+
+	@Test
+	public void batchPublisher() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::batchPublisher);
+	}
+
+	private void batchPublisher(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test35 (i INTEGER, s STRING);");
+				statement.executeUpdate("INSERT INTO test35 VALUES (0, 'a'), (1, NULL), (2, 'c'), (3, 'd'), (4, 'e'), "
+						+ "(5, 'f'), (6, 'g'), (7, 'h'), (8, NULL), (9, 'j');");
+
+				// All batches, requested one at a time
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test35 ORDER BY i;")) {
+					MonetBatchPublisher publisher = rs.unwrap(MonetResultSet.class).publishBatches(4);
+					CollectingSubscriber subscriber = new CollectingSubscriber(Integer.MAX_VALUE);
+					publisher.subscribe(subscriber);
+					assertTrue(subscriber.batches.isEmpty());
+					subscriber.subscription.request(1);
+
+					assertNull(subscriber.error);
+					assertEquals(1, subscriber.completions);
+					assertEquals(3, subscriber.batches.size());
+					assertEquals(4, subscriber.batches.get(0).getRowCount());
+					assertEquals(2, subscriber.batches.get(2).getRowCount());
+					MonetColumnBatch last = subscriber.batches.get(2);
+					assertEquals(8, last.getOffset());
+					assertEquals(2, last.getColumnCount());
+					assertEquals(9, last.getObject(1, 1));
+					assertTrue(last.isNull(0, 2));
+					assertEquals("j", last.getObject(1, 2));
+					assertEquals(1, subscriber.batches.get(0).getNulls(2).cardinality());
+
+					// Only one subscriber
+					CollectingSubscriber second = new CollectingSubscriber(1);
+					publisher.subscribe(second);
+					assertTrue(second.error instanceof IllegalStateException);
+				}
+
+				// Cancelled after the first batch
+				try (ResultSet rs = statement.executeQuery("SELECT i FROM test35 ORDER BY i;")) {
+					CollectingSubscriber subscriber = new CollectingSubscriber(1);
+					rs.unwrap(MonetResultSet.class).publishBatches(3).subscribe(subscriber);
+					subscriber.subscription.request(Long.MAX_VALUE);
+					assertEquals(1, subscriber.batches.size());
+					assertEquals(0, subscriber.completions);
+					assertEquals(2, subscriber.batches.get(0).getObject(2, 1));
+				}
+
+				// Invalid requests are signalled through onError
+				try (ResultSet rs = statement.executeQuery("SELECT i FROM test35;")) {
+					CollectingSubscriber subscriber = new CollectingSubscriber(1);
+					rs.unwrap(MonetResultSet.class).publishBatches(5).subscribe(subscriber);
+					subscriber.subscription.request(0);
+					assertTrue(subscriber.error instanceof IllegalArgumentException);
+					assertTrue(subscriber.batches.isEmpty());
+				}
+
+				// Clean up
+				statement.executeUpdate("DROP TABLE test35;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
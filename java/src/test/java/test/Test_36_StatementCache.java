@@ -0,0 +1,137 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+
+public class Test_36_StatementCache {
+
+	@Test
+	public void statementCache() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::statementCache);
+	}
+
+	private int selectPlusOne(Connection conn, String sql, int value) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setInt(1, value);
+			try (ResultSet rs = ps.executeQuery()) {
+				assertTrue(rs.next());
+				return rs.getInt(1);
+			}
+		}
+	}
+
+	private void statementCache(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("statement_cache_size", "2");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test36 (i INTEGER);");
+				statement.executeUpdate("INSERT INTO test36 VALUES (1), (2), (3);");
+			}
+
+			// The same SQL text is only prepared once, executions take the prepared statement from the cache again
+			String sql = "SELECT i + 1 FROM test36 WHERE i = ?;";
+			assertEquals(2, selectPlusOne(conn, sql, 1));
+			assertEquals(1, monetConn.getStatementCacheHits());
+			assertEquals(1, monetConn.getStatementCacheMisses());
+			assertEquals(3, selectPlusOne(conn, sql, 2));
+			assertEquals(4, selectPlusOne(conn, sql, 3));
+			assertEquals(5, monetConn.getStatementCacheHits());
+			assertEquals(1, monetConn.getStatementCacheMisses());
+
+			// Statements open at the same time do not share the cached statement
+			try (PreparedStatement ps1 = conn.prepareStatement(sql);
+					PreparedStatement ps2 = conn.prepareStatement(sql)) {
+				ps1.setInt(1, 1);
+				ps2.setInt(1, 2);
+				try (ResultSet rs1 = ps1.executeQuery(); ResultSet rs2 = ps2.executeQuery()) {
+					assertTrue(rs1.next());
+					assertTrue(rs2.next());
+					assertEquals(2, rs1.getInt(1));
+					assertEquals(3, rs2.getInt(1));
+				}
+			}
+
+			// The least recently used statement is freed when the cache is full
+			assertEquals(2, selectPlusOne(conn, "SELECT i + 1 FROM test36 WHERE i = ? AND 1 = 1;", 1));
+			assertEquals(2, selectPlusOne(conn, "SELECT i + 1 FROM test36 WHERE i = ? AND 2 = 2;", 1));
+			assertTrue(monetConn.getStatementCacheEvictions() >= 1);
+
+			// Schema changes invalidate the cached statements, which are prepared again
+			String star = "SELECT * FROM test36 WHERE i = 1;";
+			try (PreparedStatement ps = conn.prepareStatement(star)) {
+				assertEquals(1, ps.getMetaData().getColumnCount());
+			}
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("ALTER TABLE test36 ADD COLUMN s STRING;");
+			}
+			try (PreparedStatement ps = conn.prepareStatement(star)) {
+				assertEquals(2, ps.getMetaData().getColumnCount());
+				try (ResultSet rs = ps.executeQuery()) {
+					assertTrue(rs.next());
+					assertEquals(2, rs.getMetaData().getColumnCount());
+				}
+			}
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("DROP TABLE test36;");
+				statement.executeUpdate("CREATE TABLE test36 (i INTEGER, s STRING, d DOUBLE);");
+				statement.executeUpdate("INSERT INTO test36 VALUES (1, 'one', 1.5);");
+			}
+			try (PreparedStatement ps = conn.prepareStatement(star);
+					ResultSet rs = ps.executeQuery()) {
+				assertEquals(3, rs.getMetaData().getColumnCount());
+				assertTrue(rs.next());
+				assertEquals(1.5, rs.getDouble(3), 0);
+			}
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("DROP TABLE test36;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+
+		// Disabled cache
+		props.setProperty("statement_cache_size", "0");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			for (int i = 0; i < 3; i++) {
+				try (PreparedStatement ps = conn.prepareStatement("SELECT ?;")) {
+					ps.setInt(1, i);
+					try (ResultSet rs = ps.executeQuery()) {
+						assertTrue(rs.next());
+						assertEquals(i, rs.getInt(1));
+					}
+				}
+			}
+			assertEquals(0, monetConn.getStatementCacheHits());
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class Test_37_WideResult {
+
+	@Test
+	public void wideResult() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::wideResult);
+	}
+
+	private void wideResult(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			// 40 columns of 2000 rows, large enough for the columns to be converted in parallel
+			int ncols = 40;
+			int nrows = 2000;
+			StringBuilder sql = new StringBuilder("SELECT ");
+			for (int c = 0; c < ncols; c++) {
+				if (c > 0)
+					sql.append(", ");
+				String value;
+				switch (c % 5) {
+				case 0:
+					value = "value + " + c;
+					break;
+				case 1:
+					value = "CAST(value AS BIGINT) * " + c;
+					break;
+				case 2:
+					value = "CAST(value AS DOUBLE) / 2";
+					break;
+				case 3:
+					value = "CAST(value AS DECIMAL(10,2)) / 4";
+					break;
+				default:
+					value = "CAST('2020-01-01 10:00:00' AS TIMESTAMP)";
+					break;
+				}
+				// Every column has NULL values at other rows
+				sql.append("CASE WHEN value % 7 = ").append(c % 7).append(" THEN NULL ELSE ").append(value).append(" END");
+			}
+			sql.append(" FROM sys.generate_series(0, ").append(nrows).append(");");
+
+			try (Statement statement = conn.createStatement();
+					ResultSet rs = statement.executeQuery(sql.toString())) {
+				assertEquals(ncols, rs.getMetaData().getColumnCount());
+				int row = 0;
+				while (rs.next()) {
+					for (int c = 0; c < ncols; c++) {
+						if (row % 7 == c % 7) {
+							assertEquals(null, rs.getObject(c + 1));
+							assertTrue(rs.wasNull());
+							continue;
+						}
+						switch (c % 5) {
+						case 0:
+							assertEquals(row + c, rs.getInt(c + 1));
+							break;
+						case 1:
+							assertEquals((long) row * c, rs.getLong(c + 1));
+							break;
+						case 2:
+							assertEquals(row / 2.0, rs.getDouble(c + 1), 0.0);
+							break;
+						case 3:
+							assertEquals(0, new BigDecimal(row).divide(new BigDecimal(4)).compareTo(rs.getBigDecimal(c + 1)));
+							break;
+						default:
+							assertEquals(Timestamp.valueOf("2020-01-01 10:00:00"), rs.getTimestamp(c + 1));
+							break;
+						}
+						assertFalse(rs.wasNull());
+					}
+					row++;
+				}
+				assertEquals(nrows, row);
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
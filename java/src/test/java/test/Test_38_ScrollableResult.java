@@ -0,0 +1,121 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetColumnarResult;
+
+public class Test_38_ScrollableResult {
+
+	@Test
+	public void scrollableResult() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::scrollableResult);
+	}
+
+	private void scrollableResult(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test38 (i INTEGER, s STRING);");
+				statement.executeUpdate("INSERT INTO test38 SELECT value, CASE WHEN value % 10 = 0 THEN NULL ELSE 'row' || value END FROM sys.generate_series(0, 100);");
+			}
+
+			// Scrolling over windows of 10 rows
+			try (Statement statement = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+				statement.setFetchSize(10);
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test38 ORDER BY i;")) {
+					assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+
+					assertTrue(rs.absolute(55));
+					assertEquals(54, rs.getInt(1));
+					assertTrue(rs.absolute(-1));
+					assertEquals(99, rs.getInt(1));
+					assertTrue(rs.isLast());
+					assertTrue(rs.relative(-20));
+					assertEquals(79, rs.getInt(1));
+					assertFalse(rs.absolute(-200));
+					assertTrue(rs.isBeforeFirst());
+					assertFalse(rs.relative(500));
+					assertTrue(rs.isAfterLast());
+
+					// Backwards over the whole result
+					int expected = 99;
+					while (rs.previous()) {
+						assertEquals(expected, rs.getInt(1));
+						assertEquals(expected % 10 == 0 ? null : "row" + expected, rs.getString(2));
+						expected--;
+					}
+					assertEquals(-1, expected);
+
+					// Indexed access leaves the cursor where it is
+					assertTrue(rs.absolute(5));
+					MonetColumnarResult columnar = rs.unwrap(MonetColumnarResult.class);
+					assertEquals(87, columnar.getInt(87, 1));
+					assertEquals(87L, columnar.getLong(87, 1));
+					assertEquals("row87", columnar.getString(87, 2));
+					assertTrue(columnar.isNull(90, 2));
+					assertNull(columnar.getObject(90, 2));
+					assertEquals(3, columnar.getObject(3, 1));
+					assertEquals(5, rs.getRow());
+					assertEquals(4, rs.getInt(1));
+					assertEquals("row4", rs.getString(2));
+					try {
+						columnar.getInt(100, 1);
+						fail("Row 100 should be out of bounds");
+					} catch (SQLException e) {
+						assertEquals("M1M05", e.getSQLState());
+					}
+				}
+			}
+
+			// Forward only results can only move to the next row
+			try (Statement statement = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+					ResultSet rs = statement.executeQuery("SELECT i FROM test38 ORDER BY i;")) {
+				assertEquals(ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+				assertTrue(rs.next());
+				assertEquals(0, rs.getInt(1));
+				try {
+					rs.previous();
+					fail("Forward only result sets should not move backwards");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+				}
+				int rows = 1;
+				while (rs.next())
+					rows++;
+				assertEquals(100, rows);
+			}
+
+			// Scroll sensitive results are not supported
+			conn.clearWarnings();
+			try (Statement statement = conn.createStatement(ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+				assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, statement.getResultSetType());
+				assertNotNull(conn.getWarnings());
+			}
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("DROP TABLE test38;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+import org.monetdb.monetdbe.MonetResultSet;
+
+public class Test_39_ResultCache {
+
+	@Test
+	public void resultCache() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::resultCache);
+	}
+
+	private int sum(Statement statement, String sql) throws SQLException {
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			int sum = 0;
+			while (rs.next())
+				sum += rs.getInt(1);
+			return sum;
+		}
+	}
+
+	private void resultCache(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("result_cache_limit", "16");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test39 (i INTEGER, s STRING);");
+				statement.executeUpdate("INSERT INTO test39 VALUES (1, 'one'), (2, NULL), (3, 'three');");
+
+				// Queries which only differ in white space share their result
+				assertEquals(6, sum(statement, "SELECT i FROM test39 ORDER BY i;"));
+				assertEquals(0, monetConn.getResultCacheHits());
+				assertEquals(1, monetConn.getResultCacheMisses());
+				assertEquals(6, sum(statement, "  SELECT i\n  FROM test39   ORDER BY i"));
+				assertEquals(1, monetConn.getResultCacheHits());
+
+				// Cached results can be scrolled and read by column
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test39 ORDER BY i;")) {
+					assertTrue(rs.last());
+					assertEquals("three", rs.getString(2));
+					assertTrue(rs.absolute(2));
+					assertNull(rs.getString(2));
+					assertTrue(rs.wasNull());
+					MonetResultSet mrs = rs.unwrap(MonetResultSet.class);
+					assertEquals(3, mrs.getIntColumn(1).get(2));
+					assertTrue(mrs.getStringColumn(2).isNull(1));
+					assertEquals("one", mrs.getStringColumn(2).getString(0));
+				}
+				try (ResultSet rs = statement.executeQuery("SELECT i, s FROM test39 ORDER BY i;")) {
+					assertTrue(rs.next());
+					assertEquals(1, rs.getInt(1));
+					assertEquals("one", rs.getString(2));
+				}
+				assertEquals(2, monetConn.getResultCacheHits());
+
+				// Writes invalidate the cached results
+				statement.executeUpdate("INSERT INTO test39 VALUES (4, 'four');");
+				assertEquals(10, sum(statement, "SELECT i FROM test39 ORDER BY i;"));
+				assertEquals(2, monetConn.getResultCacheHits());
+				assertTrue(monetConn.getResultCacheEvictions() >= 2);
+			}
+
+			// Prepared statements are cached by their bound parameters
+			try (PreparedStatement ps = conn.prepareStatement("SELECT s FROM test39 WHERE i = ?;")) {
+				long hits = monetConn.getResultCacheHits();
+				for (int round = 0; round < 2; round++) {
+					ps.setInt(1, 1);
+					try (ResultSet rs = ps.executeQuery()) {
+						assertTrue(rs.next());
+						assertEquals("one", rs.getString(1));
+					}
+					ps.setInt(1, 3);
+					try (ResultSet rs = ps.executeQuery()) {
+						assertTrue(rs.next());
+						assertEquals("three", rs.getString(1));
+					}
+				}
+				assertEquals(hits + 2, monetConn.getResultCacheHits());
+			}
+
+			// Appended rows invalidate the cached results too
+			try (Statement statement = conn.createStatement()) {
+				monetConn.appendColumns(null, "test39", new int[] {5}, new String[] {"five"});
+				assertEquals(15, sum(statement, "SELECT i FROM test39 ORDER BY i;"));
+			}
+
+			// Queries in a transaction are not cached
+			conn.setAutoCommit(false);
+			try (Statement statement = conn.createStatement()) {
+				long misses = monetConn.getResultCacheMisses();
+				statement.executeUpdate("DELETE FROM test39 WHERE i = 5;");
+				assertEquals(10, sum(statement, "SELECT i FROM test39 ORDER BY i;"));
+				assertEquals(misses, monetConn.getResultCacheMisses());
+				conn.rollback();
+			}
+			conn.setAutoCommit(true);
+			try (Statement statement = conn.createStatement()) {
+				assertEquals(15, sum(statement, "SELECT i FROM test39 ORDER BY i;"));
+				statement.executeUpdate("DROP TABLE test39;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+
+		// Disabled cache
+		try (Connection conn = DriverManager.getConnection(connectionUrl, new Properties());
+				Statement statement = conn.createStatement()) {
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			assertEquals(1, sum(statement, "SELECT 1;"));
+			assertEquals(1, sum(statement, "SELECT 1;"));
+			assertEquals(0, monetConn.getResultCacheHits());
+			assertEquals(0, monetConn.getResultCacheMisses());
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+
+	@Test
+	public void sharedDatabase() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::sharedDatabase);
+	}
+
+	private void sharedDatabase(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("result_cache_limit", "16");
+		try (Connection conn1 = DriverManager.getConnection(connectionUrl, props);
+				Connection conn2 = DriverManager.getConnection(connectionUrl, new Properties());
+				Statement statement1 = conn1.createStatement();
+				Statement statement2 = conn2.createStatement()) {
+
+			statement1.executeUpdate("CREATE TABLE test39b (i INTEGER);");
+			statement1.executeUpdate("INSERT INTO test39b VALUES (1);");
+			assertEquals(1, sum(statement1, "SELECT i FROM test39b;"));
+			assertEquals(1, sum(statement1, "SELECT i FROM test39b;"));
+			assertEquals(1, conn1.unwrap(MonetConnection.class).getResultCacheHits());
+
+			// Writes through another connection to the same database invalidate the cached results,
+			// also when that connection does not cache results itself
+			statement2.executeUpdate("INSERT INTO test39b VALUES (2);");
+			assertEquals(3, sum(statement1, "SELECT i FROM test39b;"));
+			statement2.executeUpdate("UPDATE test39b SET i = 10 WHERE i = 1;");
+			assertEquals(12, sum(statement1, "SELECT i FROM test39b;"));
+
+			statement1.executeUpdate("DROP TABLE test39b;");
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class Test_40_QueryCancel {
+
+	/** A query which runs for a long time, unless it is stopped */
+	private static final String LONG_QUERY = "SELECT sum(a.value * b.value) FROM generate_series(1, 200000) a, generate_series(1, 50000) b;";
+
+	@Test
+	public void queryCancel() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::queryCancel);
+	}
+
+	private void queryCancel(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			try (Statement statement = conn.createStatement()) {
+				// Nothing to cancel
+				statement.cancel();
+				try (ResultSet rs = statement.executeQuery("SELECT 1;")) {
+					assertTrue(rs.next());
+					assertEquals(1, rs.getInt(1));
+				}
+
+				// Queries which finish in time are not affected by the timeout
+				statement.setQueryTimeout(10);
+				assertEquals(10, statement.getQueryTimeout());
+				try (ResultSet rs = statement.executeQuery("SELECT 2;")) {
+					assertTrue(rs.next());
+					assertEquals(2, rs.getInt(1));
+				}
+
+				// The timeout stops a long query
+				statement.setQueryTimeout(1);
+				long start = System.nanoTime();
+				try {
+					statement.executeQuery(LONG_QUERY).close();
+				} catch (SQLTimeoutException e) {
+					assertEquals("HYT00", e.getSQLState());
+					assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+				}
+
+				// The statement remains usable
+				statement.setQueryTimeout(0);
+				try (ResultSet rs = statement.executeQuery("SELECT 3;")) {
+					assertTrue(rs.next());
+					assertEquals(3, rs.getInt(1));
+				}
+			}
+
+			// Cancel from another thread
+			try (Statement statement = conn.createStatement()) {
+				Thread canceller = new Thread(() -> {
+					try {
+						Thread.sleep(500);
+						statement.cancel();
+					} catch (SQLFeatureNotSupportedException | InterruptedException e) {
+						// The query runs until it finishes
+					} catch (SQLException e) {
+						fail(e.toString());
+					}
+				});
+				canceller.start();
+				try {
+					statement.executeQuery(LONG_QUERY).close();
+				} catch (SQLException e) {
+					assertEquals("HY008", e.getSQLState());
+				}
+				canceller.join();
+
+				try (ResultSet rs = statement.executeQuery("SELECT 4;")) {
+					assertTrue(rs.next());
+					assertEquals(4, rs.getInt(1));
+				}
+			} catch (InterruptedException e) {
+				fail(e.toString());
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetConnection;
+
+public class Test_41_MetaDataCache {
+
+	@Test
+	public void metaDataCache() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::metaDataCache);
+	}
+
+	@Test
+	public void metaDataCacheCommit() {
+		Properties props = new Properties();
+		props.setProperty("metadata_cache_limit", "4");
+		// Both connections share the catalog cache generation of the same database
+		try (Connection conn1 = DriverManager.getConnection(AllTests.LOCAL_CONNECTION, props);
+				Connection conn2 = DriverManager.getConnection(AllTests.LOCAL_CONNECTION, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + AllTests.LOCAL_CONNECTION, conn1);
+			assertNotNull("Could not connect to database with connection string: " + AllTests.LOCAL_CONNECTION, conn2);
+			DatabaseMetaData dbMeta = conn2.getMetaData();
+
+			conn1.setAutoCommit(false);
+			try (Statement statement = conn1.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test41b (i INTEGER);");
+			}
+
+			// The uncommitted table is not seen by the other connection, which caches the result
+			assertEquals(0, countTables(dbMeta, "test41b"));
+			assertEquals(0, countTables(dbMeta, "test41b"));
+
+			// Enabling auto-commit commits the table, which invalidates the cached result
+			conn1.setAutoCommit(true);
+			assertEquals(1, countTables(dbMeta, "test41b"));
+
+			try (Statement statement = conn1.createStatement()) {
+				statement.executeUpdate("DROP TABLE test41b;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+
+	@Test
+	public void metaDataCacheSharedDatabase() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::metaDataCacheSharedDatabase);
+	}
+
+	private void metaDataCacheSharedDatabase(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("metadata_cache_limit", "4");
+		try (Connection conn1 = DriverManager.getConnection(connectionUrl, props);
+				Connection conn2 = DriverManager.getConnection(connectionUrl, new Properties());
+				Statement statement2 = conn2.createStatement()) {
+
+			DatabaseMetaData dbMeta = conn1.getMetaData();
+			assertEquals(0, countColumns(dbMeta, "test41c"));
+			assertEquals(0, countColumns(dbMeta, "test41c"));
+
+			// Schema changes through another connection to the same database invalidate the cached results,
+			// also when that connection does not cache catalog results itself
+			statement2.executeUpdate("CREATE TABLE test41c (i INTEGER);");
+			assertEquals(1, countColumns(dbMeta, "test41c"));
+			statement2.executeUpdate("ALTER TABLE test41c ADD COLUMN s STRING;");
+			assertEquals(2, countColumns(dbMeta, "test41c"));
+			statement2.executeUpdate("DROP TABLE test41c;");
+			assertEquals(0, countColumns(dbMeta, "test41c"));
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+
+		// The cache is disabled by default
+		try (Connection conn = DriverManager.getConnection(connectionUrl, new Properties())) {
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			DatabaseMetaData dbMeta = conn.getMetaData();
+			assertEquals(0, countColumns(dbMeta, "test41c"));
+			assertEquals(0, countColumns(dbMeta, "test41c"));
+			assertEquals(0, monetConn.getMetaDataCacheHits());
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+
+	private int countTables(DatabaseMetaData dbMeta, String table) throws SQLException {
+		try (ResultSet rs = dbMeta.getTables(null, "sys", table, null)) {
+			int count = 0;
+			while (rs.next())
+				count++;
+			return count;
+		}
+	}
+
+	private int countColumns(DatabaseMetaData dbMeta, String table) throws SQLException {
+		try (ResultSet rs = dbMeta.getColumns(null, "sys", table, null)) {
+			int count = 0;
+			while (rs.next()) {
+				assertEquals(table, rs.getString("TABLE_NAME"));
+				count++;
+			}
+			return count;
+		}
+	}
+
+	private void metaDataCache(String connectionUrl) {
+		Properties props = new Properties();
+		props.setProperty("metadata_cache_limit", "4");
+		try (Connection conn = DriverManager.getConnection(connectionUrl, props)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+			MonetConnection monetConn = conn.unwrap(MonetConnection.class);
+			DatabaseMetaData dbMeta = conn.getMetaData();
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test41 (i INTEGER, s STRING);");
+
+				// Repeated calls are answered from the cache
+				long hits = monetConn.getMetaDataCacheHits();
+				assertEquals(2, countColumns(dbMeta, "test41"));
+				assertEquals(hits, monetConn.getMetaDataCacheHits());
+				assertEquals(2, countColumns(dbMeta, "test41"));
+				assertEquals(hits + 1, monetConn.getMetaDataCacheHits());
+
+				// Data manipulation keeps the cached results
+				statement.executeUpdate("INSERT INTO test41 VALUES (1, 'one');");
+				assertEquals(2, countColumns(dbMeta, "test41"));
+				assertEquals(hits + 2, monetConn.getMetaDataCacheHits());
+
+				// Schema changes invalidate them
+				statement.executeUpdate("ALTER TABLE test41 ADD COLUMN d DOUBLE;");
+				assertEquals(3, countColumns(dbMeta, "test41"));
+				assertEquals(hits + 2, monetConn.getMetaDataCacheHits());
+			}
+
+			// A rolled back change is not seen afterwards
+			conn.setAutoCommit(false);
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("ALTER TABLE test41 DROP COLUMN d;");
+				assertEquals(2, countColumns(dbMeta, "test41"));
+				conn.rollback();
+				assertEquals(3, countColumns(dbMeta, "test41"));
+			}
+			conn.setAutoCommit(true);
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("DROP TABLE test41;");
+				assertEquals(0, countColumns(dbMeta, "test41"));
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
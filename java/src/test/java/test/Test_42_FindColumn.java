@@ -0,0 +1,65 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class Test_42_FindColumn {
+
+	@Test
+	public void findColumn() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::findColumn);
+	}
+
+	private void findColumn(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			try (Statement statement = conn.createStatement();
+					ResultSet rs = statement.executeQuery("SELECT 1 AS a, 2 AS \"B\", 3 AS \"Mixed\", 4 AS \"mixed\", 5 AS a;")) {
+				// Exact matches are preferred over case-insensitive ones, and the first of equal names is found
+				assertEquals(1, rs.findColumn("a"));
+				assertEquals(2, rs.findColumn("B"));
+				assertEquals(2, rs.findColumn("b"));
+				assertEquals(3, rs.findColumn("Mixed"));
+				assertEquals(4, rs.findColumn("mixed"));
+				assertEquals(3, rs.findColumn("MIXED"));
+
+				assertTrue(rs.next());
+				assertEquals(2, rs.getInt("b"));
+				assertEquals(4, rs.getInt("mixed"));
+
+				try {
+					rs.findColumn("c");
+					fail("Expected an exception for an unknown column");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+				}
+				try {
+					rs.findColumn(null);
+					fail("Expected an exception for a null label");
+				} catch (SQLException e) {
+					assertEquals("M1M05", e.getSQLState());
+				}
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.monetdb.monetdbe.MonetPreparedStatement;
+
+public class Test_43_StreamedParameters {
+
+	@Test
+	public void streamedParameters() {
+		Stream.of(AllTests.CONNECTIONS).forEach(this::streamedParameters);
+	}
+
+	private byte[] readBlob(ResultSet rs, int column) throws SQLException {
+		Blob blob = rs.getBlob(column);
+		return blob != null ? blob.getBytes(1, (int) blob.length()) : null;
+	}
+
+	private void streamedParameters(String connectionUrl) {
+		try (Connection conn = DriverManager.getConnection(connectionUrl, null)) {
+
+			assertNotNull("Could not connect to database with connection string: " + connectionUrl, conn);
+			assertFalse(conn.isClosed());
+
+			// Values larger than the chunks in which streams are read
+			byte[] bytes = new byte[3 * 1024 * 1024 + 17];
+			new Random(43).nextBytes(bytes);
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; sb.length() < 200000; i++)
+				sb.append(i % 2 == 0 ? "value " : "\u00e9t\u00e9 \ud83d\ude00 ").append(i);
+			String text = sb.toString();
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("CREATE TABLE test43 (i INTEGER, b BLOB, s STRING);");
+			}
+
+			try (PreparedStatement ps = conn.prepareStatement("INSERT INTO test43 VALUES (?, ?, ?);")) {
+				ps.setInt(1, 1);
+				ps.setBlob(2, new ByteArrayInputStream(bytes));
+				ps.setClob(3, new StringReader(text));
+				assertEquals(1, ps.executeUpdate());
+
+				// Only length bytes and characters are read
+				ps.setInt(1, 2);
+				ps.setBinaryStream(2, new ByteArrayInputStream(bytes), 1000L);
+				ps.setCharacterStream(3, new StringReader(text), 10L);
+				assertEquals(1, ps.executeUpdate());
+
+				// Remaining bytes of direct and heap buffers
+				MonetPreparedStatement mps = ps.unwrap(MonetPreparedStatement.class);
+				ByteBuffer direct = ByteBuffer.allocateDirect(100);
+				direct.put(bytes, 0, 100).flip().position(50);
+				ps.setInt(1, 3);
+				mps.setBlob(2, direct);
+				ps.setString(3, "direct");
+				assertEquals(1, ps.executeUpdate());
+				assertEquals(50, direct.position());
+				ps.setInt(1, 4);
+				mps.setBlob(2, ByteBuffer.wrap(bytes, 10, 20));
+				ps.setString(3, "heap");
+				assertEquals(1, ps.executeUpdate());
+
+				// Empty streams are NULL
+				ps.setInt(1, 5);
+				ps.setBlob(2, new ByteArrayInputStream(new byte[0]));
+				ps.setClob(3, (StringReader) null);
+				assertEquals(1, ps.executeUpdate());
+
+				// Streamed values can be batched
+				for (int i = 6; i < 9; i++) {
+					ps.setInt(1, i);
+					ps.setBlob(2, new ByteArrayInputStream(bytes, 0, i));
+					ps.setClob(3, new StringReader("row " + i));
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+
+			try (Statement statement = conn.createStatement();
+					ResultSet rs = statement.executeQuery("SELECT i, b, s FROM test43 ORDER BY i;")) {
+				assertTrue(rs.next());
+				assertArrayEquals(bytes, readBlob(rs, 2));
+				assertEquals(text, rs.getString(3));
+
+				assertTrue(rs.next());
+				assertArrayEquals(Arrays.copyOf(bytes, 1000), readBlob(rs, 2));
+				assertEquals(text.substring(0, 10), rs.getString(3));
+
+				assertTrue(rs.next());
+				assertArrayEquals(Arrays.copyOfRange(bytes, 50, 100), readBlob(rs, 2));
+				assertTrue(rs.next());
+				assertArrayEquals(Arrays.copyOfRange(bytes, 10, 30), readBlob(rs, 2));
+
+				assertTrue(rs.next());
+				assertNull(readBlob(rs, 2));
+				assertNull(rs.getString(3));
+
+				for (int i = 6; i < 9; i++) {
+					assertTrue(rs.next());
+					assertEquals(i, rs.getInt(1));
+					assertArrayEquals(Arrays.copyOf(bytes, i), readBlob(rs, 2));
+					assertEquals("row " + i, rs.getString(3));
+				}
+				assertFalse(rs.next());
+			}
+
+			try (Statement statement = conn.createStatement()) {
+				statement.executeUpdate("DROP TABLE test43;");
+			}
+
+		} catch (SQLException e) {
+
+			fail(e.toString());
+
+		}
+	}
+}
@@ -3,11 +3,130 @@
 #include "monetdbe.h"
 #include <string.h>
 #include <stdio.h>
+#include <limits.h>
+#ifdef _WIN32
+#include <windows.h>
+#else
+#include <pthread.h>
+#include <unistd.h>
+#endif
 
 //TODO Change macros to use MONETDBE_VERSION
 #define JUL2021_VERSION_MINOR 41
 #define JAN2022_VERSION_MINOR 44
 
+//Java classes, methods and fields used by the native library, looked up once in JNI_OnLoad
+//Classes are held as global references, so the IDs stay valid while the library is loaded
+static jclass j_string_class;
+static jclass j_byte_array_class;
+static jclass j_column_class;
+static jclass j_result_set_class;
+static jclass j_byte_buffer_class;
+static jclass j_string_column_class;
+
+static jmethodID j_column_var_constructor;
+static jmethodID j_column_const_constructor;
+static jmethodID j_result_set_constructor;
+static jmethodID j_byte_buffer_allocate_direct;
+static jmethodID j_string_column_constructor;
+
+static jfieldID j_connection_db_native;
+static jfieldID j_statement_result_set;
+static jfieldID j_statement_update_count;
+static jfieldID j_statement_large_update_count;
+static jfieldID j_prepared_statement_native;
+static jfieldID j_prepared_n_params;
+static jfieldID j_prepared_n_cols;
+static jfieldID j_prepared_monetdbe_types;
+static jfieldID j_prepared_param_types;
+static jfieldID j_prepared_digits_input;
+static jfieldID j_prepared_scale_input;
+static jfieldID j_prepared_result_types;
+static jfieldID j_prepared_result_names;
+static jfieldID j_prepared_digits_output;
+static jfieldID j_prepared_scale_output;
+
+//Defined with the parallel scan of result columns below
+void stopScanWorkers();
+
+//Returns a global reference to the class, or NULL if it could not be found
+jclass findGlobalClass(JNIEnv *env, const char *name)
+{
+    jclass local_class = (*env)->FindClass(env, name);
+    if (local_class == NULL)
+        return NULL;
+    jclass global_class = (*env)->NewGlobalRef(env, local_class);
+    (*env)->DeleteLocalRef(env, local_class);
+    return global_class;
+}
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *vm, void *reserved)
+{
+    JNIEnv *env;
+    if ((*vm)->GetEnv(vm, (void **)&env, JNI_VERSION_1_8) != JNI_OK)
+        return JNI_ERR;
+
+    if ((j_string_class = findGlobalClass(env, "java/lang/String")) == NULL ||
+        (j_byte_array_class = findGlobalClass(env, "[B")) == NULL ||
+        (j_column_class = findGlobalClass(env, "org/monetdb/monetdbe/MonetColumn")) == NULL ||
+        (j_result_set_class = findGlobalClass(env, "org/monetdb/monetdbe/MonetResultSet")) == NULL ||
+        (j_byte_buffer_class = findGlobalClass(env, "java/nio/ByteBuffer")) == NULL ||
+        (j_string_column_class = findGlobalClass(env, "org/monetdb/monetdbe/MonetStringColumn")) == NULL)
+        return JNI_ERR;
+
+    jclass j_connection_class = (*env)->FindClass(env, "org/monetdb/monetdbe/MonetConnection");
+    jclass j_statement_class = (*env)->FindClass(env, "org/monetdb/monetdbe/MonetStatement");
+    jclass j_prepared_class = (*env)->FindClass(env, "org/monetdb/monetdbe/MonetPreparedStatement");
+    if (j_connection_class == NULL || j_statement_class == NULL || j_prepared_class == NULL)
+        return JNI_ERR;
+
+    j_column_var_constructor = (*env)->GetMethodID(env, j_column_class, "<init>", "(Ljava/lang/String;I[Ljava/lang/Object;)V");
+    j_column_const_constructor = (*env)->GetMethodID(env, j_column_class, "<init>", "(Ljava/lang/String;ILjava/nio/ByteBuffer;II[J)V");
+    j_result_set_constructor = (*env)->GetMethodID(env, j_result_set_class, "<init>", "(Lorg/monetdb/monetdbe/MonetStatement;Ljava/nio/ByteBuffer;IILjava/lang/String;I)V");
+    j_byte_buffer_allocate_direct = (*env)->GetStaticMethodID(env, j_byte_buffer_class, "allocateDirect", "(I)Ljava/nio/ByteBuffer;");
+    j_string_column_constructor = (*env)->GetMethodID(env, j_string_column_class, "<init>", "(Ljava/lang/String;Ljava/nio/ByteBuffer;[I[Z)V");
+
+    j_connection_db_native = (*env)->GetFieldID(env, j_connection_class, "dbNative", "Ljava/nio/ByteBuffer;");
+    j_statement_result_set = (*env)->GetFieldID(env, j_statement_class, "resultSet", "Lorg/monetdb/monetdbe/MonetResultSet;");
+    j_statement_update_count = (*env)->GetFieldID(env, j_statement_class, "updateCount", "I");
+    j_statement_large_update_count = (*env)->GetFieldID(env, j_statement_class, "largeUpdateCount", "J");
+    j_prepared_statement_native = (*env)->GetFieldID(env, j_prepared_class, "statementNative", "Ljava/nio/ByteBuffer;");
+    j_prepared_n_params = (*env)->GetFieldID(env, j_prepared_class, "nParams", "I");
+    j_prepared_n_cols = (*env)->GetFieldID(env, j_prepared_class, "nCols", "I");
+    j_prepared_monetdbe_types = (*env)->GetFieldID(env, j_prepared_class, "monetdbeTypes", "[I");
+    j_prepared_param_types = (*env)->GetFieldID(env, j_prepared_class, "paramMonetGDKTypes", "[Ljava/lang/String;");
+    j_prepared_digits_input = (*env)->GetFieldID(env, j_prepared_class, "digitsInput", "[I");
+    j_prepared_scale_input = (*env)->GetFieldID(env, j_prepared_class, "scaleInput", "[I");
+    j_prepared_result_types = (*env)->GetFieldID(env, j_prepared_class, "resultMonetGDKTypes", "[Ljava/lang/String;");
+    j_prepared_result_names = (*env)->GetFieldID(env, j_prepared_class, "resultNames", "[Ljava/lang/String;");
+    j_prepared_digits_output = (*env)->GetFieldID(env, j_prepared_class, "digitsOutput", "[I");
+    j_prepared_scale_output = (*env)->GetFieldID(env, j_prepared_class, "scaleOutput", "[I");
+
+    (*env)->DeleteLocalRef(env, j_connection_class);
+    (*env)->DeleteLocalRef(env, j_statement_class);
+    (*env)->DeleteLocalRef(env, j_prepared_class);
+
+    //A missing method or field leaves a pending NoSuchMethodError/NoSuchFieldError
+    if ((*env)->ExceptionCheck(env))
+        return JNI_ERR;
+    return JNI_VERSION_1_8;
+}
+
+JNIEXPORT void JNICALL JNI_OnUnload(JavaVM *vm, void *reserved)
+{
+    JNIEnv *env;
+    if ((*vm)->GetEnv(vm, (void **)&env, JNI_VERSION_1_8) != JNI_OK)
+        return;
+
+    (*env)->DeleteGlobalRef(env, j_string_class);
+    (*env)->DeleteGlobalRef(env, j_byte_array_class);
+    (*env)->DeleteGlobalRef(env, j_column_class);
+    (*env)->DeleteGlobalRef(env, j_result_set_class);
+    (*env)->DeleteGlobalRef(env, j_byte_buffer_class);
+    (*env)->DeleteGlobalRef(env, j_string_column_class);
+    stopScanWorkers();
+}
+
 void set_options_log (JNIEnv *env, monetdbe_options *opts, jstring j_logfile) {
 #ifdef MONETDBE_VERSION
     if (j_logfile != NULL)
@@ -95,9 +214,7 @@ jstring open_db(JNIEnv *env, jstring j_url, monetdbe_options *opts, jobject j_co
     else
     {
         //Set DB reference in Connection object that called the method
-        jclass connectionClass = (*env)->GetObjectClass(env, j_connection);
-        jfieldID dbNativeField = (*env)->GetFieldID(env, connectionClass, "dbNative", "Ljava/nio/ByteBuffer;");
-        (*env)->SetObjectField(env, j_connection, dbNativeField, (*env)->NewDirectByteBuffer(env, (*db), sizeof(monetdbe_database)));
+        (*env)->SetObjectField(env, j_connection, j_connection_db_native, (*env)->NewDirectByteBuffer(env, (*db), sizeof(monetdbe_database)));
         return NULL;
     }
 }
@@ -176,31 +293,25 @@ JNIEXPORT jboolean JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1get_1
 
 void returnResult(JNIEnv *env, jobject j_statement, jboolean largeUpdate, monetdbe_result **result, monetdbe_cnt *affected_rows, jint maxrows)
 {
-    jclass statementClass = (*env)->GetObjectClass(env, j_statement);
     //Query with table result
     if ((*result) && (*result)->ncols > 0)
     {
         jobject resultNative = (*env)->NewDirectByteBuffer(env, (*result), sizeof(monetdbe_result));
         jstring resultSetName = (*env)->NewStringUTF(env, (const char *)(*result)->name);
-        jclass resultSetClass = (*env)->FindClass(env, "Lorg/monetdb/monetdbe/MonetResultSet;");
-        jmethodID constructor = (*env)->GetMethodID(env, resultSetClass, "<init>", "(Lorg/monetdb/monetdbe/MonetStatement;Ljava/nio/ByteBuffer;IILjava/lang/String;I)V");
-        jobject resultSetObject = (*env)->NewObject(env, resultSetClass, constructor, j_statement, resultNative, (*result)->nrows, (*result)->ncols, resultSetName, maxrows);
+        jobject resultSetObject = (*env)->NewObject(env, j_result_set_class, j_result_set_constructor, j_statement, resultNative, (*result)->nrows, (*result)->ncols, resultSetName, maxrows);
         free(affected_rows);
-        jfieldID resultSetField = (*env)->GetFieldID(env, statementClass, "resultSet", "Lorg/monetdb/monetdbe/MonetResultSet;");
-        (*env)->SetObjectField(env, j_statement, resultSetField, resultSetObject);
+        (*env)->SetObjectField(env, j_statement, j_statement_result_set, resultSetObject);
     }
     //Update query
     else
     {
         if (largeUpdate)
         {
-            jfieldID affectRowsField = (*env)->GetFieldID(env, statementClass, "largeUpdateCount", "J");
-            (*env)->SetLongField(env, j_statement, affectRowsField, (jlong)(*affected_rows));
+            (*env)->SetLongField(env, j_statement, j_statement_large_update_count, (jlong)(*affected_rows));
         }
         else
         {
-            jfieldID affectRowsField = (*env)->GetFieldID(env, statementClass, "updateCount", "I");
-            (*env)->SetIntField(env, j_statement, affectRowsField, (jint)(*affected_rows));
+            (*env)->SetIntField(env, j_statement, j_statement_update_count, (jint)(*affected_rows));
         }
         free(affected_rows);
         free(result);
@@ -232,10 +343,52 @@ void addColumnVar(JNIEnv *env, jobjectArray j_columns, int index, int type, char
 {
     //Create Java class for result column and set it in the column array
     jstring j_name = (*env)->NewStringUTF(env, (const char *)name);
-    jclass j_column = (*env)->FindClass(env, "Lorg/monetdb/monetdbe/MonetColumn;");
-    jmethodID constructor = (*env)->GetMethodID(env, j_column, "<init>", "(Ljava/lang/String;I[Ljava/lang/Object;)V");
-    jobject j_column_object = (*env)->NewObject(env, j_column, constructor, j_name, type, j_data);
+    jobject j_column_object = (*env)->NewObject(env, j_column_class, j_column_var_constructor, j_name, type, j_data);
     (*env)->SetObjectArrayElement(env, j_columns, index, j_column_object);
+
+    //The column is only referenced from the column array, free the local references so they don't accumulate over columns
+    (*env)->DeleteLocalRef(env, j_column_object);
+    (*env)->DeleteLocalRef(env, j_name);
+}
+
+//Number of 64-bit words of a null bitmap with row_count rows
+int nullBitmapWords(int row_count)
+{
+    return (row_count + 63) / 64;
+}
+
+//Sets the bit of a row in a null bitmap, allocating the bitmap on the first NULL value
+jlong *setNullBit(jlong *nulls, int row_count, int row)
+{
+    if (nulls == NULL)
+        nulls = calloc(nullBitmapWords(row_count), sizeof(jlong));
+    nulls[row / 64] |= (jlong)((unsigned long long)1 << (row % 64));
+    return nulls;
+}
+
+//Creates a constant length MonetColumn over a direct ByteBuffer with row_count values, freeing the null bitmap
+//Numeric columns are passed without a bitmap, MonetColumn finds their NULL values when they are first checked
+void addColumnBuffer(JNIEnv *env, jobjectArray j_columns, jobject j_data, char *name, int type, int row_count, int column_number, int precision, int scale, jlong *nulls)
+{
+    jstring j_name = (*env)->NewStringUTF(env, (const char *)name);
+    jlongArray j_nulls = NULL;
+
+    if (nulls != NULL)
+    {
+        j_nulls = (*env)->NewLongArray(env, nullBitmapWords(row_count));
+        (*env)->SetLongArrayRegion(env, j_nulls, 0, nullBitmapWords(row_count), nulls);
+        free(nulls);
+    }
+
+    jobject j_column_object = (*env)->NewObject(env, j_column_class, j_column_const_constructor, j_name, (jint)type, j_data, precision, scale, j_nulls);
+    (*env)->SetObjectArrayElement(env, j_columns, column_number, j_column_object);
+
+    //The column is only referenced from the column array, free the local references so they don't accumulate over columns
+    (*env)->DeleteLocalRef(env, j_column_object);
+    (*env)->DeleteLocalRef(env, j_name);
+    (*env)->DeleteLocalRef(env, j_data);
+    if (j_nulls != NULL)
+        (*env)->DeleteLocalRef(env, j_nulls);
 }
 
 //True (1) if time is validated, False (0) if otherwise
@@ -256,106 +409,120 @@ int validateDate(monetdbe_data_date d)
         return 0;
 }
 
-void parseColumnTimestamp(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_timestamp *column)
+//Days since 1970-01-01 of a proleptic Gregorian calendar date
+int epochDay(monetdbe_data_date d)
+{
+    int year = d.year - (d.month <= 2);
+    int era = (year >= 0 ? year : year - 399) / 400;
+    int year_of_era = year - era * 400;
+    int day_of_year = (153 * (d.month + (d.month > 2 ? -3 : 9)) + 2) / 5 + d.day - 1;
+    int day_of_era = year_of_era * 365 + year_of_era / 4 - year_of_era / 100 + day_of_year;
+    return era * 146097 + day_of_era - 719468;
+}
+
+//Microseconds since midnight (the time's ms field holds milliseconds)
+long long microOfDay(monetdbe_data_time t)
+{
+    return ((long long)t.hours * 3600 + t.minutes * 60 + t.seconds) * 1000000LL + (long long)t.ms * 1000LL;
+}
+
+//Leaves a pending exception of the given class, thrown in Java when the native method returns
+void throwJavaException(JNIEnv *env, const char *class_name, const char *message)
+{
+    jclass j_exception_class = (*env)->FindClass(env, class_name);
+    if (j_exception_class != NULL)
+        (*env)->ThrowNew(env, j_exception_class, message);
+}
+
+//Allocates a direct ByteBuffer on the Java heap, which the garbage collector frees together with its MonetColumn
+//Returns NULL with a pending exception if the size does not fit in a ByteBuffer or the allocation failed
+jobject allocateDirectBuffer(JNIEnv *env, jlong size, void **address)
 {
-    jclass j_timestamp_class = (*env)->FindClass(env, "Ljava/time/LocalDateTime;");
-    jmethodID timestamp_constructor = (*env)->GetStaticMethodID(env, j_timestamp_class, "of", "(IIIIIII)Ljava/time/LocalDateTime;");
+    *address = NULL;
+    if (size < 0 || size > INT_MAX)
+    {
+        throwJavaException(env, "java/lang/OutOfMemoryError", "Column data exceeds the maximum ByteBuffer size");
+        return NULL;
+    }
+    jobject j_data = (*env)->CallStaticObjectMethod(env, j_byte_buffer_class, j_byte_buffer_allocate_direct, (jint)size);
+    if ((*env)->ExceptionCheck(env) || j_data == NULL)
+    {
+        return NULL;
+    }
+    *address = (*env)->GetDirectBufferAddress(env, j_data);
+    return j_data;
+}
 
-    jobjectArray j_data = (*env)->NewObjectArray(env, column->count, j_timestamp_class, NULL);
-    monetdbe_data_timestamp *timestamps = (monetdbe_data_timestamp *)column->data;
+//Temporal columns are stored as packed primitives instead of one java.time object per row:
+//timestamps as microseconds since the epoch (int64), times as nanoseconds of the day (int64) and dates as days since the epoch (int32)
+//NULL and invalid values are reported in the null bitmap, and stored as 0
+//The scan functions only touch native memory (the values are written in a direct ByteBuffer allocated beforehand), so they can run on a worker thread
+jlong *scanColumnTimestamp(monetdbe_column_timestamp *column, int offset, int row_count, jlong *data)
+{
+    monetdbe_data_timestamp *timestamps = (monetdbe_data_timestamp *)column->data + offset;
+    jlong *nulls = NULL;
 
-    for (int i = 0; i < column->count; i++)
+    for (int i = 0; i < row_count; i++)
     {
         if (column->is_null(&timestamps[i]) == 0 && validateDate(timestamps[i].date) && validateTime(timestamps[i].time))
         {
-            monetdbe_data_time time = timestamps[i].time;
-            monetdbe_data_date date = timestamps[i].date;
-            jobject j_timestamp = (*env)->CallStaticObjectMethod(env, j_timestamp_class, timestamp_constructor, (int)date.year, (int)date.month, (int)date.day, (int)time.hours, (int)time.minutes, (int)time.seconds, ((int)time.ms) * 1000000);
-            (*env)->SetObjectArrayElement(env, j_data, i, j_timestamp);
+            data[i] = (jlong)epochDay(timestamps[i].date) * 86400000000LL + microOfDay(timestamps[i].time);
         }
         else
         {
-            (*env)->SetObjectArrayElement(env, j_data, i, NULL);
+            nulls = setNullBit(nulls, row_count, i);
+            data[i] = 0;
         }
     }
-
-    int type = column->type;
-//If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined
-#ifndef HAVE_HGE
-    type = type + 1;
-#endif
-
-    //Inserting LocalDateTime[] in MonetColumn
-    addColumnVar(env, j_columns, index, type, column->name, j_data);
+    return nulls;
 }
 
-void parseColumnTime(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_time *column)
+jlong *scanColumnTime(monetdbe_column_time *column, int offset, int row_count, jlong *data)
 {
-    jclass j_time_class = (*env)->FindClass(env, "Ljava/time/LocalTime;");
-    jmethodID time_constructor = (*env)->GetStaticMethodID(env, j_time_class, "of", "(IIII)Ljava/time/LocalTime;");
-
-    jobjectArray j_data = (*env)->NewObjectArray(env, column->count, j_time_class, NULL);
-    monetdbe_data_time *times = (monetdbe_data_time *)column->data;
+    monetdbe_data_time *times = (monetdbe_data_time *)column->data + offset;
+    jlong *nulls = NULL;
 
-    for (int i = 0; i < column->count; i++)
+    for (int i = 0; i < row_count; i++)
     {
         if (column->is_null(&times[i]) == 0 && validateTime(times[i]))
         {
-            jobject j_time = (*env)->CallStaticObjectMethod(env, j_time_class, time_constructor, (int)times[i].hours, (int)times[i].minutes, (int)times[i].seconds, (int)times[i].ms);
-            (*env)->SetObjectArrayElement(env, j_data, i, j_time);
+            data[i] = (jlong)microOfDay(times[i]) * 1000LL;
         }
         else
         {
-            (*env)->SetObjectArrayElement(env, j_data, i, NULL);
+            nulls = setNullBit(nulls, row_count, i);
+            data[i] = 0;
         }
     }
-    int type = column->type;
-//If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined
-#ifndef HAVE_HGE
-    type = type + 1;
-#endif
-
-    //Inserting LocalTime[] in MonetColumn
-    addColumnVar(env, j_columns, index, type, column->name, j_data);
+    return nulls;
 }
 
-void parseColumnDate(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_date *column)
+jlong *scanColumnDate(monetdbe_column_date *column, int offset, int row_count, jint *data)
 {
-    jclass j_date_class = (*env)->FindClass(env, "Ljava/time/LocalDate;");
-    jmethodID date_constructor = (*env)->GetStaticMethodID(env, j_date_class, "of", "(III)Ljava/time/LocalDate;");
-
-    jobjectArray j_data = (*env)->NewObjectArray(env, column->count, j_date_class, NULL);
-    monetdbe_data_date *dates = (monetdbe_data_date *)column->data;
+    monetdbe_data_date *dates = (monetdbe_data_date *)column->data + offset;
+    jlong *nulls = NULL;
 
-    for (int i = 0; i < column->count; i++)
+    for (int i = 0; i < row_count; i++)
     {
         if (column->is_null(&dates[i]) == 0 && validateDate(dates[i]))
         {
-            jobject j_date = (*env)->CallStaticObjectMethod(env, j_date_class, date_constructor, (int)dates[i].year, (int)dates[i].month, (int)dates[i].day);
-            (*env)->SetObjectArrayElement(env, j_data, i, j_date);
+            data[i] = (jint)epochDay(dates[i]);
         }
         else
         {
-            (*env)->SetObjectArrayElement(env, j_data, i, NULL);
+            nulls = setNullBit(nulls, row_count, i);
+            data[i] = 0;
         }
     }
-
-    int type = column->type;
-//If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined
-#ifndef HAVE_HGE
-    type = type + 1;
-#endif
-
-    //Inserting LocalDate[] in MonetColumn
-    addColumnVar(env, j_columns, index, type, column->name, j_data);
+    return nulls;
 }
 
-void parseColumnString(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_str *column)
+void parseColumnString(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_str *column, int offset, int row_count)
 {
-    jobjectArray j_data = (*env)->NewObjectArray(env, column->count, (*env)->FindClass(env, "Ljava/lang/String;"), NULL);
-    char **strings = (char **)column->data;
+    jobjectArray j_data = (*env)->NewObjectArray(env, row_count, j_string_class, NULL);
+    char **strings = (char **)column->data + offset;
 
-    for (int i = 0; i < column->count; i++)
+    for (int i = 0; i < row_count; i++)
     {
         if (column->is_null(&strings[i]) == 1)
         {
@@ -365,6 +532,7 @@ void parseColumnString(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_
         {
             jobject j_string = (*env)->NewStringUTF(env, (const char *)(strings[i]));
             (*env)->SetObjectArrayElement(env, j_data, i, j_string);
+            (*env)->DeleteLocalRef(env, j_string);
         }
     }
 
@@ -376,14 +544,15 @@ void parseColumnString(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_
 
     //Inserting String[] in MonetColumn
     addColumnVar(env, j_columns, index, type, column->name, j_data);
+    (*env)->DeleteLocalRef(env, j_data);
 }
 
-void parseColumnBlob(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_blob *column)
+void parseColumnBlob(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_column_blob *column, int offset, int row_count)
 {
-    jobjectArray j_data = (*env)->NewObjectArray(env, column->count, (*env)->FindClass(env, "[B"), NULL);
-    monetdbe_data_blob *blob_data = (monetdbe_data_blob *)column->data;
+    jobjectArray j_data = (*env)->NewObjectArray(env, row_count, j_byte_array_class, NULL);
+    monetdbe_data_blob *blob_data = (monetdbe_data_blob *)column->data + offset;
 
-    for (int i = 0; i < column->count; i++)
+    for (int i = 0; i < row_count; i++)
     {
         if (column->is_null(&blob_data[i]) == 1)
         {
@@ -394,6 +563,7 @@ void parseColumnBlob(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_co
             jbyteArray j_byte_array = (*env)->NewByteArray(env, blob_data[i].size);
             (*env)->SetByteArrayRegion(env, j_byte_array, 0, blob_data[i].size, (jbyte *)blob_data[i].data);
             (*env)->SetObjectArrayElement(env, j_data, i, j_byte_array);
+            (*env)->DeleteLocalRef(env, j_byte_array);
         }
     }
 
@@ -405,27 +575,24 @@ void parseColumnBlob(JNIEnv *env, jobjectArray j_columns, int index, monetdbe_co
 
     //Inserting byte[][] in MonetColumn
     addColumnVar(env, j_columns, index, type, column->name, j_data);
+    (*env)->DeleteLocalRef(env, j_data);
 }
 
-void addColumnConst(JNIEnv *env, jobjectArray j_columns, void *data, char *name, int type, int row_count, int row_size, int column_number, int precision, int scale, unsigned char *decimalNulls)
+//row_size is the size in bytes of a single value of the column
+void addColumnConst(JNIEnv *env, jobjectArray j_columns, void *data, char *name, int type, int row_count, int row_size, int column_number, int precision, int scale)
 {
     jobject j_data = (*env)->NewDirectByteBuffer(env, data, row_count * row_size);
-    jstring j_name = (*env)->NewStringUTF(env, (const char *)name);
-    jbooleanArray j_decimal_nulls = NULL;
-
-    if (decimalNulls != NULL)
-    {
-        j_decimal_nulls = (*env)->NewBooleanArray(env, row_count);
-        //unsigned char* translates to jboolean*
-        (*env)->SetBooleanArrayRegion(env, j_decimal_nulls, 0, row_count, (jboolean *)decimalNulls);
-        free(decimalNulls);
-    }
-
-    jclass j_column = (*env)->FindClass(env, "Lorg/monetdb/monetdbe/MonetColumn;");
-    jmethodID constructor = (*env)->GetMethodID(env, j_column, "<init>", "(Ljava/lang/String;ILjava/nio/ByteBuffer;II[Z)V");
+    addColumnBuffer(env, j_columns, j_data, name, type, row_count, column_number, precision, scale, NULL);
+}
 
-    jobject j_column_object = (*env)->NewObject(env, j_column, constructor, j_name, (jint)type, j_data, precision, scale, j_decimal_nulls);
-    (*env)->SetObjectArrayElement(env, j_columns, column_number, j_column_object);
+//Number of rows of a column with columnCount rows that fall inside the window [offset, offset + count)
+int windowRowCount(int columnCount, int offset, int count)
+{
+    if (offset >= columnCount)
+        return 0;
+    if (count > columnCount - offset)
+        return columnCount - offset;
+    return count;
 }
 
 //In Jul2021 and before, scale is represented with 10^scale
@@ -441,265 +608,550 @@ int convertScale(int originalScale) {
     return newScale;
 }
 
+//A result column while it is converted to a MonetColumn. The conversion takes three steps:
+//beginColumn fetches the column from the result and allocates the Java buffer of temporal columns (on the calling thread),
+//scanColumn converts temporal values and marks their NULL rows without calling into the JVM or MonetDB (on any thread),
+//finishColumn creates the MonetColumn (on the calling thread)
+//Numeric columns are not scanned: MonetDB's buffer is passed as it is, MonetColumn finds its NULL values when they are first checked
+typedef struct
+{
+    monetdbe_column *column;
+    //Window of the column [offset, offset + row_count) which is converted
+    int offset;
+    int row_count;
+    //Null bitmap of the window of temporal columns, NULL if the window has no NULL values (freed by finishColumn)
+    jlong *nulls;
+    //Direct ByteBuffer holding the converted values of temporal columns, and its address
+    jobject j_data;
+    void *data;
+} column_conversion;
+
+//Fetches result column column_index and prepares the conversion of the rows [offset, offset + count)
+//monetdbe_result_fetch converts the whole column natively (and keeps it in the result) even for an empty window
+//Returns 0 with a pending exception if the column could not be fetched (an SQLException with MonetDB's error), its type is not supported
+//or its buffer could not be allocated, 1 otherwise
+int beginColumn(JNIEnv *env, monetdbe_result *rs, column_conversion *conv, int column_index, int offset, int count)
+{
+    char *error_msg = monetdbe_result_fetch(rs, &conv->column, column_index);
+    if (error_msg)
+    {
+        throwJavaException(env, "java/sql/SQLException", error_msg);
+        return 0;
+    }
+    conv->offset = offset;
+    conv->row_count = windowRowCount(conv->column->count, offset, count);
+    conv->nulls = NULL;
+    conv->j_data = NULL;
+    conv->data = NULL;
+
+    switch (conv->column->type)
+    {
+    case monetdbe_bool:
+    case monetdbe_int8_t:
+    case monetdbe_int16_t:
+    case monetdbe_int32_t:
+    case monetdbe_int64_t:
+#ifdef HAVE_HGE
+    case monetdbe_int128_t:
+#endif
+    case monetdbe_float:
+    case monetdbe_double:
+    case monetdbe_str:
+    case monetdbe_blob:
+        return 1;
+    case monetdbe_date:
+        conv->j_data = allocateDirectBuffer(env, (jlong)conv->row_count * (jlong)sizeof(jint), &conv->data);
+        return conv->j_data != NULL;
+    case monetdbe_time:
+    case monetdbe_timestamp:
+        conv->j_data = allocateDirectBuffer(env, (jlong)conv->row_count * (jlong)sizeof(jlong), &conv->data);
+        return conv->j_data != NULL;
+    default:
+        throwJavaException(env, "java/sql/SQLException", "Unsupported result column type");
+        return 0;
+    }
+}
+
+//Converts the window of a temporal column into its Java buffer, marking NULL and invalid values in the null bitmap
+//Only touches native memory owned by this column, so the columns of a result can be scanned in parallel
+void scanColumn(column_conversion *conv)
+{
+    monetdbe_column *column = conv->column;
+
+    switch (column->type)
+    {
+    case monetdbe_date:
+        conv->nulls = scanColumnDate((monetdbe_column_date *)column, conv->offset, conv->row_count, (jint *)conv->data);
+        break;
+    case monetdbe_time:
+        conv->nulls = scanColumnTime((monetdbe_column_time *)column, conv->offset, conv->row_count, (jlong *)conv->data);
+        break;
+    case monetdbe_timestamp:
+        conv->nulls = scanColumnTimestamp((monetdbe_column_timestamp *)column, conv->offset, conv->row_count, (jlong *)conv->data);
+        break;
+    default:
+        //Numeric columns are checked for NULL by MonetColumn, strings and blobs while their Java objects are created
+        break;
+    }
+}
+
+//Creates the MonetColumn of a scanned column, stored at position i of j_columns
+void finishColumn(JNIEnv *env, jobjectArray j_columns, int i, column_conversion *conv)
+{
+    monetdbe_column *column = conv->column;
+    int offset = conv->offset;
+    int row_count = conv->row_count;
+    jlong *nulls = conv->nulls;
+
+    int type = column->type;
+    //If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined (for types after int128)
+#ifndef HAVE_HGE
+    if (type > monetdbe_int64_t)
+        type = type + 1;
+#endif
+
+    switch (column->type)
+    {
+    case monetdbe_bool:
+    {
+        monetdbe_column_bool *c_bool = (monetdbe_column_bool *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_bool->data + offset, c_bool->name, type, row_count, 1, i, c_bool->sql_type.digits, c_bool->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_bool->data + offset, c_bool->name, type, row_count, 1, i, 0, 0);
+        #endif
+        break;
+    }
+    case monetdbe_int8_t:
+    {
+        monetdbe_column_int8_t *c_int8_t = (monetdbe_column_int8_t *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_int8_t->data + offset, c_int8_t->name, type, row_count, 1, i, c_int8_t->sql_type.digits, c_int8_t->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_int8_t->data + offset, c_int8_t->name, type, row_count, 1, i, 0, convertScale(c_int8_t->scale));
+        #endif
+        break;
+    }
+    case monetdbe_int16_t:
+    {
+        monetdbe_column_int16_t *c_int16_t = (monetdbe_column_int16_t *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_int16_t->data + offset, c_int16_t->name, type, row_count, 2, i, c_int16_t->sql_type.digits, c_int16_t->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_int16_t->data + offset, c_int16_t->name, type, row_count, 2, i, 0, convertScale(c_int16_t->scale));
+        #endif
+        break;
+    }
+    case monetdbe_int32_t:
+    {
+        monetdbe_column_int32_t *c_int32_t = (monetdbe_column_int32_t *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_int32_t->data + offset, c_int32_t->name, type, row_count, 4, i, c_int32_t->sql_type.digits, c_int32_t->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_int32_t->data + offset, c_int32_t->name, type, row_count, 4, i, 0, convertScale(c_int32_t->scale));
+        #endif
+        break;
+    }
+    case monetdbe_int64_t:
+    {
+        monetdbe_column_int64_t *c_int64_t = (monetdbe_column_int64_t *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_int64_t->data + offset, c_int64_t->name, type, row_count, 8, i, c_int64_t->sql_type.digits, c_int64_t->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_int64_t->data + offset, c_int64_t->name, type, row_count, 8, i, 0, convertScale(c_int64_t->scale));
+        #endif
+        break;
+    }
+#ifdef HAVE_HGE
+    case monetdbe_int128_t:
+    {
+        monetdbe_column_int128_t *c_int128_t = (monetdbe_column_int128_t *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_int128_t->data + offset, c_int128_t->name, type, row_count, 16, i, c_int128_t->sql_type.digits, c_int128_t->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_int128_t->data + offset, c_int128_t->name, type, row_count, 16, i, 0, convertScale(c_int128_t->scale));
+        #endif
+        break;
+    }
+#endif
+    case monetdbe_float:
+    {
+        monetdbe_column_float *c_float = (monetdbe_column_float *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_float->data + offset, c_float->name, type, row_count, 4, i, c_float->sql_type.digits, c_float->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_float->data + offset, c_float->name, type, row_count, 4, i, 0, 0);
+        #endif
+        break;
+    }
+    case monetdbe_double:
+    {
+        monetdbe_column_double *c_double = (monetdbe_column_double *)column;
+        #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
+            addColumnConst(env, j_columns, c_double->data + offset, c_double->name, type, row_count, 8, i, c_double->sql_type.digits, c_double->sql_type.scale);
+        #else
+            addColumnConst(env, j_columns, c_double->data + offset, c_double->name, type, row_count, 8, i, 0, 0);
+        #endif
+        break;
+    }
+    case monetdbe_str:
+        parseColumnString(env, j_columns, i, (monetdbe_column_str *)column, offset, row_count);
+        break;
+    case monetdbe_blob:
+        parseColumnBlob(env, j_columns, i, (monetdbe_column_blob *)column, offset, row_count);
+        break;
+    case monetdbe_date:
+        //Inserting epoch days in MonetColumn
+        addColumnBuffer(env, j_columns, conv->j_data, column->name, type, row_count, i, 0, 0, nulls);
+        break;
+    case monetdbe_time:
+        //Inserting nanoseconds of the day in MonetColumn
+        addColumnBuffer(env, j_columns, conv->j_data, column->name, type, row_count, i, 0, 0, nulls);
+        break;
+    case monetdbe_timestamp:
+        //Inserting epoch microseconds in MonetColumn
+        addColumnBuffer(env, j_columns, conv->j_data, column->name, type, row_count, i, 0, 0, nulls);
+        break;
+    default:
+        free(nulls);
+        break;
+    }
+}
+
+//Results with fewer values are scanned on the calling thread, as handing columns to worker threads would take longer than the scan itself
+#define PARALLEL_SCAN_MIN_VALUES 65536
+//Maximum number of threads scanning the columns of a result, including the calling thread
+#define PARALLEL_SCAN_MAX_THREADS 16
+
+//Columns scanned by one thread: columns first, first + step, first + 2 * step, ...
+typedef struct
+{
+    column_conversion **columns;
+    int ncols;
+    int first;
+    int step;
+} scan_task;
+
+void runScanTask(scan_task *task)
+{
+    for (int i = task->first; i < task->ncols; i += task->step)
+        scanColumn(task->columns[i]);
+}
+
+#ifdef _WIN32
+typedef SRWLOCK scan_mutex;
+typedef CONDITION_VARIABLE scan_cond;
+typedef HANDLE scan_thread;
+#define SCAN_MUTEX_INIT SRWLOCK_INIT
+#define SCAN_COND_INIT CONDITION_VARIABLE_INIT
+#define scanLock(m) AcquireSRWLockExclusive(m)
+#define scanUnlock(m) ReleaseSRWLockExclusive(m)
+#define scanWait(c, m) SleepConditionVariableSRW(c, m, INFINITE, 0)
+#define scanSignalAll(c) WakeAllConditionVariable(c)
+#else
+typedef pthread_mutex_t scan_mutex;
+typedef pthread_cond_t scan_cond;
+typedef pthread_t scan_thread;
+#define SCAN_MUTEX_INIT PTHREAD_MUTEX_INITIALIZER
+#define SCAN_COND_INIT PTHREAD_COND_INITIALIZER
+#define scanLock(m) pthread_mutex_lock(m)
+#define scanUnlock(m) pthread_mutex_unlock(m)
+#define scanWait(c, m) pthread_cond_wait(c, m)
+#define scanSignalAll(c) pthread_cond_broadcast(c)
+#endif
+
+//Worker threads of the parallel scan. They are started when a scan first needs them and then wait for the tasks of later scans,
+//until the library is unloaded. Only one scan uses them at a time, concurrent scans run on their calling thread
+//scan_lock protects all fields below, scan_work is signalled when tasks are posted or the workers are stopped, scan_done when all tasks finished
+static scan_mutex scan_lock = SCAN_MUTEX_INIT;
+static scan_cond scan_work = SCAN_COND_INIT;
+static scan_cond scan_done = SCAN_COND_INIT;
+static scan_thread scan_workers[PARALLEL_SCAN_MAX_THREADS - 1];
+static int scan_nworkers = 0;
+static int scan_busy = 0;
+static int scan_stopped = 0;
+//Tasks of the current scan: scan_next is the next task to be taken, scan_pending the number of tasks which did not finish yet
+static scan_task scan_tasks[PARALLEL_SCAN_MAX_THREADS];
+static int scan_ntasks = 0;
+static int scan_next = 0;
+static int scan_pending = 0;
+
+#ifdef _WIN32
+DWORD WINAPI runScanWorker(LPVOID arg)
+#else
+void *runScanWorker(void *arg)
+#endif
+{
+    scanLock(&scan_lock);
+    for (;;)
+    {
+        while (!scan_stopped && scan_next >= scan_ntasks)
+            scanWait(&scan_work, &scan_lock);
+        if (scan_stopped)
+            break;
+        scan_task *task = &scan_tasks[scan_next++];
+        scanUnlock(&scan_lock);
+        runScanTask(task);
+        scanLock(&scan_lock);
+        if (--scan_pending == 0)
+            scanSignalAll(&scan_done);
+    }
+    scanUnlock(&scan_lock);
+    return 0;
+}
+
+int startScanWorker(scan_thread *thread)
+{
+#ifdef _WIN32
+    *thread = CreateThread(NULL, 0, runScanWorker, NULL, 0, NULL);
+    return *thread != NULL;
+#else
+    return pthread_create(thread, NULL, runScanWorker, NULL) == 0;
+#endif
+}
+
+//Stops and joins the worker threads, called when the library is unloaded
+void stopScanWorkers()
+{
+    scanLock(&scan_lock);
+    scan_stopped = 1;
+    scanSignalAll(&scan_work);
+    scanUnlock(&scan_lock);
+    for (int t = 0; t < scan_nworkers; t++)
+    {
+#ifdef _WIN32
+        WaitForSingleObject(scan_workers[t], INFINITE);
+        CloseHandle(scan_workers[t]);
+#else
+        pthread_join(scan_workers[t], NULL);
+#endif
+    }
+    scan_nworkers = 0;
+}
+
+int availableProcessors()
+{
+#ifdef _WIN32
+    SYSTEM_INFO info;
+    GetSystemInfo(&info);
+    return (int)info.dwNumberOfProcessors;
+#else
+    long processors = sysconf(_SC_NPROCESSORS_ONLN);
+    return processors > 0 ? (int)processors : 1;
+#endif
+}
+
+//Scans the columns of a result which need it, on the worker threads for large results with more than one such column
+//The calling thread takes tasks too; if fewer workers could be started than there are tasks, it runs the remaining ones itself
+void scanColumns(column_conversion **columns, int ncols, long long values)
+{
+    int nthreads = availableProcessors();
+    if (nthreads > ncols)
+        nthreads = ncols;
+    if (nthreads > PARALLEL_SCAN_MAX_THREADS)
+        nthreads = PARALLEL_SCAN_MAX_THREADS;
+    if (nthreads >= 2 && values >= PARALLEL_SCAN_MIN_VALUES)
+    {
+        scanLock(&scan_lock);
+        if (!scan_busy && !scan_stopped)
+        {
+            scan_busy = 1;
+            while (scan_nworkers < nthreads - 1 && startScanWorker(&scan_workers[scan_nworkers]))
+                scan_nworkers++;
+            for (int t = 0; t < nthreads; t++)
+            {
+                scan_tasks[t].columns = columns;
+                scan_tasks[t].ncols = ncols;
+                scan_tasks[t].first = t;
+                scan_tasks[t].step = nthreads;
+            }
+            scan_ntasks = nthreads;
+            scan_next = 0;
+            scan_pending = nthreads;
+            scanSignalAll(&scan_work);
+            while (scan_next < scan_ntasks)
+            {
+                scan_task *task = &scan_tasks[scan_next++];
+                scanUnlock(&scan_lock);
+                runScanTask(task);
+                scanLock(&scan_lock);
+                scan_pending--;
+            }
+            while (scan_pending > 0)
+                scanWait(&scan_done, &scan_lock);
+            scan_ntasks = 0;
+            scan_next = 0;
+            scan_busy = 0;
+            scanUnlock(&scan_lock);
+            return;
+        }
+        scanUnlock(&scan_lock);
+    }
+    for (int i = 0; i < ncols; i++)
+        scanColumn(columns[i]);
+}
+
 //TODO Change the check for version from checking against the MonetDB Minor version to checking MONETDBE_VERSION (when it gets upgraded from 2.0.2 in Jan2022)
-JNIEXPORT jobjectArray JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1all(JNIEnv *env, jclass self, jobject j_rs, jint nrows, jint ncols)
+//Converts the rows [offset, offset + count) of every result column to a MonetColumn
+//The columns are fetched on the calling thread, temporal columns are converted in parallel and then all columns are turned into Java objects
+//one after another on the calling thread, as only the calling thread may use the JNIEnv
+//Only this path (MonetResultSet's materialize and fetchBatch) scans in parallel: fetch_column converts a single column on the calling thread
+jobjectArray fetchRows(JNIEnv *env, jobject j_rs, int offset, int count, int ncols)
 {
     monetdbe_result *rs = (*env)->GetDirectBufferAddress(env, j_rs);
-    monetdbe_column **column = malloc(sizeof(monetdbe_column *));
-    jobjectArray j_columns = (*env)->NewObjectArray(env, ncols, (*env)->FindClass(env, "Lorg/monetdb/monetdbe/MonetColumn;"), NULL);
+    column_conversion *columns = malloc(ncols * sizeof(column_conversion));
+    column_conversion **scanned = malloc(ncols * sizeof(column_conversion *));
+    if (columns == NULL || scanned == NULL)
+    {
+        free(columns);
+        free(scanned);
+        throwJavaException(env, "java/lang/OutOfMemoryError", "Could not allocate the conversion of the result columns");
+        return NULL;
+    }
+    int nscanned = 0;
+    long long values = 0;
 
+    //Temporal columns hold a local reference to their buffer until they are finished
+    (*env)->EnsureLocalCapacity(env, ncols + 16);
     for (int i = 0; i < ncols; i++)
     {
-        char *error_msg = monetdbe_result_fetch(rs, column, i);
-        if (error_msg)
+        if (!beginColumn(env, rs, &columns[i], i, offset, count))
         {
-            printf("Error in monetdbe_result_fetch: %s\n", error_msg);
+            free(columns);
+            free(scanned);
             return NULL;
         }
-        else
+        //Only temporal columns have a buffer to convert into
+        if (columns[i].data != NULL)
         {
-            switch ((*column)->type)
-            {
-            case monetdbe_bool:
-            {
-                monetdbe_column_bool *c_bool = (monetdbe_column_bool *)(*column);
-                for (int j = 0; j < c_bool->count; j++)
-                {
-                    if (c_bool->is_null(&c_bool->data[j]) == 1)
-                    {
-                        c_bool->data[j] = 0;
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_bool->data, c_bool->name, c_bool->type, c_bool->count, 8, i, c_bool->sql_type.digits, c_bool->sql_type.scale, NULL);
-                #else
-                    addColumnConst(env, j_columns, c_bool->data, c_bool->name, c_bool->type, c_bool->count, 8, i, 0, 0, NULL);
-                #endif
-                break;
-            }
-            case monetdbe_int8_t:
-            {
-                monetdbe_column_int8_t *c_int8_t = (monetdbe_column_int8_t *)(*column);
-                int row_count = c_int8_t->count;
-                unsigned char *decimalNulls = NULL;
+            scanned[nscanned++] = &columns[i];
+            values += columns[i].row_count;
+        }
+    }
 
-                for (int j = 0; j < row_count; j++)
-                {
-                    if (c_int8_t->is_null(&c_int8_t->data[j]) == 1)
-                    {
-                        c_int8_t->data[j] = 0;
-
-                        //Checking for decimal type nulls
-                        if (c_int8_t->scale != 0)
-                        {
-                            if (decimalNulls == NULL) {
-                                decimalNulls = calloc(row_count, sizeof(unsigned char));
-                            }
-                            decimalNulls[j] = 1;
-                        }
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_int8_t->data, c_int8_t->name, c_int8_t->type, row_count, 8, i, c_int8_t->sql_type.digits, c_int8_t->sql_type.scale, decimalNulls);
-                #else
-                    addColumnConst(env, j_columns, c_int8_t->data, c_int8_t->name, c_int8_t->type, row_count, 8, i, 0, convertScale(c_int8_t->scale), decimalNulls);
-                #endif
-                break;
-            }
-            case monetdbe_int16_t:
-            {
-                monetdbe_column_int16_t *c_int16_t = (monetdbe_column_int16_t *)(*column);
-                int row_count = c_int16_t->count;
-                unsigned char *decimalNulls = NULL;
+    scanColumns(scanned, nscanned, values);
+    free(scanned);
 
-                for (int j = 0; j < row_count; j++)
-                {
-                    if (c_int16_t->is_null(&c_int16_t->data[j]) == 1)
-                    {
-                        c_int16_t->data[j] = 0;
-
-                        //Checking for decimal type nulls
-                        if (c_int16_t->scale != 0)
-                        {
-                            if (decimalNulls == NULL) {
-                                decimalNulls = calloc(row_count, sizeof(unsigned char));
-                            }
-                            decimalNulls[j] = 1;
-                        }
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_int16_t->data, c_int16_t->name, c_int16_t->type, row_count, 16, i, c_int16_t->sql_type.digits, c_int16_t->sql_type.scale, decimalNulls);
-                #else
-                    addColumnConst(env, j_columns, c_int16_t->data, c_int16_t->name, c_int16_t->type, row_count, 16, i, 0, convertScale(c_int16_t->scale), decimalNulls);
-                #endif
-                break;
-            }
-            case monetdbe_int32_t:
-            {
-                monetdbe_column_int32_t *c_int32_t = (monetdbe_column_int32_t *)(*column);
-                int row_count = c_int32_t->count;
-                unsigned char *decimalNulls = NULL;
+    jobjectArray j_columns = (*env)->NewObjectArray(env, ncols, j_column_class, NULL);
+    for (int i = 0; i < ncols; i++)
+    {
+        finishColumn(env, j_columns, i, &columns[i]);
+    }
+    free(columns);
+    return j_columns;
+}
 
-                for (int j = 0; j < row_count; j++)
-                {
-                    if (c_int32_t->is_null(&c_int32_t->data[j]) == 1)
-                    {
-                        c_int32_t->data[j] = 0;
-
-                        //Checking for decimal type nulls
-                        if (c_int32_t->scale != 0)
-                        {
-                            if (decimalNulls == NULL) {
-                                decimalNulls = calloc(row_count, sizeof(unsigned char));
-                            }
-                            decimalNulls[j] = 1;
-                        }
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_int32_t->data, c_int32_t->name, c_int32_t->type, row_count, 32, i, c_int32_t->sql_type.digits, c_int32_t->sql_type.scale, decimalNulls);
-                #else
-                    addColumnConst(env, j_columns, c_int32_t->data, c_int32_t->name, c_int32_t->type, row_count, 32, i, 0, convertScale(c_int32_t->scale), decimalNulls);
-                #endif
-                break;
-            }
-            case monetdbe_int64_t:
-            {
-                monetdbe_column_int64_t *c_int64_t = (monetdbe_column_int64_t *)(*column);
-                int row_count = c_int64_t->count;
-                unsigned char *decimalNulls = NULL;
+JNIEXPORT jobjectArray JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1rows(JNIEnv *env, jclass self, jobject j_rs, jint offset, jint count, jint ncols)
+{
+    return fetchRows(env, j_rs, offset, count, ncols);
+}
 
-                for (int j = 0; j < row_count; j++)
-                {
-                    if (c_int64_t->is_null(&c_int64_t->data[j]) == 1)
-                    {
-                        c_int64_t->data[j] = 0;
-
-                        //Checking for decimal type nulls
-                        if (c_int64_t->scale != 0)
-                        {
-                            if (decimalNulls == NULL) {
-                                decimalNulls = calloc(row_count, sizeof(unsigned char));
-                            }
-                            decimalNulls[j] = 1;
-                        }
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_int64_t->data, c_int64_t->name, c_int64_t->type, row_count, 64, i, c_int64_t->sql_type.digits, c_int64_t->sql_type.scale, decimalNulls);
-                #else
-                    addColumnConst(env, j_columns, c_int64_t->data, c_int64_t->name, c_int64_t->type, row_count, 64, i, 0, convertScale(c_int64_t->scale), decimalNulls);
-                #endif
-                break;
-            }
-#ifdef HAVE_HGE
-            case monetdbe_int128_t:
-            {
-                monetdbe_column_int128_t *c_int128_t = (monetdbe_column_int128_t *)(*column);
-                int row_count = c_int128_t->count;
-                unsigned char *decimalNulls = NULL;
+JNIEXPORT jobject JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1column(JNIEnv *env, jclass self, jobject j_rs, jint column_index, jint offset, jint count)
+{
+    monetdbe_result *rs = (*env)->GetDirectBufferAddress(env, j_rs);
+    column_conversion conv;
+    if (!beginColumn(env, rs, &conv, column_index, offset, count))
+    {
+        return NULL;
+    }
+    scanColumn(&conv);
+    jobjectArray j_columns = (*env)->NewObjectArray(env, 1, j_column_class, NULL);
+    finishColumn(env, j_columns, 0, &conv);
+    return (*env)->GetObjectArrayElement(env, j_columns, 0);
+}
 
-                for (int j = 0; j < row_count; j++)
-                {
-                    if (c_int128_t->is_null(&c_int128_t->data[j]) == 1)
-                    {
-                        c_int128_t->data[j] = 0;
-
-                        //Checking for decimal type nulls
-                        if (c_int128_t->scale != 0)
-                        {
-                            if (decimalNulls == NULL) {
-                                decimalNulls = calloc(row_count, sizeof(unsigned char));
-                            }
-                            decimalNulls[j] = 1;
-                        }
-                    }
-                }
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_int128_t->data, c_int128_t->name, c_int128_t->type, row_count, 128, i, c_int128_t->sql_type.digits, c_int128_t->sql_type.scale, decimalNulls);
-                #else
-                    addColumnConst(env, j_columns, c_int128_t->data, c_int128_t->name, c_int128_t->type, row_count, 128, i, 0, convertScale(c_int128_t->scale), decimalNulls);
-                #endif
-                break;
-            }
-#endif
-            case monetdbe_float:
-            {
-                monetdbe_column_float *c_float = (monetdbe_column_float *)(*column);
-                for (int j = 0; j < c_float->count; j++)
-                {
-                    if (c_float->is_null(&c_float->data[j]) == 1)
-                    {
-                        c_float->data[j] = 0;
-                    }
-                }
+JNIEXPORT jobject JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1string_1column(JNIEnv *env, jclass self, jobject j_rs, jint column_index, jint offset, jint count)
+{
+    monetdbe_result *rs = (*env)->GetDirectBufferAddress(env, j_rs);
+    monetdbe_column *column;
+    char *error_msg = monetdbe_result_fetch(rs, &column, column_index);
+    if (error_msg)
+    {
+        throwJavaException(env, "java/sql/SQLException", error_msg);
+        return NULL;
+    }
+    if (column->type != monetdbe_str)
+    {
+        throwJavaException(env, "java/sql/SQLException", "Result column is not a string column");
+        return NULL;
+    }
+    monetdbe_column_str *str_column = (monetdbe_column_str *)column;
+    count = windowRowCount((int)column->count, offset, count);
+    char **strings = str_column->data + offset;
 
-                int type = c_float->type;
-//If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined
-#ifndef HAVE_HGE
-                type = type + 1;
-#endif
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_float->data, c_float->name, type, c_float->count, 32, i, c_float->sql_type.digits, c_float->sql_type.scale, NULL);
-                #else
-                    addColumnConst(env, j_columns, c_float->data, c_float->name, type, c_float->count, 32, i, 0, 0, NULL);
-                #endif
-                break;
-            }
-            case monetdbe_double:
+    //Offsets of each string in the UTF-8 buffer, plus the end of the last string
+    jint *offsets = malloc((count + 1) * sizeof(jint));
+    if (offsets == NULL)
+    {
+        throwJavaException(env, "java/lang/OutOfMemoryError", "Could not allocate the offsets of a string column");
+        return NULL;
+    }
+    unsigned char *nulls = NULL;
+    size_t total = 0;
+    for (int i = 0; i < count; i++)
+    {
+        offsets[i] = (jint)total;
+        if (str_column->is_null(&strings[i]) == 1)
+        {
+            if (nulls == NULL)
             {
-                monetdbe_column_double *c_double = (monetdbe_column_double *)(*column);
-                for (int j = 0; j < c_double->count; j++)
+                nulls = calloc(count, sizeof(unsigned char));
+                if (nulls == NULL)
                 {
-                    if (c_double->is_null(&c_double->data[j]) == 1)
-                    {
-                        c_double->data[j] = 0;
-                    }
+                    free(offsets);
+                    throwJavaException(env, "java/lang/OutOfMemoryError", "Could not allocate the null mask of a string column");
+                    return NULL;
                 }
-                int type = c_double->type;
-//If int128 is not defined, add 1 to type to "align" the type with versions with int128 defined
-#ifndef HAVE_HGE
-                type = type + 1;
-#endif
-                #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-                    addColumnConst(env, j_columns, c_double->data, c_double->name, type, c_double->count, 64, i, c_double->sql_type.digits, c_double->sql_type.scale, NULL);
-                #else
-                    addColumnConst(env, j_columns, c_double->data, c_double->name, type, c_double->count, 64, i, 0, 0, NULL);
-                #endif
-                break;
-            }
-            case monetdbe_str:
-            {
-                parseColumnString(env, j_columns, i, (monetdbe_column_str *)*column);
-                break;
-            }
-            case monetdbe_blob:
-            {
-                parseColumnBlob(env, j_columns, i, (monetdbe_column_blob *)*column);
-                break;
-            }
-            case monetdbe_date:
-            {
-                parseColumnDate(env, j_columns, i, (monetdbe_column_date *)*column);
-                break;
-            }
-            case monetdbe_time:
-            {
-                parseColumnTime(env, j_columns, i, (monetdbe_column_time *)*column);
-                break;
-            }
-            case monetdbe_timestamp:
-            {
-                parseColumnTimestamp(env, j_columns, i, (monetdbe_column_timestamp *)*column);
-                break;
-            }
-            default:
-                return NULL;
             }
+            nulls[i] = 1;
+        }
+        else
+        {
+            total += strlen(strings[i]);
+        }
+        if (total > INT_MAX)
+        {
+            free(offsets);
+            free(nulls);
+            throwJavaException(env, "java/lang/OutOfMemoryError", "Column data exceeds the maximum ByteBuffer size");
+            return NULL;
         }
     }
-    return j_columns;
+    offsets[count] = (jint)total;
+
+    //Copy all strings, without their terminators, into a single buffer
+    char *data;
+    jobject j_data = allocateDirectBuffer(env, (jlong)total, (void **)&data);
+    if (j_data == NULL)
+    {
+        free(offsets);
+        free(nulls);
+        return NULL;
+    }
+    for (int i = 0; i < count; i++)
+    {
+        if (nulls == NULL || !nulls[i])
+            memcpy(data + offsets[i], strings[i], offsets[i + 1] - offsets[i]);
+    }
+
+    jintArray j_offsets = (*env)->NewIntArray(env, count + 1);
+    if (j_offsets == NULL)
+    {
+        free(offsets);
+        free(nulls);
+        return NULL;
+    }
+    (*env)->SetIntArrayRegion(env, j_offsets, 0, count + 1, offsets);
+    free(offsets);
+    jbooleanArray j_nulls = NULL;
+    if (nulls != NULL)
+    {
+        j_nulls = (*env)->NewBooleanArray(env, count);
+        (*env)->SetBooleanArrayRegion(env, j_nulls, 0, count, (jboolean *)nulls);
+        free(nulls);
+    }
+    jstring j_name = (*env)->NewStringUTF(env, (const char *)column->name);
+    return (*env)->NewObject(env, j_string_column_class, j_string_column_constructor, j_name, j_data, j_offsets, j_nulls);
 }
 
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1cleanup(JNIEnv *env, jclass self, jobject j_db, jobject j_rs)
@@ -717,8 +1169,8 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result
     }
 }
 
-void setPreparedStatementInput (JNIEnv *env, jobject j_statement, jclass statementClass, int nInput, monetdbe_result** result, monetdbe_column **column, char **nameData, char **typeData, int *digitsData, int *scaleData) {
-    jobjectArray inputMonetdbTypes = (jobjectArray) (*env)->NewObjectArray(env,nInput,(*env)->FindClass(env,"java/lang/String"),NULL);
+void setPreparedStatementInput (JNIEnv *env, jobject j_statement, int nInput, monetdbe_result** result, monetdbe_column **column, char **nameData, char **typeData, int *digitsData, int *scaleData) {
+    jobjectArray inputMonetdbTypes = (jobjectArray) (*env)->NewObjectArray(env,nInput,j_string_class,NULL);
     jintArray inputDigits = (jintArray) (*env)->NewIntArray(env,nInput);
     jint* inputDigitsArray = malloc(sizeof(jint)*nInput);
     jintArray inputScale = (jintArray) (*env)->NewIntArray(env,nInput);
@@ -735,24 +1187,21 @@ void setPreparedStatementInput (JNIEnv *env, jobject j_statement, jclass stateme
             j += 1;
         }
     }
-    jfieldID paramTypesField = (*env)->GetFieldID(env, statementClass, "paramMonetGDKTypes", "[Ljava/lang/String;");
-    (*env)->SetObjectField(env, j_statement, paramTypesField, inputMonetdbTypes);
+    (*env)->SetObjectField(env, j_statement, j_prepared_param_types, inputMonetdbTypes);
 
 
     (*env)->SetIntArrayRegion(env,inputDigits,0,nInput,(const jint*)inputDigitsArray);
     (*env)->SetIntArrayRegion(env,inputScale,0,nInput,(const jint*)inputScaleArray);
 
-    jfieldID digitsField = (*env)->GetFieldID(env, statementClass, "digitsInput", "[I");
-    jfieldID scaleField = (*env)->GetFieldID(env, statementClass, "scaleInput", "[I");
-    (*env)->SetObjectField(env, j_statement, digitsField, inputDigits);
-    (*env)->SetObjectField(env, j_statement, scaleField, inputScale);
+    (*env)->SetObjectField(env, j_statement, j_prepared_digits_input, inputDigits);
+    (*env)->SetObjectField(env, j_statement, j_prepared_scale_input, inputScale);
     free(inputDigitsArray);
     free(inputScaleArray);
 }
 
-void setPreparedStatementOutput (JNIEnv *env, jobject j_statement, jclass statementClass, int nOutput, monetdbe_result** result, monetdbe_column **column, char **nameData, char **typeData, int *digitsData, int *scaleData) {
-    jobjectArray columnNames = (jobjectArray) (*env)->NewObjectArray(env,nOutput,(*env)->FindClass(env,"java/lang/String"),NULL);
-    jobjectArray outputMonetdbTypes = (jobjectArray) (*env)->NewObjectArray(env,nOutput,(*env)->FindClass(env,"java/lang/String"),NULL);
+void setPreparedStatementOutput (JNIEnv *env, jobject j_statement, int nOutput, monetdbe_result** result, monetdbe_column **column, char **nameData, char **typeData, int *digitsData, int *scaleData) {
+    jobjectArray columnNames = (jobjectArray) (*env)->NewObjectArray(env,nOutput,j_string_class,NULL);
+    jobjectArray outputMonetdbTypes = (jobjectArray) (*env)->NewObjectArray(env,nOutput,j_string_class,NULL);
 
     jintArray outputDigits = (jintArray) (*env)->NewIntArray(env,nOutput);
     jint* outputDigitsArray = malloc(sizeof(jint)*nOutput);
@@ -771,24 +1220,20 @@ void setPreparedStatementOutput (JNIEnv *env, jobject j_statement, jclass statem
             j += 1;
         }
     }
-    jfieldID resultTypesField = (*env)->GetFieldID(env, statementClass, "resultMonetGDKTypes", "[Ljava/lang/String;");
-    (*env)->SetObjectField(env,j_statement,resultTypesField,(jobjectArray)outputMonetdbTypes);
-    jfieldID resultNamesField = (*env)->GetFieldID(env, statementClass, "resultNames", "[Ljava/lang/String;");
-    (*env)->SetObjectField(env,j_statement,resultNamesField,(jobjectArray)columnNames);
+    (*env)->SetObjectField(env,j_statement,j_prepared_result_types,(jobjectArray)outputMonetdbTypes);
+    (*env)->SetObjectField(env,j_statement,j_prepared_result_names,(jobjectArray)columnNames);
 
     (*env)->SetIntArrayRegion(env,outputDigits,0,nOutput,(const jint*)outputDigitsArray);
     (*env)->SetIntArrayRegion(env,outputScale,0,nOutput,(const jint*)outputScaleArray);
 
-    jfieldID digitsField = (*env)->GetFieldID(env, statementClass, "digitsOutput", "[I");
-    jfieldID scaleField = (*env)->GetFieldID(env, statementClass, "scaleOutput", "[I");
-    (*env)->SetObjectField(env, j_statement, digitsField, outputDigits);
-    (*env)->SetObjectField(env, j_statement, scaleField, outputScale);
+    (*env)->SetObjectField(env, j_statement, j_prepared_digits_output, outputDigits);
+    (*env)->SetObjectField(env, j_statement, j_prepared_scale_output, outputScale);
     free(outputDigitsArray);
     free(outputScaleArray);
 }
 
 //Jan2022: Set input and output metadata variables
-void setPreparedStatementVariables (JNIEnv *env, jobject j_statement, jclass statementClass, monetdbe_result** result) {
+void setPreparedStatementVariables (JNIEnv *env, jobject j_statement, monetdbe_result** result) {
     monetdbe_column **column = malloc(sizeof(monetdbe_column *));
     char *error_msg;
     int nOutput = 0;
@@ -806,10 +1251,8 @@ void setPreparedStatementVariables (JNIEnv *env, jobject j_statement, jclass sta
             nInput += 1;
     }
     //Setting number of in/out variables in Java object
-    jfieldID nColsField = (*env)->GetFieldID(env, statementClass, "nCols", "I");
-    (*env)->SetIntField(env, j_statement, nColsField, (jint)nOutput);
-    jfieldID paramsField = (*env)->GetFieldID(env, statementClass, "nParams", "I");
-    (*env)->SetIntField(env, j_statement, paramsField, (jint)nInput);
+    (*env)->SetIntField(env, j_statement, j_prepared_n_cols, (jint)nOutput);
+    (*env)->SetIntField(env, j_statement, j_prepared_n_params, (jint)nInput);
 
     //TODO Do I need to free the column object before retrieving another one?
     //Getting MonetDB GDK types column (7th column)
@@ -824,19 +1267,18 @@ void setPreparedStatementVariables (JNIEnv *env, jobject j_statement, jclass sta
 
     //Setting input variables
     if (nInput > 0)
-        setPreparedStatementInput(env,j_statement,statementClass,nInput,result,column,nameData,typeData,digitsData,scaleData);
+        setPreparedStatementInput(env,j_statement,nInput,result,column,nameData,typeData,digitsData,scaleData);
     //Setting output variables
     if (nOutput > 0)
-        setPreparedStatementOutput(env,j_statement,statementClass,nOutput,result,column,nameData,typeData,digitsData,scaleData);
+        setPreparedStatementOutput(env,j_statement,nOutput,result,column,nameData,typeData,digitsData,scaleData);
     free(column);
     free(result);
 }
 
 //Jul2021: Set input metadata
-void setPreparedStatementVariablesJul (JNIEnv *env, jobject j_statement, jclass statementClass, monetdbe_statement **stmt) {
+void setPreparedStatementVariablesJul (JNIEnv *env, jobject j_statement, monetdbe_statement **stmt) {
     int nParams = (*stmt)->nparam;
-    jfieldID paramsField = (*env)->GetFieldID(env, statementClass, "nParams", "I");
-    (*env)->SetIntField(env, j_statement, paramsField, (jint)nParams);
+    (*env)->SetIntField(env, j_statement, j_prepared_n_params, (jint)nParams);
 
     if (nParams > 0) {
         jintArray j_parameterTypes = (*env)->NewIntArray(env, nParams);
@@ -861,8 +1303,7 @@ void setPreparedStatementVariablesJul (JNIEnv *env, jobject j_statement, jclass
         //If int128 is defined, we can just copy the whole type array
         (*env)->SetIntArrayRegion(env, j_parameterTypes, 0, nParams, (jint *)(*stmt)->type);
 #endif
-        jfieldID paramTypesField = (*env)->GetFieldID(env, statementClass, "monetdbeTypes", "[I");
-        (*env)->SetObjectField(env, j_statement, paramTypesField, j_parameterTypes);
+        (*env)->SetObjectField(env, j_statement, j_prepared_monetdbe_types, j_parameterTypes);
     }
 }
 
@@ -887,15 +1328,13 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1prepar
     else
     {
         //Freeing sql query and setting native statement
-        jclass statementClass = (*env)->GetObjectClass(env, j_statement);
         (*env)->ReleaseStringUTFChars(env, j_sql, sql);
-        jfieldID statementNativeField = (*env)->GetFieldID(env, statementClass, "statementNative", "Ljava/nio/ByteBuffer;");
-        (*env)->SetObjectField(env, j_statement, statementNativeField, (*env)->NewDirectByteBuffer(env, (*stmt), sizeof(monetdbe_statement)));
+        (*env)->SetObjectField(env, j_statement, j_prepared_statement_native, (*env)->NewDirectByteBuffer(env, (*stmt), sizeof(monetdbe_statement)));
 
 #if MONETDB_VERSION_MINOR > JUL2021_VERSION_MINOR
-        setPreparedStatementVariables(env,j_statement,statementClass,result);
+        setPreparedStatementVariables(env,j_statement,result);
 #else
-        setPreparedStatementVariablesJul(env,j_statement,statementClass,stmt);
+        setPreparedStatementVariablesJul(env,j_statement,stmt);
 #endif
         return NULL;
     }
@@ -993,6 +1432,26 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1
     return ret_str;
 }
 
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1blob_1buffer(JNIEnv *env, jclass self, jobject j_stmt, jint parameter_nr, jobject j_data, jlong size)
+{
+    //The bytes are read in place from the direct buffer, which the Java side keeps reachable while it is bound
+    monetdbe_data_blob *bind_data = malloc(sizeof(monetdbe_data_blob));
+    if (bind_data == NULL)
+    {
+        return (*env)->NewStringUTF(env, (const char *)"Could not allocate the blob parameter.");
+    }
+    bind_data->size = size;
+    bind_data->data = (char *)(*env)->GetDirectBufferAddress(env, j_data);
+    return bind_parsed_data(env, j_stmt, bind_data, (int)parameter_nr);
+}
+
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1string_1buffer(JNIEnv *env, jclass self, jobject j_stmt, jint parameter_nr, jobject j_data)
+{
+    //NUL-terminated UTF-8, read in place from the direct buffer
+    char *bind_data = (char *)(*env)->GetDirectBufferAddress(env, j_data);
+    return bind_parsed_data(env, j_stmt, bind_data, (int)parameter_nr);
+}
+
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1date(JNIEnv *env, jclass self, jobject j_stmt, jint parameter_nr, jint year, jint month, jint day)
 {
     monetdbe_data_date *date_bind = malloc(sizeof(monetdbe_data_date));
@@ -1050,6 +1509,159 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1execut
     }
 }
 
+//Size in bytes of a value of a constant length type, using the Java (int128 aligned) type numbers
+int appendTypeSize(int type)
+{
+    switch (type)
+    {
+    case 0:
+    case 1:
+        return 1;
+    case 2:
+        return 2;
+    case 3:
+    case 7:
+        return 4;
+    case 4:
+    case 8:
+        return 8;
+    default:
+        return 0;
+    }
+}
+
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1execute_1batch(JNIEnv *env, jclass self, jobject j_db, jobject j_stmt, jobjectArray j_columns, jintArray j_types, jobjectArray j_nulls, jint nrows, jlongArray j_counts)
+{
+    monetdbe_database db = (*env)->GetDirectBufferAddress(env, j_db);
+    monetdbe_statement *stmt = (*env)->GetDirectBufferAddress(env, j_stmt);
+    int nparams = (*env)->GetArrayLength(env, j_columns);
+    jint *types = (*env)->GetIntArrayElements(env, j_types, NULL);
+    //Constant length columns are copied once, strings are converted row by row
+    void **data = calloc(nparams, sizeof(void *));
+    jobjectArray *strings = calloc(nparams, sizeof(jobjectArray));
+    jbooleanArray *j_nulls_arrays = calloc(nparams, sizeof(jbooleanArray));
+    jboolean **nulls = calloc(nparams, sizeof(jboolean *));
+    const void **null_values = calloc(nparams, sizeof(void *));
+    jstring *row_strings = calloc(nparams, sizeof(jstring));
+    const char **row_chars = calloc(nparams, sizeof(char *));
+    jlong *counts = calloc(nrows, sizeof(jlong));
+
+    for (int p = 0; p < nparams; p++)
+    {
+        int type = types[p];
+        jobject j_data = (*env)->GetObjectArrayElement(env, j_columns, p);
+        if (type == 9)
+        {
+            strings[p] = (jobjectArray)j_data;
+        }
+        else
+        {
+            size_t size = (size_t)nrows * appendTypeSize(type);
+            data[p] = malloc(size);
+            void *elements = (*env)->GetPrimitiveArrayCritical(env, (jarray)j_data, NULL);
+            memcpy(data[p], elements, size);
+            (*env)->ReleasePrimitiveArrayCritical(env, (jarray)j_data, elements, JNI_ABORT);
+            (*env)->DeleteLocalRef(env, j_data);
+
+            j_nulls_arrays[p] = (jbooleanArray)(*env)->GetObjectArrayElement(env, j_nulls, p);
+            if (j_nulls_arrays[p] != NULL)
+                nulls[p] = (*env)->GetBooleanArrayElements(env, j_nulls_arrays[p], NULL);
+        }
+//If int128 is not defined, subtract 1 from types after int64 to "align" the Java type with the C type
+#ifndef HAVE_HGE
+        if (type > 4)
+            type = type - 1;
+#endif
+        null_values[p] = monetdbe_null(db, (monetdbe_types)type);
+    }
+
+    char *error_msg = NULL;
+    int executed = 0;
+    for (int row = 0; row < nrows && !error_msg; row++)
+    {
+        //Bind the parameters of the row
+        for (int p = 0; p < nparams && !error_msg; p++)
+        {
+            void *value;
+            if (strings[p] != NULL)
+            {
+                row_strings[p] = (jstring)(*env)->GetObjectArrayElement(env, strings[p], row);
+                if (row_strings[p] == NULL)
+                {
+                    value = (void *)null_values[p];
+                }
+                else
+                {
+                    row_chars[p] = (*env)->GetStringUTFChars(env, row_strings[p], NULL);
+                    value = (void *)row_chars[p];
+                }
+            }
+            else if (nulls[p] != NULL && nulls[p][row])
+            {
+                value = (void *)null_values[p];
+            }
+            else
+            {
+                value = (char *)data[p] + (size_t)row * appendTypeSize(types[p]);
+            }
+            error_msg = monetdbe_bind(stmt, value, p);
+        }
+
+        if (!error_msg)
+        {
+            monetdbe_result *result = NULL;
+            monetdbe_cnt affected_rows = 0;
+            error_msg = monetdbe_execute(stmt, &result, &affected_rows);
+            if (!error_msg && result)
+            {
+                size_t ncols = result->ncols;
+                monetdbe_cleanup_result(db, result);
+                if (ncols > 0)
+                    error_msg = "Query in batch produced a result set";
+            }
+            if (!error_msg)
+                counts[executed++] = (jlong)affected_rows;
+        }
+
+        //Bound strings are only released after the execution
+        for (int p = 0; p < nparams; p++)
+        {
+            if (row_chars[p] != NULL)
+                (*env)->ReleaseStringUTFChars(env, row_strings[p], row_chars[p]);
+            if (row_strings[p] != NULL)
+                (*env)->DeleteLocalRef(env, row_strings[p]);
+            row_chars[p] = NULL;
+            row_strings[p] = NULL;
+        }
+    }
+    (*env)->SetLongArrayRegion(env, j_counts, 0, executed, counts);
+
+    for (int p = 0; p < nparams; p++)
+    {
+        if (nulls[p] != NULL)
+            (*env)->ReleaseBooleanArrayElements(env, j_nulls_arrays[p], nulls[p], JNI_ABORT);
+        free(data[p]);
+    }
+    (*env)->ReleaseIntArrayElements(env, j_types, types, JNI_ABORT);
+    free(data);
+    free(strings);
+    free(j_nulls_arrays);
+    free(nulls);
+    free(null_values);
+    free(row_strings);
+    free(row_chars);
+    free(counts);
+
+    if (error_msg)
+    {
+        return (*env)->NewStringUTF(env, (const char *)error_msg);
+    }
+    else
+    {
+        return NULL;
+    }
+}
+
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1cleanup_1statement(JNIEnv *env, jclass self, jobject j_db, jobject j_stmt)
 {
     monetdbe_database db = (*env)->GetDirectBufferAddress(env, j_db);
@@ -1057,3 +1669,110 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1cleanu
     char *error_msg = monetdbe_cleanup_statement(db, stmt);
     return (*env)->NewStringUTF(env, (const char *)error_msg);
 }
+
+void freeAppendColumns(monetdbe_column **input, int ncols, jboolean *copied)
+{
+    for (int i = 0; i < ncols; i++)
+    {
+        if (input[i] == NULL)
+            continue;
+        if (input[i]->type == monetdbe_str && input[i]->data != NULL)
+        {
+            char **strings = (char **)input[i]->data;
+            for (size_t j = 0; j < input[i]->count; j++)
+            {
+                free(strings[j]);
+            }
+        }
+        if (copied[i])
+            free(input[i]->data);
+        free(input[i]);
+    }
+    free(input);
+    free(copied);
+}
+
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1append(JNIEnv *env, jclass self, jobject j_db, jstring j_schema, jstring j_table, jobjectArray j_columns, jintArray j_types, jint nrows)
+{
+    monetdbe_database db = (*env)->GetDirectBufferAddress(env, j_db);
+    int ncols = (*env)->GetArrayLength(env, j_columns);
+    monetdbe_column **input = calloc(ncols, sizeof(monetdbe_column *));
+    //Whether the column data was copied to malloc'ed memory, instead of pointing to a direct buffer
+    jboolean *copied = calloc(ncols, sizeof(jboolean));
+    jint *types = (*env)->GetIntArrayElements(env, j_types, NULL);
+
+    for (int i = 0; i < ncols; i++)
+    {
+        jobject j_data = (*env)->GetObjectArrayElement(env, j_columns, i);
+        monetdbe_column *column = calloc(1, sizeof(monetdbe_column));
+        int type = types[i];
+        column->count = nrows;
+        input[i] = column;
+
+        if (type == 9)
+        {
+            //Strings are converted to UTF-8, Java nulls are appended as the MonetDB string NULL value ("\200")
+            char **strings = calloc(nrows, sizeof(char *));
+            for (int j = 0; j < nrows; j++)
+            {
+                jstring j_string = (jstring)(*env)->GetObjectArrayElement(env, (jobjectArray)j_data, j);
+                if (j_string == NULL)
+                {
+                    strings[j] = strdup("\200");
+                }
+                else
+                {
+                    const char *string = (*env)->GetStringUTFChars(env, j_string, NULL);
+                    strings[j] = strdup(string);
+                    (*env)->ReleaseStringUTFChars(env, j_string, string);
+                    (*env)->DeleteLocalRef(env, j_string);
+                }
+            }
+            column->data = strings;
+            copied[i] = 1;
+        }
+        else
+        {
+            void *address = (*env)->GetDirectBufferAddress(env, j_data);
+            if (address != NULL)
+            {
+                //Direct buffers are appended without copying
+                column->data = address;
+            }
+            else
+            {
+                //Primitive arrays are copied once, so that the array is not pinned during the append
+                size_t size = (size_t)nrows * appendTypeSize(type);
+                column->data = malloc(size);
+                void *elements = (*env)->GetPrimitiveArrayCritical(env, (jarray)j_data, NULL);
+                memcpy(column->data, elements, size);
+                (*env)->ReleasePrimitiveArrayCritical(env, (jarray)j_data, elements, JNI_ABORT);
+                copied[i] = 1;
+            }
+        }
+//If int128 is not defined, subtract 1 from types after int64 to "align" the Java type with the C type
+#ifndef HAVE_HGE
+        if (type > 4)
+            type = type - 1;
+#endif
+        column->type = (monetdbe_types)type;
+        (*env)->DeleteLocalRef(env, j_data);
+    }
+    (*env)->ReleaseIntArrayElements(env, j_types, types, JNI_ABORT);
+
+    const char *schema = (*env)->GetStringUTFChars(env, j_schema, NULL);
+    const char *table = (*env)->GetStringUTFChars(env, j_table, NULL);
+    char *error_msg = monetdbe_append(db, schema, table, input, ncols);
+    (*env)->ReleaseStringUTFChars(env, j_schema, schema);
+    (*env)->ReleaseStringUTFChars(env, j_table, table);
+    freeAppendColumns(input, ncols, copied);
+
+    if (error_msg)
+    {
+        return (*env)->NewStringUTF(env, (const char *)error_msg);
+    }
+    else
+    {
+        return NULL;
+    }
+}
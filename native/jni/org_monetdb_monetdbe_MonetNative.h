@@ -49,11 +49,27 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1query
 
 /*
  * Class:     org_monetdb_monetdbe_MonetNative
- * Method:    monetdbe_result_fetch_all
- * Signature: (Ljava/nio/ByteBuffer;II)[Lorg/monetdb/monetdbe/MonetColumn;
+ * Method:    monetdbe_result_fetch_rows
+ * Signature: (Ljava/nio/ByteBuffer;III)[Lorg/monetdb/monetdbe/MonetColumn;
  */
-JNIEXPORT jobjectArray JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1all
-  (JNIEnv *, jclass, jobject, jint, jint);
+JNIEXPORT jobjectArray JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1rows
+  (JNIEnv *, jclass, jobject, jint, jint, jint);
+
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_result_fetch_column
+ * Signature: (Ljava/nio/ByteBuffer;III)Lorg/monetdb/monetdbe/MonetColumn;
+ */
+JNIEXPORT jobject JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1column
+  (JNIEnv *, jclass, jobject, jint, jint, jint);
+
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_result_fetch_string_column
+ * Signature: (Ljava/nio/ByteBuffer;III)Lorg/monetdb/monetdbe/MonetStringColumn;
+ */
+JNIEXPORT jobject JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1result_1fetch_1string_1column
+  (JNIEnv *, jclass, jobject, jint, jint, jint);
 
 /*
  * Class:     org_monetdb_monetdbe_MonetNative
@@ -103,6 +119,14 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1prepar
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1execute
   (JNIEnv *, jclass, jobject, jobject, jboolean, jint);
 
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_execute_batch
+ * Signature: (Ljava/nio/ByteBuffer;Ljava/nio/ByteBuffer;[Ljava/lang/Object;[I[Ljava/lang/Object;I[J)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1execute_1batch
+  (JNIEnv *, jclass, jobject, jobject, jobjectArray, jintArray, jobjectArray, jint, jlongArray);
+
 /*
  * Class:     org_monetdb_monetdbe_MonetNative
  * Method:    monetdbe_cleanup_statement
@@ -191,6 +215,22 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1blob
   (JNIEnv *, jclass, jobject, jint, jbyteArray, jlong);
 
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_bind_blob_buffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;J)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1blob_1buffer
+  (JNIEnv *, jclass, jobject, jint, jobject, jlong);
+
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_bind_string_buffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1string_1buffer
+  (JNIEnv *, jclass, jobject, jint, jobject);
+
 /*
  * Class:     org_monetdb_monetdbe_MonetNative
  * Method:    monetdbe_bind_date
@@ -231,6 +271,14 @@ JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1
 JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1bind_1null
   (JNIEnv *, jclass, jobject, jint, jobject, jint);
 
+/*
+ * Class:     org_monetdb_monetdbe_MonetNative
+ * Method:    monetdbe_append
+ * Signature: (Ljava/nio/ByteBuffer;Ljava/lang/String;Ljava/lang/String;[Ljava/lang/Object;[II)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_org_monetdb_monetdbe_MonetNative_monetdbe_1append
+  (JNIEnv *, jclass, jobject, jstring, jstring, jobjectArray, jintArray, jint);
+
 #ifdef __cplusplus
 }
 #endif